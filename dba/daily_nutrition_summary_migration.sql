@@ -0,0 +1,35 @@
+-- Adds the DailyNutritionSummary rollup to an existing YourHealthJournal database.
+-- Apply it before deploying the build that maintains the rollup: from then on every meal
+-- create, update and delete upserts the affected days and fails if the table is missing.
+-- The table is filled from the current meal journal with the same query as
+-- com.grittonbelldev.job.DailyNutritionBackfill, which can be run later to rebuild it.
+USE YourHealthJournal;
+
+CREATE TABLE IF NOT EXISTS DailyNutritionSummary (
+id BIGINT AUTO_INCREMENT PRIMARY KEY,
+user_id BIGINT NOT NULL,
+summary_date DATE NOT NULL,
+meal_count INT NOT NULL DEFAULT 0,
+calories DECIMAL(10,2) NOT NULL DEFAULT 0,
+protein DECIMAL(10,2) NOT NULL DEFAULT 0,
+fat DECIMAL(10,2) NOT NULL DEFAULT 0,
+carbs DECIMAL(10,2) NOT NULL DEFAULT 0,
+FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE,
+-- One row per user and day, also serves date-range reads for a user
+CONSTRAINT unique_daily_summary UNIQUE (user_id, summary_date)
+);
+
+-- Backfill: one row per user and day that has at least one meal
+INSERT INTO DailyNutritionSummary (user_id, summary_date, meal_count, calories, protein, fat, carbs)
+SELECT m.user_id, DATE(m.time_eaten), COUNT(DISTINCT m.id),
+       COALESCE(SUM(f.calories * e.serving_size), 0),
+       COALESCE(SUM(f.protein * e.serving_size), 0),
+       COALESCE(SUM(f.fat * e.serving_size), 0),
+       COALESCE(SUM(f.carbs * e.serving_size), 0)
+FROM Meal m
+LEFT JOIN FoodMealJournal e ON e.meal_id = m.id
+LEFT JOIN Food f ON f.id = e.food_id
+GROUP BY m.user_id, DATE(m.time_eaten)
+ON DUPLICATE KEY UPDATE meal_count = VALUES(meal_count),
+calories = VALUES(calories), protein = VALUES(protein),
+fat = VALUES(fat), carbs = VALUES(carbs);
@@ -0,0 +1,15 @@
+-- Adds the food catalog content hash to an existing YourHealthJournal database.
+-- Every existing row starts with a NULL hash. MySQL allows any number of NULLs under a
+-- UNIQUE constraint, so the index is created right away and protects new inserts.
+-- Afterwards run com.grittonbelldev.job.FoodCatalogBackfill to hash the existing rows
+-- and merge duplicates. The job can be re-run safely.
+USE YourHealthJournal;
+
+ALTER TABLE Food
+ADD COLUMN content_hash CHAR(64) NULL,
+ADD CONSTRAINT unique_food_content_hash UNIQUE (content_hash);
+
+-- Each journal entry keeps the spelling it was logged with, since the shared Food row only
+-- holds the first one. NULL means the entry shows the Food row's name.
+ALTER TABLE FoodMealJournal
+ADD COLUMN food_name VARCHAR(255) NULL;
@@ -5,6 +5,7 @@ USE YourHealthJournal;
 
 -- Disable FK checks to allow clean drops
 SET FOREIGN_KEY_CHECKS = 0;
+DROP TABLE IF EXISTS DailyNutritionSummary;
 DROP TABLE IF EXISTS GlucoseReading;
 DROP TABLE IF EXISTS FavoriteItems;
 DROP TABLE IF EXISTS FoodMealJournal;
@@ -40,7 +41,10 @@ vitamin_d DECIMAL(5,2),
 calcium DECIMAL(5,2),
 iron DECIMAL(5,2),
 potassium DECIMAL(5,2),
-notes TEXT
+notes TEXT,
+-- SHA-256 of the normalized name, nutrients and notes, so identical foods are stored once
+content_hash CHAR(64) NULL,
+CONSTRAINT unique_food_content_hash UNIQUE (content_hash)
 );
 
 -- Create the Meal table
@@ -50,7 +54,9 @@ user_id BIGINT NOT NULL,
 meal_name VARCHAR(255) NOT NULL,
 time_eaten DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
 is_favorite BOOLEAN DEFAULT FALSE,
-FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE
+FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE,
+-- Serves per-user listings ordered by time (keyset pagination seeks on time_eaten, id)
+INDEX idx_meal_user_time (user_id, time_eaten)
 );
 
 -- Create the FoodMealJournal table
@@ -59,6 +65,7 @@ id BIGINT AUTO_INCREMENT PRIMARY KEY,
 meal_id BIGINT NOT NULL,
 food_id BIGINT NOT NULL,
 serving_size DECIMAL(5,2) NOT NULL,
+food_name VARCHAR(255) NULL,
 FOREIGN KEY (meal_id) REFERENCES Meal(id) ON DELETE CASCADE,
 FOREIGN KEY (food_id) REFERENCES Food(id) ON DELETE CASCADE
 );
@@ -84,5 +91,22 @@ glucose_level DECIMAL(5,2) NOT NULL,
 measurement_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
 measurement_source VARCHAR(50) NOT NULL,
 notes TEXT NULL,
-FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE
+FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE,
+-- Serves per-user listings and time-range scans ordered by measurement_time
+INDEX idx_glucose_user_time (user_id, measurement_time)
+);
+
+-- Create the DailyNutritionSummary table (per-user, per-day rollup of the meal journal)
+CREATE TABLE DailyNutritionSummary (
+id BIGINT AUTO_INCREMENT PRIMARY KEY,
+user_id BIGINT NOT NULL,
+summary_date DATE NOT NULL,
+meal_count INT NOT NULL DEFAULT 0,
+calories DECIMAL(10,2) NOT NULL DEFAULT 0,
+protein DECIMAL(10,2) NOT NULL DEFAULT 0,
+fat DECIMAL(10,2) NOT NULL DEFAULT 0,
+carbs DECIMAL(10,2) NOT NULL DEFAULT 0,
+FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE,
+-- One row per user and day, also serves date-range reads for a user
+CONSTRAINT unique_daily_summary UNIQUE (user_id, summary_date)
 );
@@ -1,16 +1,25 @@
 package com.grittonbelldev.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.grittonbelldev.dto.GlucoseProfileDto;
 import com.grittonbelldev.dto.GlucoseRequestDto;
 import com.grittonbelldev.dto.GlucoseResponseDto;
+import com.grittonbelldev.dto.GlucoseSeriesDto;
+import com.grittonbelldev.dto.GlucoseStatsDto;
+import com.grittonbelldev.dto.PageDto;
+import com.grittonbelldev.service.GlucoseAnalyticsService;
 import com.grittonbelldev.service.GlucoseService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.*;
+import javax.ws.rs.ext.Providers;
 import java.net.URI;
 import java.security.Principal;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Objects;
 
 /**
  * JAX-RS resource exposing RESTful endpoints for managing glucose readings.
@@ -21,7 +30,12 @@ import java.util.List;
  *
  * Endpoints:
  * <ul>
- *     <li>GET    /api/readings         – list all glucose readings for the user</li>
+ *     <li>GET    /api/readings         – list the user's glucose readings, one page at a time,
+ *                                       optionally within a {@code from}/{@code to} time range</li>
+ *     <li>GET    /api/readings/series  – downsampled readings for charts</li>
+ *     <li>GET    /api/readings/stats   – time in range, variability and GMI for a window</li>
+ *     <li>GET    /api/readings/agp     – ambulatory glucose profile percentiles by time of day</li>
+ *     <li>GET    /api/readings/export  – stream the full history as JSON or NDJSON</li>
  *     <li>GET    /api/readings/{id}    – retrieve a specific reading</li>
  *     <li>POST   /api/readings         – create a new reading</li>
  *     <li>PUT    /api/readings/{id}    – update an existing reading</li>
@@ -33,12 +47,17 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class GlucoseResource {
 
+    // Media type for newline-delimited JSON exports
+    private static final String NDJSON = "application/x-ndjson";
+
     private final Logger logger = LogManager.getLogger(this.getClass());
 
     @Context
     private SecurityContext securityContext;
     // Service layer responsible for glucose business logic
     private final GlucoseService glucoseService = new GlucoseService();
+    // Computes time-in-range and variability statistics
+    private final GlucoseAnalyticsService analyticsService = new GlucoseAnalyticsService();
 
     /**
      * Helper method to extract the currently authenticated user's ID
@@ -64,18 +83,148 @@ public class GlucoseResource {
     }
 
     /**
-     * GET /api/readings
-     * Lists all glucose readings that belong to the current user.
+     * GET /api/readings?from=&to=
+     * Lists one page of the current user's glucose readings, newest first.
+     * Pass the returned {@code nextCursor} back as {@code cursor} to fetch the next page.
+     * <p>
+     * {@code from} and {@code to} are ISO-8601 local date-times (e.g. {@code 2024-02-17T00:00:00})
+     * and restrict the listing to readings taken in {@code [from, to)}.
+     * </p>
      *
-     * @return list of {@link GlucoseResponseDto}
+     * @param from optional inclusive start of the time range
+     * @param to optional exclusive end of the time range
+     * @param cursor opaque cursor from the previous page; omit for the first page
+     * @param limit optional page size (default 100, max 500)
+     * @return a page of {@link GlucoseResponseDto}
      */
     @GET
-    public List<GlucoseResponseDto> listAll() {
+    public PageDto<GlucoseResponseDto> listAll(@QueryParam("from") String from,
+                                               @QueryParam("to") String to,
+                                               @QueryParam("cursor") String cursor,
+                                               @QueryParam("limit") Integer limit) {
         long userId = currentUserId();
-        logger.info("GET /api/readings requested by user {}", userId);
-        List<GlucoseResponseDto> readings = glucoseService.listAllForUser(userId);
-        logger.debug("Found {} readings for user {}", readings.size(), userId);
-        return readings;
+        logger.info("GET /api/readings?from={}&to={}&cursor={}&limit={} requested by user {}",
+                from, to, cursor, limit, userId);
+        PageDto<GlucoseResponseDto> page = glucoseService.listPageForUser(
+                userId, QueryParams.parseTime("from", from), QueryParams.parseTime("to", to), cursor, limit);
+        logger.debug("Returning {} readings for user {}", page.getItems().size(), userId);
+        return page;
+    }
+
+    /**
+     * GET /api/readings/series?from=&to=&points=N
+     * Returns the current user's readings in {@code [from, to)} downsampled to at most
+     * {@code points} points (default 1000), for chart rendering.
+     * <p>
+     * {@code to} defaults to now and {@code from} defaults to 24 hours before {@code to}.
+     * </p>
+     *
+     * @param from optional inclusive start of the window
+     * @param to optional exclusive end of the window
+     * @param points maximum number of points to return
+     * @return the downsampled series
+     */
+    @GET
+    @Path("series")
+    public GlucoseSeriesDto series(@QueryParam("from") String from,
+                                   @QueryParam("to") String to,
+                                   @QueryParam("points") @DefaultValue("1000") int points) {
+        long userId = currentUserId();
+        logger.info("GET /api/readings/series?from={}&to={}&points={} requested by user {}", from, to, points, userId);
+        LocalDateTime end = Objects.requireNonNullElse(QueryParams.parseTime("to", to), LocalDateTime.now());
+        LocalDateTime start = Objects.requireNonNullElse(QueryParams.parseTime("from", from), end.minusDays(1));
+        GlucoseSeriesDto series = glucoseService.getSeriesForUser(userId, start, end, points);
+        logger.debug("Returning {} of {} points for user {}", series.getValues().length, series.getRawCount(), userId);
+        return series;
+    }
+
+    /**
+     * GET /api/readings/stats?from=&to=
+     * Returns time-in-range, variability and GMI statistics for the current user's
+     * readings in {@code [from, to)}.
+     * <p>
+     * {@code to} defaults to now and {@code from} defaults to 14 days before {@code to},
+     * the standard reporting window for CGM data.
+     * </p>
+     *
+     * @param from optional inclusive start of the window
+     * @param to optional exclusive end of the window
+     * @return the statistics
+     */
+    @GET
+    @Path("stats")
+    public GlucoseStatsDto stats(@QueryParam("from") String from, @QueryParam("to") String to) {
+        long userId = currentUserId();
+        logger.info("GET /api/readings/stats?from={}&to={} requested by user {}", from, to, userId);
+        LocalDateTime end = Objects.requireNonNullElse(QueryParams.parseTime("to", to), LocalDateTime.now());
+        LocalDateTime start = Objects.requireNonNullElse(QueryParams.parseTime("from", from), end.minusDays(14));
+        return analyticsService.statsForUser(userId, start, end);
+    }
+
+    /**
+     * GET /api/readings/agp?from=&to=&bucketMinutes=
+     * Returns the ambulatory glucose profile for the current user's readings in
+     * {@code [from, to)}: 5/25/50/75/95th percentiles for each time-of-day slot.
+     * <p>
+     * {@code to} defaults to now, {@code from} to 14 days before {@code to}, and slots
+     * are 15 minutes wide unless {@code bucketMinutes} says otherwise.
+     * </p>
+     *
+     * @param from optional inclusive start of the window
+     * @param to optional exclusive end of the window
+     * @param bucketMinutes slot width in minutes; must divide 1440
+     * @return the profile
+     */
+    @GET
+    @Path("agp")
+    public GlucoseProfileDto agp(@QueryParam("from") String from,
+                                 @QueryParam("to") String to,
+                                 @QueryParam("bucketMinutes") @DefaultValue("15") int bucketMinutes) {
+        long userId = currentUserId();
+        logger.info("GET /api/readings/agp?from={}&to={}&bucketMinutes={} requested by user {}",
+                from, to, bucketMinutes, userId);
+        LocalDateTime end = Objects.requireNonNullElse(QueryParams.parseTime("to", to), LocalDateTime.now());
+        LocalDateTime start = Objects.requireNonNullElse(QueryParams.parseTime("from", from), end.minusDays(14));
+        return analyticsService.profileForUser(userId, start, end, bucketMinutes);
+    }
+
+    /**
+     * GET /api/readings/export?format=json|ndjson
+     * Streams the current user's complete reading history, oldest first.
+     * <p>
+     * Rows are written to the response as they are read from the database, so the
+     * export never holds the full history in memory. {@code json} (the default) returns
+     * a JSON array; {@code ndjson} returns one JSON object per line.
+     * </p>
+     *
+     * @param format the output format, {@code json} or {@code ndjson}
+     * @param providers used to look up the application's configured ObjectMapper
+     * @return a streaming response
+     */
+    @GET
+    @Path("export")
+    @Produces({MediaType.APPLICATION_JSON, NDJSON})
+    public Response export(@QueryParam("format") @DefaultValue("json") String format,
+                           @Context Providers providers) {
+        long userId = currentUserId();
+        logger.info("GET /api/readings/export?format={} requested by user {}", format, userId);
+
+        boolean ndjson;
+        if ("ndjson".equalsIgnoreCase(format)) {
+            ndjson = true;
+        } else if ("json".equalsIgnoreCase(format)) {
+            ndjson = false;
+        } else {
+            logger.warn("Unsupported export format: {}", format);
+            throw new WebApplicationException("Unsupported format: " + format, Response.Status.BAD_REQUEST);
+        }
+
+        ObjectMapper mapper = providers.getContextResolver(ObjectMapper.class, MediaType.APPLICATION_JSON_TYPE)
+                .getContext(GlucoseResponseDto.class);
+        ObjectWriter writer = mapper.writerFor(GlucoseResponseDto.class);
+
+        StreamingOutput body = out -> glucoseService.exportForUser(userId, ndjson, writer, out);
+        return Response.ok(body, ndjson ? NDJSON : MediaType.APPLICATION_JSON).build();
     }
 
     /**
@@ -1,8 +1,12 @@
 package com.grittonbelldev.api;
 
+import com.grittonbelldev.dto.DailyNutritionDto;
+import com.grittonbelldev.dto.MealGlucoseResponseDto;
 import com.grittonbelldev.dto.MealRequestDto;
 import com.grittonbelldev.dto.MealResponseDto;
+import com.grittonbelldev.dto.PageDto;
 import com.grittonbelldev.service.MealService;
+import com.grittonbelldev.service.PostprandialService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -10,7 +14,10 @@ import javax.ws.rs.*;
 import javax.ws.rs.core.*;
 import java.net.URI;
 import java.security.Principal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * REST controller that manages Meal resources scoped to the currently authenticated user.
@@ -20,9 +27,12 @@ import java.util.List;
  *
  * Endpoints:
  * <ul>
- *     <li>GET    /api/meals           — list all meals for the authenticated user</li>
+ *     <li>GET    /api/meals           — list the authenticated user's meals, one page at a time</li>
  *     <li>GET    /api/meals/recent    — list meals from the last N days (default 30)</li>
+ *     <li>GET    /api/meals/daily     — daily calorie and macro totals for a date range</li>
+ *     <li>GET    /api/meals/responses — glucose responses to all meals in a time range</li>
  *     <li>GET    /api/meals/{id}      — get a single meal by ID if it belongs to the user</li>
+ *     <li>GET    /api/meals/{id}/response — glucose response to a single meal</li>
  *     <li>POST   /api/meals           — create a new meal for the authenticated user</li>
  *     <li>PUT    /api/meals/{id}      — update an existing meal if it belongs to the user</li>
  *     <li>DELETE /api/meals/{id}      — delete a meal if it belongs to the user</li>
@@ -41,6 +51,9 @@ public class MealResource {
     // Handles business logic for meal operations
     private final MealService mealService = new MealService();
 
+    // Relates meals to the glucose readings around them
+    private final PostprandialService postprandialService = new PostprandialService();
+
     /**
      * Helper method that retrieves the authenticated user's ID from the SecurityContext.
      *
@@ -65,17 +78,21 @@ public class MealResource {
 
     /**
      * GET /api/meals
-     * Returns all meals created by the authenticated user.
+     * Returns one page of the authenticated user's meals, newest first.
+     * Pass the returned {@code nextCursor} back as {@code cursor} to fetch the next page.
      *
-     * @return list of meals in response DTO format
+     * @param cursor opaque cursor from the previous page; omit for the first page
+     * @param limit optional page size (default 100, max 500)
+     * @return a page of meals in response DTO format
      */
     @GET
-    public List<MealResponseDto> listAll() {
+    public PageDto<MealResponseDto> listAll(@QueryParam("cursor") String cursor,
+                                            @QueryParam("limit") Integer limit) {
         long userId = currentUserId();
-        logger.info("GET /api/meals requested by user {}", userId);
-        List<MealResponseDto> meals = mealService.listAllForUser(userId);
-        logger.debug("Found {} meals for user {}", meals.size(), userId);
-        return meals;
+        logger.info("GET /api/meals?cursor={}&limit={} requested by user {}", cursor, limit, userId);
+        PageDto<MealResponseDto> page = mealService.listPageForUser(userId, cursor, limit);
+        logger.debug("Returning {} meals for user {}", page.getItems().size(), userId);
+        return page;
     }
 
 
@@ -101,6 +118,73 @@ public class MealResource {
     }
 
 
+    /**
+     * GET /api/meals/daily?from=&to=
+     * Returns the authenticated user's calorie, protein, fat and carb totals for each day
+     * in {@code [from, to]} that has at least one meal, oldest first.
+     * <p>
+     * {@code to} defaults to today and {@code from} to 6 days before {@code to}.
+     * </p>
+     *
+     * @param from optional first day, as an ISO-8601 local date
+     * @param to optional last day, as an ISO-8601 local date
+     * @return one entry per day with meals
+     */
+    @GET
+    @Path("/daily")
+    public List<DailyNutritionDto> listDailyTotals(@QueryParam("from") String from,
+                                                   @QueryParam("to") String to) {
+        long userId = currentUserId();
+        logger.info("GET /api/meals/daily?from={}&to={} requested by user {}", from, to, userId);
+        LocalDate last = Objects.requireNonNullElse(QueryParams.parseDate("to", to), LocalDate.now());
+        LocalDate first = Objects.requireNonNullElse(QueryParams.parseDate("from", from), last.minusDays(6));
+        List<DailyNutritionDto> days = mealService.listDailyTotalsForUser(userId, first, last);
+        logger.debug("Returning {} daily totals for user {}", days.size(), userId);
+        return days;
+    }
+
+
+    /**
+     * GET /api/meals/responses?from=&to=
+     * Returns the glucose response to every meal the authenticated user ate in
+     * {@code [from, to)}, oldest first.
+     * <p>
+     * {@code to} defaults to now and {@code from} to 14 days before {@code to}.
+     * </p>
+     *
+     * @param from optional inclusive start of the window, as an ISO-8601 local date-time
+     * @param to optional exclusive end of the window, as an ISO-8601 local date-time
+     * @return one response per meal
+     */
+    @GET
+    @Path("/responses")
+    public List<MealGlucoseResponseDto> listResponses(@QueryParam("from") String from,
+                                                      @QueryParam("to") String to) {
+        long userId = currentUserId();
+        logger.info("GET /api/meals/responses?from={}&to={} requested by user {}", from, to, userId);
+        LocalDateTime end = Objects.requireNonNullElse(QueryParams.parseTime("to", to), LocalDateTime.now());
+        LocalDateTime start = Objects.requireNonNullElse(QueryParams.parseTime("from", from), end.minusDays(14));
+        List<MealGlucoseResponseDto> responses = postprandialService.responsesForUser(userId, start, end);
+        logger.debug("Computed {} meal responses for user {}", responses.size(), userId);
+        return responses;
+    }
+
+    /**
+     * GET /api/meals/{id}/response
+     * Returns the glucose response to a single meal: baseline, peak, time to peak,
+     * 2-hour incremental AUC and time to return to baseline.
+     *
+     * @param id the meal ID
+     * @return the meal's glucose response
+     */
+    @GET
+    @Path("{id}/response")
+    public MealGlucoseResponseDto getResponse(@PathParam("id") Long id) {
+        long userId = currentUserId();
+        logger.info("GET /api/meals/{}/response requested by user {}", id, userId);
+        return postprandialService.responseForMeal(userId, id);
+    }
+
     /**
      * GET /api/meals/{id}
      * Retrieves a single meal by ID, only if it belongs to the authenticated user.
@@ -0,0 +1,114 @@
+package com.grittonbelldev.api;
+
+import com.grittonbelldev.auth.CognitoUserCache;
+import com.grittonbelldev.dto.CacheStatsDto;
+import com.grittonbelldev.persistence.SessionFactoryProvider;
+import com.grittonbelldev.service.NutritionixService;
+import com.grittonbelldev.util.CircuitBreaker;
+import com.grittonbelldev.util.JwtUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.servlet.ServletContext;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RESTful resource exposing runtime counters for operational monitoring.
+ * The counters describe the whole service rather than the caller's data, so only
+ * members of the "admin" Cognito group may read them; anyone else gets 403.
+ *
+ * Endpoints:
+ * <ul>
+ *   <li>GET /api/metrics/caches → size and hit/miss counters of the in-memory caches,
+ *       including the Hibernate second-level cache regions</li>
+ *   <li>GET /api/metrics/circuits → circuit breaker state of each Nutritionix endpoint</li>
+ * </ul>
+ */
+@Path("/metrics")
+@Produces(MediaType.APPLICATION_JSON)
+public class MetricsResource {
+
+    // Cognito group whose members may read the metrics
+    static final String ADMIN_ROLE = "admin";
+
+    @Context
+    private SecurityContext securityContext;
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    /**
+     * Rejects callers outside the admin group.
+     *
+     * @throws WebApplicationException if the caller is not an admin
+     */
+    private void requireAdmin() {
+        if (!securityContext.isUserInRole(ADMIN_ROLE)) {
+            Principal p = securityContext.getUserPrincipal();
+            logger.warn("Metrics requested by non-admin user {}", p != null ? p.getName() : null);
+            throw new WebApplicationException("Admin role required", Response.Status.FORBIDDEN);
+        }
+    }
+
+    /**
+     * Returns statistics for each in-memory cache and second-level cache region.
+     *
+     * @param ctx the servlet context holding the shared Nutritionix service
+     * @return one entry per cache
+     * @throws WebApplicationException if the caller is not an admin
+     */
+    @GET
+    @Path("caches")
+    public List<CacheStatsDto> cacheStats(@Context ServletContext ctx) {
+        requireAdmin();
+        logger.debug("GET /api/metrics/caches");
+        List<CacheStatsDto> stats = new ArrayList<>();
+        stats.add(CognitoUserCache.getInstance().stats());
+        stats.add(JwtUtils.verifiedTokenStats());
+
+        Object nutritionix = ctx.getAttribute(NutritionixService.CONTEXT_ATTRIBUTE);
+        if (nutritionix instanceof NutritionixService) {
+            stats.addAll(((NutritionixService) nutritionix).cacheStats());
+        }
+
+        Statistics hibernate = SessionFactoryProvider.getSessionFactory().getStatistics();
+        for (String region : hibernate.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStats = hibernate.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                stats.add(CacheStatsDto.of("hibernate." + region, regionStats));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the circuit breaker state of each Nutritionix endpoint.
+     *
+     * @param ctx the servlet context holding the shared Nutritionix service
+     * @return the states keyed by endpoint name; empty when Nutritionix is not configured
+     * @throws WebApplicationException if the caller is not an admin
+     */
+    @GET
+    @Path("circuits")
+    public Map<String, CircuitBreaker.State> circuitStates(@Context ServletContext ctx) {
+        requireAdmin();
+        logger.debug("GET /api/metrics/circuits");
+        Object nutritionix = ctx.getAttribute(NutritionixService.CONTEXT_ATTRIBUTE);
+        if (nutritionix instanceof NutritionixService) {
+            return ((NutritionixService) nutritionix).circuitStates();
+        }
+        return Map.of();
+    }
+}
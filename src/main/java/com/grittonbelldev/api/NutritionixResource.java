@@ -2,14 +2,17 @@ package com.grittonbelldev.api;
 
 import com.grittonbelldev.dto.nutritionix.*;
 import com.grittonbelldev.service.NutritionixService;
+import com.grittonbelldev.util.Futures;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.servlet.ServletContext;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.*;
 import java.util.List;
-import java.util.Objects;
+import java.util.function.BiConsumer;
 
 /**
  * Provides REST API endpoints that proxy Nutritionix search and analysis features.
@@ -26,8 +29,13 @@ import java.util.Objects;
  *     <li>POST   /api/nutritionix/foods/nutrients        — parses natural-language queries for nutrition facts</li>
  * </ul>
  *
- * Credentials (appId, appKey) are loaded from ServletContext attributes,
- * which are set during application startup.
+ * The {@link NutritionixService} is created once during application startup and
+ * read from the ServletContext, so requests share its HTTP connections.
+ *
+ * The full search, item lookup and nutrient analysis endpoints are asynchronous: they
+ * suspend the request and return, and the response is resumed when the upstream call
+ * completes. The container thread goes back to the pool while Nutritionix is answering,
+ * so a fixed-size pool can serve many more concurrent searches.
  */
 @Path("/nutritionix/foods")
 @Produces(MediaType.APPLICATION_JSON)
@@ -37,27 +45,24 @@ public class NutritionixResource {
     private final Logger logger = LogManager.getLogger(this.getClass());
 
     /**
-     * Injects the ServletContext and retrieves Nutritionix credentials.
-     * If credentials are missing, this method throws a 503 error.
+     * Injects the ServletContext and retrieves the shared Nutritionix service.
+     * If the service was not configured at startup, this method throws a 503 error.
      *
-     * @param ctx the servlet context used to load configuration attributes
+     * @param ctx the servlet context holding application-wide components
      */
     @Context
     public void setServletContext(ServletContext ctx) {
-        String appId  = Objects.toString(ctx.getAttribute("nutritionix.appId"), null);
-        String appKey = Objects.toString(ctx.getAttribute("nutritionix.appKey"), null);
+        Object service = ctx.getAttribute(NutritionixService.CONTEXT_ATTRIBUTE);
 
-        if (appId == null || appKey == null) {
-            logger.error("Nutritionix credentials missing in ServletContext.");
+        if (!(service instanceof NutritionixService)) {
+            logger.error("Nutritionix service missing in ServletContext.");
             throw new WebApplicationException(
                     "Nutritionix API not configured",
                     Response.Status.SERVICE_UNAVAILABLE
             );
         }
 
-        logger.info("Nutritionix credentials loaded from context.");
-        // Instantiate service with runtime credentials
-        this.nutritionixService = new NutritionixService(appId, appKey);
+        this.nutritionixService = (NutritionixService) service;
     }
 
     /**
@@ -65,22 +70,16 @@ public class NutritionixResource {
      * Combines both common and branded results into a single DTO.
      *
      * @param q the search query term
-     * @return a DTO with separate lists of common and branded results
+     * @param response resumed with a DTO holding separate lists of common and branded results
      */
     @GET
-    public NutritionixSearchResponseDto searchAll(
-            @QueryParam("q") @DefaultValue("") String q
+    public void searchAll(
+            @QueryParam("q") @DefaultValue("") String q,
+            @Suspended AsyncResponse response
     ) {
         logger.info("GET /nutritionix/foods?q={}", q);
-        try {
-            return nutritionixService.searchAll(q);
-        } catch (Exception e) {
-            logger.error("Error during searchAll: {}", e.getMessage(), e);
-            throw new WebApplicationException(
-                    "Failed to search Nutritionix: " + e.getMessage(),
-                    Response.Status.BAD_GATEWAY
-            );
-        }
+        nutritionixService.searchAllAsync(q)
+                .whenComplete(resumeWith(response, "searchAll", "Failed to search Nutritionix: "));
     }
 
     /**
@@ -133,26 +132,17 @@ public class NutritionixResource {
      * Retrieves detailed nutrition data for a single branded item.
      *
      * @param nixItemId the Nutritionix item identifier
-     * @return the full {@link FoodsItem} with nutrients and metadata
+     * @param response resumed with the full {@link FoodsItem} with nutrients and metadata
      */
     @GET
     @Path("{nixItemId}")
-    public FoodsItem getById(
-            @PathParam("nixItemId") String nixItemId
+    public void getById(
+            @PathParam("nixItemId") String nixItemId,
+            @Suspended AsyncResponse response
     ) {
         logger.info("GET /nutritionix/foods/{}", nixItemId);
-        try {
-            return nutritionixService.fetchById(nixItemId);
-        } catch (WebApplicationException e) {
-            logger.warn("WebApplicationException for fetchById: {}", e.getMessage(), e);
-            throw e; // Preserve any custom HTTP status thrown inside service
-        } catch (Exception e) {
-            logger.error("Error fetching item by ID: {}", e.getMessage(), e);
-            throw new WebApplicationException(
-                    "Failed to fetch Nutritionix item: " + e.getMessage(),
-                    Response.Status.BAD_GATEWAY
-            );
-        }
+        nutritionixService.fetchByIdAsync(nixItemId)
+                .whenComplete(resumeWith(response, "fetchById", "Failed to fetch Nutritionix item: "));
     }
 
     /**
@@ -160,12 +150,12 @@ public class NutritionixResource {
      * and returns estimated nutrients for the described items.
      *
      * @param req a DTO containing the natural language query string
-     * @return a list of parsed {@link FoodsItem} entries
+     * @param response resumed with a list of parsed {@link FoodsItem} entries
      */
     @POST
     @Path("nutrients")
     @Consumes(MediaType.APPLICATION_JSON)
-    public List<FoodsItem> analyzeNutrients(NutrientsRequestDto req) {
+    public void analyzeNutrients(NutrientsRequestDto req, @Suspended AsyncResponse response) {
         String q = req.getQuery();
         logger.info("POST /nutritionix/foods/nutrients with query: {}", q);
         if (q == null || q.trim().isEmpty()) {
@@ -173,15 +163,37 @@ public class NutritionixResource {
             throw new WebApplicationException("`query` must be provided",
                     Response.Status.BAD_REQUEST);
         }
-        try {
-            return nutritionixService.naturalNutrients(q);
-        } catch (WebApplicationException e) {
-            logger.warn("WebApplicationException during nutrient analysis: {}", e.getMessage(), e);
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error during nutrient analysis: {}", e.getMessage(), e);
-            throw new WebApplicationException("Failed to analyze nutrients: " + e.getMessage(),
-                    Response.Status.BAD_GATEWAY);
-        }
+        nutritionixService.naturalNutrientsAsync(q)
+                .whenComplete(resumeWith(response, "nutrient analysis", "Failed to analyze nutrients: "));
+    }
+
+    /**
+     * Builds the callback that resumes a suspended request once the service's future completes.
+     *
+     * <p>A {@link WebApplicationException} from the service keeps its HTTP status (e.g. 404
+     * or 503); any other failure is reported as 502 Bad Gateway.</p>
+     *
+     * @param response the suspended response to resume
+     * @param operation a short name for the call, used in log messages
+     * @param failureMessage prefix for the 502 error message
+     * @return the completion callback
+     */
+    private <T> BiConsumer<T, Throwable> resumeWith(AsyncResponse response, String operation,
+                                                    String failureMessage) {
+        return (result, error) -> {
+            if (error == null) {
+                response.resume(result);
+                return;
+            }
+            Throwable cause = Futures.unwrap(error);
+            if (cause instanceof WebApplicationException) {
+                logger.warn("WebApplicationException during {}: {}", operation, cause.getMessage(), cause);
+                response.resume(cause); // Preserve any custom HTTP status thrown inside service
+            } else {
+                logger.error("Error during {}: {}", operation, cause.getMessage(), cause);
+                response.resume(new WebApplicationException(failureMessage + cause.getMessage(),
+                        Response.Status.BAD_GATEWAY));
+            }
+        };
     }
 }
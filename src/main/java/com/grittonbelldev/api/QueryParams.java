@@ -0,0 +1,63 @@
+package com.grittonbelldev.api;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses optional ISO-8601 query parameters for the resource classes.
+ *
+ * <p>An omitted parameter and an empty one ({@code ?to=}) both parse to null, so callers
+ * apply the same default to either.</p>
+ */
+final class QueryParams {
+
+    private static final Logger logger = LogManager.getLogger(QueryParams.class);
+
+    private QueryParams() {}
+
+    /**
+     * Parses an optional ISO-8601 local date-time query parameter.
+     *
+     * @param name the parameter name, used in the error message
+     * @param value the raw parameter value, or null
+     * @return the parsed time, or null when the parameter was omitted or blank
+     * @throws WebApplicationException if the value is not a valid date-time
+     */
+    static LocalDateTime parseTime(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            logger.warn("Invalid '{}' parameter: {}", name, value);
+            throw new WebApplicationException("Invalid '" + name + "' date-time: " + value, Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Parses an optional ISO-8601 local date query parameter.
+     *
+     * @param name the parameter name, used in the error message
+     * @param value the raw parameter value, or null
+     * @return the parsed date, or null when the parameter was omitted or blank
+     * @throws WebApplicationException if the value is not a valid date
+     */
+    static LocalDate parseDate(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            logger.warn("Invalid '{}' parameter: {}", name, value);
+            throw new WebApplicationException("Invalid '" + name + "' date: " + value, Response.Status.BAD_REQUEST);
+        }
+    }
+}
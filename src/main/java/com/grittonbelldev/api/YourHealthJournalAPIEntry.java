@@ -42,6 +42,7 @@ public class YourHealthJournalAPIEntry extends Application {
                 UserResource.class,          // Provides endpoints for the authenticated user's profile
                 NutritionixResource.class,   // Provides integration with the Nutritionix API
                 AuthResource.class,          // Handles OAuth callback and token processing
+                MetricsResource.class,       // Exposes cache hit/miss counters to admins for monitoring
                 JwtAuthFilter.class,         // Validates JWTs and attaches user identity to requests
                 CorsPreflightResource.class, // Handles HTTP OPTIONS requests for CORS preflight
                 CorsFilter.class,            // Adds CORS headers to all API responses
@@ -0,0 +1,92 @@
+package com.grittonbelldev.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.grittonbelldev.dto.CacheStatsDto;
+import com.grittonbelldev.service.UserService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+
+/**
+ * Bounded, expiring cache from a Cognito subject ({@code sub}) to the internal user ID.
+ *
+ * <p>{@link JwtAuthFilter} resolves the caller on every authenticated request. Without this cache
+ * each request costs a session and a criteria query just to turn the token subject into a
+ * {@code Long}. Lookups for the same subject are atomic: concurrent first requests share one
+ * find-or-create call instead of racing to insert the user. Entries expire after
+ * {@link #TTL} so the mapping cannot outlive a removed user indefinitely.</p>
+ */
+public class CognitoUserCache {
+
+    /** Maximum number of subjects kept; least recently used ones are evicted first. */
+    static final long MAX_SIZE = 10_000;
+
+    /** How long a mapping is trusted after it was loaded. */
+    static final Duration TTL = Duration.ofMinutes(30);
+
+    private static final CognitoUserCache INSTANCE = new CognitoUserCache(new UserService(), MAX_SIZE, TTL);
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final UserService userService;
+    private final Cache<String, Long> userIds;
+
+    /**
+     * Creates a cache backed by the given user service.
+     *
+     * @param userService the service used to find or create users on a miss
+     * @param maxSize the maximum number of entries
+     * @param ttl how long an entry stays valid after it is loaded
+     */
+    CognitoUserCache(UserService userService, long maxSize, Duration ttl) {
+        this.userService = userService;
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets the application-wide instance.
+     *
+     * @return the shared cache
+     */
+    public static CognitoUserCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the internal user ID for a Cognito subject, creating the user on first sight.
+     *
+     * @param cognitoSub the token subject
+     * @param email the email claim, used only if the user has to be created
+     * @return the internal user ID
+     */
+    public long resolveUserId(String cognitoSub, String email) {
+        return userIds.get(cognitoSub, sub -> {
+            logger.debug("User ID cache miss for Cognito ID {}", sub);
+            return userService.findOrCreateByCognitoId(sub, email).getId();
+        });
+    }
+
+    /**
+     * Drops the cached mapping for a subject, e.g. after the user was removed.
+     *
+     * @param cognitoSub the token subject
+     */
+    public void invalidate(String cognitoSub) {
+        userIds.invalidate(cognitoSub);
+    }
+
+    /**
+     * Returns the cache's size and hit/miss counters.
+     *
+     * @return a statistics snapshot
+     */
+    public CacheStatsDto stats() {
+        return CacheStatsDto.of("cognitoUserIds", userIds.estimatedSize(), userIds.stats());
+    }
+}
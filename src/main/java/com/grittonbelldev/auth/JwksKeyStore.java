@@ -0,0 +1,198 @@
+package com.grittonbelldev.auth;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.ws.rs.ProcessingException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the identity provider's signing keys, indexed by key ID, and keeps them fresh
+ * without making request threads wait.
+ *
+ * <ul>
+ *   <li><b>Stale-while-revalidate:</b> once the keys are older than the TTL, the next lookup
+ *       starts a refresh on the background executor and is answered from the current keys.</li>
+ *   <li><b>Unknown kid:</b> a lookup for a kid that is not in the current set (e.g. right after
+ *       a key rotation) waits for a refresh, since there is nothing to serve.</li>
+ *   <li><b>Single flight:</b> at most one fetch runs at a time; every caller that needs a refresh
+ *       while one is running shares its result.</li>
+ *   <li><b>Back-off:</b> fetches start at most once per minimum interval, so a stream of tokens
+ *       with a bogus kid, or an unreachable endpoint, cannot turn into a stream of HTTP calls.</li>
+ * </ul>
+ *
+ * Only the very first lookup blocks unconditionally, because no keys exist yet. If that fetch
+ * fails, lookups fail fast until the minimum interval has passed, then the next one retries.
+ */
+public class JwksKeyStore {
+
+    private static final Logger logger = LogManager.getLogger(JwksKeyStore.class);
+
+    private final Supplier<Map<String, PublicKey>> fetcher;
+    private final long ttlMs;
+    private final long minRefreshIntervalMs;
+    private final Executor executor;
+    private final Clock clock;
+
+    private volatile KeySet current;
+    // Clock millis of the last fetch attempt, successful or not (0 = never)
+    private volatile long lastAttempt;
+    private final AtomicReference<CompletableFuture<KeySet>> inFlight = new AtomicReference<>();
+
+    /**
+     * Creates a key store. Nothing is fetched until the first lookup.
+     *
+     * @param fetcher downloads the current key set; runs on the executor
+     * @param ttl how long a fetched key set is considered fresh
+     * @param minRefreshInterval minimum time between two fetch attempts
+     * @param executor runs background fetches
+     * @param clock the clock used for freshness checks
+     */
+    public JwksKeyStore(Supplier<Map<String, PublicKey>> fetcher, Duration ttl, Duration minRefreshInterval,
+                        Executor executor, Clock clock) {
+        this.fetcher = fetcher;
+        this.ttlMs = ttl.toMillis();
+        this.minRefreshIntervalMs = minRefreshInterval.toMillis();
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the public key for a key ID.
+     *
+     * @param kid the key ID from the token header
+     * @return the key, or null if the identity provider does not publish that kid
+     * @throws ProcessingException if no key set could ever be loaded
+     */
+    public PublicKey getKey(String kid) {
+        KeySet keys = current;
+        if (keys == null) {
+            keys = await(refresh(true));
+        } else if (clock.millis() - keys.fetchedAt > ttlMs) {
+            // Serve the current keys; the refreshed set is picked up by later requests
+            refresh(false);
+        }
+
+        PublicKey key = keys.byKid.get(kid);
+        if (key == null && (inFlight.get() != null || clock.millis() - lastAttempt >= minRefreshIntervalMs)) {
+            logger.info("Unknown kid {}; refreshing JWKS", kid);
+            try {
+                key = await(refresh(false)).byKid.get(kid);
+            } catch (ProcessingException e) {
+                // Keep answering from the keys we have
+                logger.warn("JWKS refresh for unknown kid {} failed: {}", kid, e.getMessage());
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Starts a fetch unless one is already running, in which case that one is returned.
+     *
+     * @param force whether to ignore the minimum refresh interval if no fetch was ever attempted
+     * @return a future for the key set the fetch produces (or the current set if throttled)
+     */
+    private CompletableFuture<KeySet> refresh(boolean force) {
+        while (true) {
+            CompletableFuture<KeySet> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            long now = clock.millis();
+            // After a failed first fetch a forced refresh is throttled too, so an outage is not retried per request
+            boolean firstAttempt = force && lastAttempt == 0;
+            if (!firstAttempt && now - lastAttempt < minRefreshIntervalMs) {
+                return CompletableFuture.completedFuture(current);
+            }
+
+            CompletableFuture<KeySet> mine = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, mine)) {
+                continue;
+            }
+            lastAttempt = now;
+            try {
+                executor.execute(() -> fetchInto(mine));
+            } catch (RuntimeException e) {
+                inFlight.set(null);
+                mine.completeExceptionally(e);
+            }
+            return mine;
+        }
+    }
+
+    private void fetchInto(CompletableFuture<KeySet> result) {
+        try {
+            KeySet keys = new KeySet(fetcher.get(), clock.millis());
+            current = keys;
+            logger.info("Loaded {} signing keys from JWKS", keys.byKid.size());
+            result.complete(keys);
+        } catch (RuntimeException e) {
+            logger.warn("JWKS fetch failed: {}", e.getMessage(), e);
+            result.completeExceptionally(e);
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private static KeySet await(CompletableFuture<KeySet> future) {
+        try {
+            KeySet keys = future.join();
+            if (keys == null) {
+                throw new ProcessingException("JWKS not available");
+            }
+            return keys;
+        } catch (CompletionException e) {
+            throw new ProcessingException("Unable to load JWKS", e.getCause());
+        }
+    }
+
+    /**
+     * Rebuilds each RSA key in a JWK set from its modulus and exponent.
+     *
+     * @param keys the JWK set
+     * @return the public keys indexed by key ID (kid)
+     * @throws ProcessingException if a key cannot be built
+     */
+    public static Map<String, PublicKey> toPublicKeys(Keys keys) {
+        Map<String, PublicKey> result = new HashMap<>();
+        try {
+            KeyFactory kf = KeyFactory.getInstance("RSA");
+            for (KeysItem item : keys.getKeys()) {
+                // Decode modulus (n) and exponent (e) to reconstruct RSA public key
+                BigInteger n = new BigInteger(1, Base64.getUrlDecoder().decode(item.getN()));
+                BigInteger e = new BigInteger(1, Base64.getUrlDecoder().decode(item.getE()));
+                result.put(item.getKid(), kf.generatePublic(new RSAPublicKeySpec(n, e)));
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new ProcessingException("Invalid JWKS", ex);
+        }
+        return result;
+    }
+
+    /**
+     * An immutable key set and the time it was fetched.
+     */
+    private static final class KeySet {
+        private final Map<String, PublicKey> byKid;
+        private final long fetchedAt;
+
+        private KeySet(Map<String, PublicKey> byKid, long fetchedAt) {
+            this.byKid = Map.copyOf(byKid);
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.grittonbelldev.auth;
 
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.grittonbelldev.entity.User;
-import com.grittonbelldev.service.UserService;
 import com.grittonbelldev.util.JwtUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -17,6 +16,7 @@ import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.ext.Provider;
 import java.io.IOException;
 import java.security.Principal;
+import java.util.List;
 
 /**
  * JAX-RS container request filter that handles authentication via AWS Cognito JWT.
@@ -25,8 +25,10 @@ import java.security.Principal;
  * <ul>
  *   <li>Extracts and verifies the JWT token from the Authorization header.</li>
  *   <li>Validates the token using the project's JWKS logic in {@link JwtUtils}.</li>
- *   <li>Retrieves or creates a {@link User} entity matching the Cognito subject and email.</li>
- *   <li>Replaces the request's {@link SecurityContext} so that the user principal reflects the internal User ID.</li>
+ *   <li>Resolves (or creates) the {@link User} matching the Cognito subject and email,
+ *       through {@link CognitoUserCache} so repeat callers cost no database round trip.</li>
+ *   <li>Replaces the request's {@link SecurityContext} so that the user principal reflects the internal User ID
+ *       and the user's roles are the Cognito groups listed in the token.</li>
  * </ul>
  * This enables secure API access with per-user identification while preserving compatibility
  * with JAX-RS-based role checks and principal lookups.
@@ -36,7 +38,8 @@ import java.security.Principal;
 public class JwtAuthFilter implements ContainerRequestFilter {
 
     private static final String BEARER_PREFIX = "Bearer ";
-    private final UserService userService = new UserService();
+    private static final String GROUPS_CLAIM = "cognito:groups";
+    private final CognitoUserCache userCache = CognitoUserCache.getInstance();
     private final Logger logger = LogManager.getLogger(this.getClass());
 
     /**
@@ -93,9 +96,12 @@ public class JwtAuthFilter implements ContainerRequestFilter {
             return;
         }
 
-        // Retrieve or create an internal User record based on Cognito sub and email
-        User user = userService.findOrCreateByCognitoId(cognitoSub, email);
-        final long internalId = user.getId();
+        // Resolve (or create) the internal User ID for the Cognito sub, served from cache when possible
+        final long internalId = userCache.resolveUserId(cognitoSub, email);
+
+        // Cognito lists the user's groups in the token; they act as the user's roles
+        List<String> claimedGroups = jwt.getClaim(GROUPS_CLAIM).asList(String.class);
+        final List<String> groups = claimedGroups != null ? claimedGroups : List.of();
 
         // Replace the SecurityContext with one that exposes the internal User ID
         final SecurityContext original = ctx.getSecurityContext();
@@ -107,7 +113,7 @@ public class JwtAuthFilter implements ContainerRequestFilter {
 
             @Override
             public boolean isUserInRole(String role) {
-                return original.isUserInRole(role);
+                return groups.contains(role);
             }
 
             @Override
@@ -0,0 +1,190 @@
+package com.grittonbelldev.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.grittonbelldev.dto.CacheStatsDto;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.ws.rs.ProcessingException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Verifies RS256-signed JWTs and remembers the ones that passed.
+ *
+ * <p>Each token is decoded exactly once. The header's {@code kid} selects a prebuilt
+ * {@link PublicKey} from the key lookup, so no key material is parsed per request. The
+ * signature, expiry and issuer are then checked against the decoded token.</p>
+ *
+ * <p>Successful verifications are cached under the SHA-256 of the token until the token's
+ * {@code exp}. A client repeating the same bearer token therefore costs one hash and one map
+ * lookup instead of an RSA verify. Raw tokens are never used as cache keys. Failed
+ * verifications are not cached.</p>
+ */
+public class JwtVerifier {
+
+    private static final Logger logger = LogManager.getLogger(JwtVerifier.class);
+
+    private static final String ALGORITHM = "RS256";
+
+    private final String issuer;
+    private final Function<String, PublicKey> keyLookup;
+    private final Clock clock;
+    private final Cache<String, DecodedJWT> verified;
+
+    /**
+     * Creates a verifier.
+     *
+     * @param issuer the required {@code iss} claim
+     * @param keyLookup returns the public key for a {@code kid}, or null if the kid is unknown
+     * @param maxCachedTokens the maximum number of verified tokens to remember
+     * @param clock the clock used for expiry checks
+     */
+    public JwtVerifier(String issuer, Function<String, PublicKey> keyLookup, long maxCachedTokens, Clock clock) {
+        this.issuer = issuer;
+        this.keyLookup = keyLookup;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Verifies a token, answering from the cache when the same token was verified before.
+     *
+     * @param token the raw JWT
+     * @return the decoded token
+     * @throws ProcessingException if the token is malformed, badly signed, expired or from another issuer
+     */
+    public DecodedJWT verify(String token) {
+        String key = sha256(token);
+        DecodedJWT cached = verified.getIfPresent(key);
+        if (cached != null) {
+            // Cache expiry is lazy, so the exp claim is still the authority
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verified.invalidate(key);
+            logger.info("JWT expired: {}", cached.getExpiresAt());
+            throw new ProcessingException("JWT expired");
+        }
+
+        DecodedJWT jwt = verifyUncached(token);
+        verified.put(key, jwt);
+        return jwt;
+    }
+
+    /**
+     * Runs the full verification pipeline without consulting or filling the cache.
+     *
+     * @param token the raw JWT
+     * @return the decoded token
+     * @throws ProcessingException if the token is invalid for any reason
+     */
+    DecodedJWT verifyUncached(String token) {
+        DecodedJWT jwt;
+        try {
+            jwt = JWT.decode(token);
+        } catch (JWTDecodeException e) {
+            logger.info("JWT not valid: {}", e.getMessage());
+            throw new ProcessingException("Malformed JWT", e);
+        }
+
+        if (!ALGORITHM.equals(jwt.getAlgorithm())) {
+            logger.info("Invalid algorithm: {}", jwt.getAlgorithm());
+            throw new ProcessingException("Unexpected alg: " + jwt.getAlgorithm());
+        }
+
+        String kid = jwt.getKeyId();
+        PublicKey key = kid != null ? keyLookup.apply(kid) : null;
+        if (key == null) {
+            logger.info("No JWK found for kid={}", kid);
+            throw new ProcessingException("No JWK found for kid=" + kid);
+        }
+
+        try {
+            Signature sig = Signature.getInstance("SHA256withRSA");
+            sig.initVerify(key);
+            sig.update((jwt.getHeader() + "." + jwt.getPayload()).getBytes(StandardCharsets.US_ASCII));
+            if (!sig.verify(Base64.getUrlDecoder().decode(jwt.getSignature()))) {
+                logger.info("Invalid signature for kid={}", kid);
+                throw new ProcessingException("Invalid JWT signature");
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            logger.info("JWT not valid: {}", e.getMessage());
+            throw new ProcessingException("JWT validation error", e);
+        }
+
+        if (jwt.getExpiresAt() == null || isExpired(jwt)) {
+            logger.info("JWT expired: {}", jwt.getExpiresAt());
+            throw new ProcessingException("JWT expired");
+        }
+
+        if (!issuer.equals(jwt.getIssuer())) {
+            logger.info("Invalid issuer: {}", jwt.getIssuer());
+            throw new ProcessingException("Invalid issuer: " + jwt.getIssuer());
+        }
+
+        return jwt;
+    }
+
+    /**
+     * Returns the verified-token cache's size and hit/miss counters.
+     *
+     * @return a statistics snapshot
+     */
+    public CacheStatsDto stats() {
+        return CacheStatsDto.of("verifiedTokens", verified.estimatedSize(), verified.stats());
+    }
+
+    private boolean isExpired(DecodedJWT jwt) {
+        return clock.millis() >= jwt.getExpiresAt().getTime();
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Keeps each cache entry until its token's {@code exp}; reads and updates do not extend it.
+     */
+    private final class UntilTokenExpiry implements Expiry<String, DecodedJWT> {
+        @Override
+        public long expireAfterCreate(String key, DecodedJWT jwt, long currentTime) {
+            Date exp = jwt.getExpiresAt();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, exp.getTime() - clock.millis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, DecodedJWT jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, DecodedJWT jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
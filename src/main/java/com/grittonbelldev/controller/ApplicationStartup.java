@@ -1,6 +1,9 @@
 package com.grittonbelldev.controller;
 
+import com.grittonbelldev.persistence.NutritionixDao;
 import com.grittonbelldev.persistence.SessionFactoryProvider;
+import com.grittonbelldev.service.NutritionixService;
+import com.grittonbelldev.util.JwtUtils;
 import com.grittonbelldev.util.PropertiesLoaderProd;
 import com.grittonbelldev.util.SecretsManagerUtil;
 import org.apache.logging.log4j.LogManager;
@@ -11,6 +14,7 @@ import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Properties;
 
@@ -21,7 +25,7 @@ import java.util.Properties;
  * <ul>
  *   <li>Creates the Hibernate SessionFactory for database access</li>
  *   <li>Loads AWS Cognito configuration and secrets for authentication</li>
- *   <li>Loads Nutritionix API credentials for food data integration</li>
+ *   <li>Loads Nutritionix API credentials and builds the shared Nutritionix client</li>
  * </ul>
  * All configuration and secrets are stored in the ServletContext for access
  * by other components of the application.
@@ -102,9 +106,10 @@ public class ApplicationStartup extends HttpServlet implements PropertiesLoaderP
     }
 
     /**
-     * Loads Nutritionix API credentials from AWS Secrets Manager and stores them
-     * in the application context. These credentials are used for authenticated calls
-     * to the Nutritionix natural language and instant search endpoints.
+     * Loads Nutritionix API credentials from AWS Secrets Manager and HTTP timeouts from
+     * nutritionix.properties, then stores one shared {@link NutritionixService} in the
+     * application context. The service is used for authenticated calls to the Nutritionix
+     * natural language and instant search endpoints.
      */
     private void loadAndStoreNutritionixProperties() {
         Map<String, String> secrets = SecretsManagerUtil.getSecretAsMap("yhjSecrets");
@@ -117,16 +122,40 @@ public class ApplicationStartup extends HttpServlet implements PropertiesLoaderP
             return;
         }
 
-        // Store API credentials in the application context
-        ServletContext ctx = getServletContext();
-        ctx.setAttribute("nutritionix.appId",  appId);
-        ctx.setAttribute("nutritionix.appKey", appKey);
-        logger.info("Nutritionix API credentials loaded successfully.");
+        Duration connectTimeout = NutritionixDao.DEFAULT_CONNECT_TIMEOUT;
+        Duration readTimeout    = NutritionixDao.DEFAULT_READ_TIMEOUT;
+        try {
+            Properties props = loadProperties("/nutritionix.properties");
+            connectTimeout = timeoutProperty(props, "connectTimeoutMs", connectTimeout);
+            readTimeout    = timeoutProperty(props, "readTimeoutMs", readTimeout);
+        } catch (Exception e) {
+            logger.warn("Could not load nutritionix.properties; using default timeouts: {}", e.getMessage());
+        }
+
+        // Store the shared service in the application context
+        NutritionixDao dao = new NutritionixDao(appId, appKey, connectTimeout, readTimeout);
+        NutritionixService service = new NutritionixService(dao);
+        getServletContext().setAttribute(NutritionixService.CONTEXT_ATTRIBUTE, service);
+        logger.info("Nutritionix client initialized (connect timeout {}, read timeout {}).",
+                connectTimeout, readTimeout);
+    }
+
+    /**
+     * Reads a millisecond timeout from properties, falling back to a default when absent.
+     *
+     * @param props the loaded properties
+     * @param name the property name
+     * @param fallback the value to use when the property is not set
+     * @return the configured timeout
+     */
+    private Duration timeoutProperty(Properties props, String name, Duration fallback) {
+        String value = props.getProperty(name);
+        return value == null || value.isBlank() ? fallback : Duration.ofMillis(Long.parseLong(value.trim()));
     }
 
     /**
      * Lifecycle method triggered when the servlet container is shutting down.
-     * Ensures Hibernate resources are released properly.
+     * Ensures Hibernate resources and shared HTTP clients are released properly.
      */
     @Override
     public void destroy() {
@@ -138,5 +167,14 @@ public class ApplicationStartup extends HttpServlet implements PropertiesLoaderP
         } catch (Exception e) {
             logger.error("Error shutting down SessionFactory: {}", e.getMessage(), e);
         }
+        Object nutritionix = getServletContext().getAttribute(NutritionixService.CONTEXT_ATTRIBUTE);
+        if (nutritionix instanceof NutritionixService) {
+            ((NutritionixService) nutritionix).close();
+        }
+        try {
+            JwtUtils.shutdown();
+        } catch (Exception | LinkageError e) {
+            logger.error("Error shutting down JWKS client: {}", e.getMessage(), e);
+        }
     }
 }
@@ -0,0 +1,214 @@
+package com.grittonbelldev.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hibernate.stat.CacheRegionStatistics;
+
+/**
+ * Response DTO describing the size and hit/miss counters of one in-memory cache.
+ * <p>
+ * Counters are cumulative since the application started.
+ * </p>
+ */
+public class CacheStatsDto {
+    /**
+     * Name of the cache.
+     */
+    private String name;
+
+    /**
+     * Approximate number of entries currently held.
+     */
+    private long size;
+
+    /**
+     * Number of lookups answered from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups that had to load the value.
+     */
+    private long missCount;
+
+    /**
+     * Share of lookups that were hits, from 0 to 1 (1 when there were no lookups).
+     */
+    private double hitRate;
+
+    /**
+     * Number of entries removed because of the size or time limit.
+     */
+    private long evictionCount;
+
+    /**
+     * No-argument constructor for JSON deserialization.
+     */
+    public CacheStatsDto() {}
+
+    /**
+     * Builds a DTO from a Caffeine statistics snapshot.
+     *
+     * @param name the cache name
+     * @param size the approximate number of entries
+     * @param stats the statistics snapshot
+     * @return the populated DTO
+     */
+    public static CacheStatsDto of(String name, long size, CacheStats stats) {
+        CacheStatsDto dto = new CacheStatsDto();
+        dto.setName(name);
+        dto.setSize(size);
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setEvictionCount(stats.evictionCount());
+        return dto;
+    }
+
+    /**
+     * Builds a DTO from the statistics of a Hibernate second-level cache region.
+     * <p>
+     * Hibernate does not see entries the cache provider evicts, so the eviction count is
+     * reported as -1, as is the size when the provider does not track it.
+     * </p>
+     *
+     * @param name the cache name
+     * @param stats the region statistics
+     * @return the populated DTO
+     */
+    public static CacheStatsDto of(String name, CacheRegionStatistics stats) {
+        long hits = stats.getHitCount();
+        long lookups = hits + stats.getMissCount();
+        long size = stats.getElementCountInMemory();
+
+        CacheStatsDto dto = new CacheStatsDto();
+        dto.setName(name);
+        dto.setSize(size == CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN ? -1 : size);
+        dto.setHitCount(hits);
+        dto.setMissCount(stats.getMissCount());
+        dto.setHitRate(lookups == 0 ? 1.0 : (double) hits / lookups);
+        dto.setEvictionCount(-1);
+        return dto;
+    }
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets name.
+     *
+     * @param name the name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets size.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Sets size.
+     *
+     * @param size the size
+     */
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets hit count.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Sets hit count.
+     *
+     * @param hitCount the hit count
+     */
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * Gets miss count.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Sets miss count.
+     *
+     * @param missCount the miss count
+     */
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * Gets hit rate.
+     *
+     * @return the hit rate
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    /**
+     * Sets hit rate.
+     *
+     * @param hitRate the hit rate
+     */
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    /**
+     * Gets eviction count.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Sets eviction count.
+     *
+     * @param evictionCount the eviction count
+     */
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatsDto{" +
+                "name='" + name + '\'' +
+                ", size=" + size +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", hitRate=" + hitRate +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+}
@@ -0,0 +1,188 @@
+package com.grittonbelldev.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Response DTO with a user's nutrition totals for one calendar day.
+ * <p>
+ * Each total is the sum over that day's meals of the food's value multiplied by the
+ * serving size. Values are read from the precomputed {@code DailyNutritionSummary} rollup.
+ * </p>
+ */
+public class DailyNutritionDto {
+    /**
+     * The calendar day the totals cover.
+     */
+    private LocalDate date;
+
+    /**
+     * Number of meals eaten that day.
+     */
+    private int mealCount;
+
+    /**
+     * Total calories.
+     */
+    private Double calories;
+
+    /**
+     * Total protein in grams.
+     */
+    private Double protein;
+
+    /**
+     * Total fat in grams.
+     */
+    private Double fat;
+
+    /**
+     * Total carbs in grams.
+     */
+    private Double carbs;
+
+    /**
+     * No-argument constructor for JSON deserialization.
+     */
+    public DailyNutritionDto() {}
+
+    /**
+     * Constructs a DailyNutritionDto with every field.
+     *
+     * @param date the calendar day
+     * @param mealCount the number of meals eaten that day
+     * @param calories the total calories
+     * @param protein the total protein in grams
+     * @param fat the total fat in grams
+     * @param carbs the total carbs in grams
+     */
+    public DailyNutritionDto(LocalDate date, int mealCount, Double calories, Double protein, Double fat, Double carbs) {
+        this.date = date;
+        this.mealCount = mealCount;
+        this.calories = calories;
+        this.protein = protein;
+        this.fat = fat;
+        this.carbs = carbs;
+    }
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets date.
+     *
+     * @return the date
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Sets date.
+     *
+     * @param date the date
+     */
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    /**
+     * Gets meal count.
+     *
+     * @return the meal count
+     */
+    public int getMealCount() {
+        return mealCount;
+    }
+
+    /**
+     * Sets meal count.
+     *
+     * @param mealCount the meal count
+     */
+    public void setMealCount(int mealCount) {
+        this.mealCount = mealCount;
+    }
+
+    /**
+     * Gets calories.
+     *
+     * @return the calories
+     */
+    public Double getCalories() {
+        return calories;
+    }
+
+    /**
+     * Sets calories.
+     *
+     * @param calories the calories
+     */
+    public void setCalories(Double calories) {
+        this.calories = calories;
+    }
+
+    /**
+     * Gets protein.
+     *
+     * @return the protein
+     */
+    public Double getProtein() {
+        return protein;
+    }
+
+    /**
+     * Sets protein.
+     *
+     * @param protein the protein
+     */
+    public void setProtein(Double protein) {
+        this.protein = protein;
+    }
+
+    /**
+     * Gets fat.
+     *
+     * @return the fat
+     */
+    public Double getFat() {
+        return fat;
+    }
+
+    /**
+     * Sets fat.
+     *
+     * @param fat the fat
+     */
+    public void setFat(Double fat) {
+        this.fat = fat;
+    }
+
+    /**
+     * Gets carbs.
+     *
+     * @return the carbs
+     */
+    public Double getCarbs() {
+        return carbs;
+    }
+
+    /**
+     * Sets carbs.
+     *
+     * @param carbs the carbs
+     */
+    public void setCarbs(Double carbs) {
+        this.carbs = carbs;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyNutritionDto{" +
+                "date=" + date +
+                ", mealCount=" + mealCount +
+                ", calories=" + calories +
+                ", protein=" + protein +
+                ", fat=" + fat +
+                ", carbs=" + carbs +
+                '}';
+    }
+}
@@ -454,4 +454,32 @@ public class FoodEntryDto {
         return dto;
     }
 
+    /**
+     * Maps a projection row to a FoodEntryDto, including the entry's serving size.
+     *
+     * @param row A row from a meal projection query
+     * @return A corresponding FoodEntryDto for response use
+     */
+    public static FoodEntryDto fromRow(MealFoodRow row) {
+        FoodEntryDto dto = new FoodEntryDto();
+        dto.setFoodId(row.getFoodId());
+        dto.setServingSize(row.getServingSize());
+        dto.setFoodName(row.getFoodName());
+        dto.setFat(row.getFat());
+        dto.setProtein(row.getProtein());
+        dto.setCarbs(row.getCarbs());
+        dto.setCalories(row.getCalories());
+        dto.setCholesterol(row.getCholesterol());
+        dto.setSodium(row.getSodium());
+        dto.setFiber(row.getFiber());
+        dto.setSugar(row.getSugar());
+        dto.setAddedSugar(row.getAddedSugar());
+        dto.setVitaminD(row.getVitaminD());
+        dto.setCalcium(row.getCalcium());
+        dto.setIron(row.getIron());
+        dto.setPotassium(row.getPotassium());
+        dto.setNotes(row.getNotes());
+        return dto;
+    }
+
 }
@@ -88,6 +88,31 @@ public class FoodResponseDto implements Serializable {
         this.foodName = foodName;
     }
 
+    /**
+     * Full constructor, used by HQL {@code select new} projections.
+     */
+    public FoodResponseDto(Long id, String foodName, Double fat, Double protein, Double carbs,
+                           Double calories, Double cholesterol, Double sodium, Double fiber,
+                           Double sugar, Double addedSugar, Double vitaminD, Double calcium,
+                           Double iron, Double potassium, String notes) {
+        this.id = id;
+        this.foodName = foodName;
+        this.fat = fat;
+        this.protein = protein;
+        this.carbs = carbs;
+        this.calories = calories;
+        this.cholesterol = cholesterol;
+        this.sodium = sodium;
+        this.fiber = fiber;
+        this.sugar = sugar;
+        this.addedSugar = addedSugar;
+        this.vitaminD = vitaminD;
+        this.calcium = calcium;
+        this.iron = iron;
+        this.potassium = potassium;
+        this.notes = notes;
+    }
+
     // ──────────────────────── Getters & Setters ────────────────────────
 
     /**
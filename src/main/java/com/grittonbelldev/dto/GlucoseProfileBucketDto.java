@@ -0,0 +1,173 @@
+package com.grittonbelldev.dto;
+
+/**
+ * One time-of-day slot of an ambulatory glucose profile.
+ * <p>
+ * Percentiles are in mg/dL at 1 mg/dL resolution and are null when no readings
+ * fell into the slot.
+ * </p>
+ */
+public class GlucoseProfileBucketDto {
+    /**
+     * Start of the slot, in minutes after midnight.
+     */
+    private int minuteOfDay;
+
+    /**
+     * Number of readings that fell into the slot.
+     */
+    private long count;
+
+    /**
+     * 5th percentile.
+     */
+    private Integer p5;
+
+    /**
+     * 25th percentile.
+     */
+    private Integer p25;
+
+    /**
+     * Median.
+     */
+    private Integer p50;
+
+    /**
+     * 75th percentile.
+     */
+    private Integer p75;
+
+    /**
+     * 95th percentile.
+     */
+    private Integer p95;
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets minute of day.
+     *
+     * @return the minute of day
+     */
+    public int getMinuteOfDay() {
+        return minuteOfDay;
+    }
+
+    /**
+     * Sets minute of day.
+     *
+     * @param minuteOfDay the minute of day
+     */
+    public void setMinuteOfDay(int minuteOfDay) {
+        this.minuteOfDay = minuteOfDay;
+    }
+
+    /**
+     * Gets count.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Sets count.
+     *
+     * @param count the count
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Gets p 5.
+     *
+     * @return the p 5
+     */
+    public Integer getP5() {
+        return p5;
+    }
+
+    /**
+     * Sets p 5.
+     *
+     * @param p5 the p 5
+     */
+    public void setP5(Integer p5) {
+        this.p5 = p5;
+    }
+
+    /**
+     * Gets p 25.
+     *
+     * @return the p 25
+     */
+    public Integer getP25() {
+        return p25;
+    }
+
+    /**
+     * Sets p 25.
+     *
+     * @param p25 the p 25
+     */
+    public void setP25(Integer p25) {
+        this.p25 = p25;
+    }
+
+    /**
+     * Gets p 50.
+     *
+     * @return the p 50
+     */
+    public Integer getP50() {
+        return p50;
+    }
+
+    /**
+     * Sets p 50.
+     *
+     * @param p50 the p 50
+     */
+    public void setP50(Integer p50) {
+        this.p50 = p50;
+    }
+
+    /**
+     * Gets p 75.
+     *
+     * @return the p 75
+     */
+    public Integer getP75() {
+        return p75;
+    }
+
+    /**
+     * Sets p 75.
+     *
+     * @param p75 the p 75
+     */
+    public void setP75(Integer p75) {
+        this.p75 = p75;
+    }
+
+    /**
+     * Gets p 95.
+     *
+     * @return the p 95
+     */
+    public Integer getP95() {
+        return p95;
+    }
+
+    /**
+     * Sets p 95.
+     *
+     * @param p95 the p 95
+     */
+    public void setP95(Integer p95) {
+        this.p95 = p95;
+    }
+}
@@ -0,0 +1,130 @@
+package com.grittonbelldev.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for an ambulatory glucose profile (AGP).
+ * <p>
+ * Every reading in the window is folded onto a single 24-hour day and grouped into
+ * fixed-width time-of-day slots; each slot reports the 5/25/50/75/95th percentiles.
+ * </p>
+ */
+public class GlucoseProfileDto {
+    /**
+     * Inclusive start of the analyzed window.
+     */
+    private LocalDateTime from;
+
+    /**
+     * Exclusive end of the analyzed window.
+     */
+    private LocalDateTime to;
+
+    /**
+     * Width of each time-of-day slot in minutes.
+     */
+    private int bucketMinutes;
+
+    /**
+     * Number of readings in the window.
+     */
+    private long readingCount;
+
+    /**
+     * Slots in time-of-day order, starting at midnight.
+     */
+    private List<GlucoseProfileBucketDto> buckets;
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets from.
+     *
+     * @return the from
+     */
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    /**
+     * Sets from.
+     *
+     * @param from the from
+     */
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    /**
+     * Gets to.
+     *
+     * @return the to
+     */
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    /**
+     * Sets to.
+     *
+     * @param to the to
+     */
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    /**
+     * Gets bucket minutes.
+     *
+     * @return the bucket minutes
+     */
+    public int getBucketMinutes() {
+        return bucketMinutes;
+    }
+
+    /**
+     * Sets bucket minutes.
+     *
+     * @param bucketMinutes the bucket minutes
+     */
+    public void setBucketMinutes(int bucketMinutes) {
+        this.bucketMinutes = bucketMinutes;
+    }
+
+    /**
+     * Gets reading count.
+     *
+     * @return the reading count
+     */
+    public long getReadingCount() {
+        return readingCount;
+    }
+
+    /**
+     * Sets reading count.
+     *
+     * @param readingCount the reading count
+     */
+    public void setReadingCount(long readingCount) {
+        this.readingCount = readingCount;
+    }
+
+    /**
+     * Gets buckets.
+     *
+     * @return the buckets
+     */
+    public List<GlucoseProfileBucketDto> getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * Sets buckets.
+     *
+     * @param buckets the buckets
+     */
+    public void setBuckets(List<GlucoseProfileBucketDto> buckets) {
+        this.buckets = buckets;
+    }
+}
@@ -34,6 +34,31 @@ public class GlucoseResponseDto {
      */
     private String notes;
 
+    // --- Constructors ---
+
+    /**
+     * Instantiates a new, empty Glucose response dto.
+     */
+    public GlucoseResponseDto() {}
+
+    /**
+     * Full constructor, used by HQL {@code select new} projections.
+     *
+     * @param id the reading ID
+     * @param glucoseLevel the glucose level in mg/dL
+     * @param measurementTime the measurement time
+     * @param measurementSource the measurement source
+     * @param notes the notes
+     */
+    public GlucoseResponseDto(Long id, Double glucoseLevel, LocalDateTime measurementTime,
+                              String measurementSource, String notes) {
+        this.id = id;
+        this.glucoseLevel = glucoseLevel;
+        this.measurementTime = measurementTime;
+        this.measurementSource = measurementSource;
+        this.notes = notes;
+    }
+
     // --- Getters and Setters ---
 
     /**
@@ -0,0 +1,128 @@
+package com.grittonbelldev.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO carrying a (possibly downsampled) glucose series for charting.
+ * <p>
+ * Points are stored as two parallel arrays, {@code times[i]} and {@code values[i]},
+ * which serialize much more compactly than one object per point.
+ * </p>
+ */
+public class GlucoseSeriesDto {
+
+    /**
+     * Inclusive start of the requested window.
+     */
+    private LocalDateTime from;
+
+    /**
+     * Exclusive end of the requested window.
+     */
+    private LocalDateTime to;
+
+    /**
+     * Number of raw readings in the window before downsampling.
+     */
+    private int rawCount;
+
+    /**
+     * Measurement times of the returned points, ascending.
+     */
+    private LocalDateTime[] times;
+
+    /**
+     * Glucose levels in mg/dL of the returned points.
+     */
+    private double[] values;
+
+    /**
+     * Gets from.
+     *
+     * @return the from
+     */
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    /**
+     * Sets from.
+     *
+     * @param from the from
+     */
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    /**
+     * Gets to.
+     *
+     * @return the to
+     */
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    /**
+     * Sets to.
+     *
+     * @param to the to
+     */
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    /**
+     * Gets raw count.
+     *
+     * @return the raw count
+     */
+    public int getRawCount() {
+        return rawCount;
+    }
+
+    /**
+     * Sets raw count.
+     *
+     * @param rawCount the raw count
+     */
+    public void setRawCount(int rawCount) {
+        this.rawCount = rawCount;
+    }
+
+    /**
+     * Gets times.
+     *
+     * @return the times
+     */
+    public LocalDateTime[] getTimes() {
+        return times;
+    }
+
+    /**
+     * Sets times.
+     *
+     * @param times the times
+     */
+    public void setTimes(LocalDateTime[] times) {
+        this.times = times;
+    }
+
+    /**
+     * Gets values.
+     *
+     * @return the values
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Sets values.
+     *
+     * @param values the values
+     */
+    public void setValues(double[] values) {
+        this.values = values;
+    }
+}
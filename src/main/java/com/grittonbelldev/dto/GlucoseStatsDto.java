@@ -0,0 +1,336 @@
+package com.grittonbelldev.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO with glucose variability and time-in-range statistics for a time window.
+ * <p>
+ * Percentages are shares of readings, which matches time shares for evenly sampled CGM data.
+ * All derived values are null when the window contains no readings.
+ * </p>
+ */
+public class GlucoseStatsDto {
+    /**
+     * Inclusive start of the analyzed window.
+     */
+    private LocalDateTime from;
+
+    /**
+     * Exclusive end of the analyzed window.
+     */
+    private LocalDateTime to;
+
+    /**
+     * Number of readings in the window.
+     */
+    private long readingCount;
+
+    /**
+     * Mean glucose in mg/dL.
+     */
+    private Double mean;
+
+    /**
+     * Sample standard deviation in mg/dL.
+     */
+    private Double standardDeviation;
+
+    /**
+     * Coefficient of variation in percent (SD / mean × 100).
+     */
+    private Double coefficientOfVariation;
+
+    /**
+     * Glucose Management Indicator in percent (3.31 + 0.02392 × mean).
+     */
+    private Double gmi;
+
+    /**
+     * Lowest reading in mg/dL.
+     */
+    private Double min;
+
+    /**
+     * Highest reading in mg/dL.
+     */
+    private Double max;
+
+    /**
+     * Percent of readings below 54 mg/dL (level 2 hypoglycemia).
+     */
+    private Double percentVeryLow;
+
+    /**
+     * Percent of readings below 70 mg/dL (time below range, TBR).
+     */
+    private Double percentBelowRange;
+
+    /**
+     * Percent of readings from 70 to 180 mg/dL (time in range, TIR).
+     */
+    private Double percentInRange;
+
+    /**
+     * Percent of readings above 180 mg/dL (time above range, TAR).
+     */
+    private Double percentAboveRange;
+
+    /**
+     * Percent of readings above 250 mg/dL (level 2 hyperglycemia).
+     */
+    private Double percentVeryHigh;
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets from.
+     *
+     * @return the from
+     */
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    /**
+     * Sets from.
+     *
+     * @param from the from
+     */
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    /**
+     * Gets to.
+     *
+     * @return the to
+     */
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    /**
+     * Sets to.
+     *
+     * @param to the to
+     */
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    /**
+     * Gets reading count.
+     *
+     * @return the reading count
+     */
+    public long getReadingCount() {
+        return readingCount;
+    }
+
+    /**
+     * Sets reading count.
+     *
+     * @param readingCount the reading count
+     */
+    public void setReadingCount(long readingCount) {
+        this.readingCount = readingCount;
+    }
+
+    /**
+     * Gets mean.
+     *
+     * @return the mean
+     */
+    public Double getMean() {
+        return mean;
+    }
+
+    /**
+     * Sets mean.
+     *
+     * @param mean the mean
+     */
+    public void setMean(Double mean) {
+        this.mean = mean;
+    }
+
+    /**
+     * Gets standard deviation.
+     *
+     * @return the standard deviation
+     */
+    public Double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    /**
+     * Sets standard deviation.
+     *
+     * @param standardDeviation the standard deviation
+     */
+    public void setStandardDeviation(Double standardDeviation) {
+        this.standardDeviation = standardDeviation;
+    }
+
+    /**
+     * Gets coefficient of variation.
+     *
+     * @return the coefficient of variation
+     */
+    public Double getCoefficientOfVariation() {
+        return coefficientOfVariation;
+    }
+
+    /**
+     * Sets coefficient of variation.
+     *
+     * @param coefficientOfVariation the coefficient of variation
+     */
+    public void setCoefficientOfVariation(Double coefficientOfVariation) {
+        this.coefficientOfVariation = coefficientOfVariation;
+    }
+
+    /**
+     * Gets gmi.
+     *
+     * @return the gmi
+     */
+    public Double getGmi() {
+        return gmi;
+    }
+
+    /**
+     * Sets gmi.
+     *
+     * @param gmi the gmi
+     */
+    public void setGmi(Double gmi) {
+        this.gmi = gmi;
+    }
+
+    /**
+     * Gets min.
+     *
+     * @return the min
+     */
+    public Double getMin() {
+        return min;
+    }
+
+    /**
+     * Sets min.
+     *
+     * @param min the min
+     */
+    public void setMin(Double min) {
+        this.min = min;
+    }
+
+    /**
+     * Gets max.
+     *
+     * @return the max
+     */
+    public Double getMax() {
+        return max;
+    }
+
+    /**
+     * Sets max.
+     *
+     * @param max the max
+     */
+    public void setMax(Double max) {
+        this.max = max;
+    }
+
+    /**
+     * Gets percent very low.
+     *
+     * @return the percent very low
+     */
+    public Double getPercentVeryLow() {
+        return percentVeryLow;
+    }
+
+    /**
+     * Sets percent very low.
+     *
+     * @param percentVeryLow the percent very low
+     */
+    public void setPercentVeryLow(Double percentVeryLow) {
+        this.percentVeryLow = percentVeryLow;
+    }
+
+    /**
+     * Gets percent below range.
+     *
+     * @return the percent below range
+     */
+    public Double getPercentBelowRange() {
+        return percentBelowRange;
+    }
+
+    /**
+     * Sets percent below range.
+     *
+     * @param percentBelowRange the percent below range
+     */
+    public void setPercentBelowRange(Double percentBelowRange) {
+        this.percentBelowRange = percentBelowRange;
+    }
+
+    /**
+     * Gets percent in range.
+     *
+     * @return the percent in range
+     */
+    public Double getPercentInRange() {
+        return percentInRange;
+    }
+
+    /**
+     * Sets percent in range.
+     *
+     * @param percentInRange the percent in range
+     */
+    public void setPercentInRange(Double percentInRange) {
+        this.percentInRange = percentInRange;
+    }
+
+    /**
+     * Gets percent above range.
+     *
+     * @return the percent above range
+     */
+    public Double getPercentAboveRange() {
+        return percentAboveRange;
+    }
+
+    /**
+     * Sets percent above range.
+     *
+     * @param percentAboveRange the percent above range
+     */
+    public void setPercentAboveRange(Double percentAboveRange) {
+        this.percentAboveRange = percentAboveRange;
+    }
+
+    /**
+     * Gets percent very high.
+     *
+     * @return the percent very high
+     */
+    public Double getPercentVeryHigh() {
+        return percentVeryHigh;
+    }
+
+    /**
+     * Sets percent very high.
+     *
+     * @param percentVeryHigh the percent very high
+     */
+    public void setPercentVeryHigh(Double percentVeryHigh) {
+        this.percentVeryHigh = percentVeryHigh;
+    }
+}
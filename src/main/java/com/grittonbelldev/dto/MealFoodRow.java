@@ -0,0 +1,128 @@
+package com.grittonbelldev.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only row describing one food entry inside a meal.
+ * <p>
+ * Rows are produced directly by HQL {@code select new} projections, so no entities or
+ * persistence-context snapshots are created while listing meals. A meal without any
+ * entries yields a single row whose food columns are all null.
+ * {@link MealResponseDto#fromRows(java.util.List)} folds a row stream back into meal DTOs.
+ * </p>
+ */
+public class MealFoodRow {
+
+    private final Long mealId;
+    private final String mealName;
+    private final LocalDateTime timeEaten;
+    private final Long foodId;
+    private final Double servingSize;
+    private final String foodName;
+    private final Double fat;
+    private final Double protein;
+    private final Double carbs;
+    private final Double calories;
+    private final Double cholesterol;
+    private final Double sodium;
+    private final Double fiber;
+    private final Double sugar;
+    private final Double addedSugar;
+    private final Double vitaminD;
+    private final Double calcium;
+    private final Double iron;
+    private final Double potassium;
+    private final String notes;
+
+    /**
+     * Constructor used by HQL projections; argument order matches the select clause.
+     *
+     * @param mealId the meal ID
+     * @param mealName the meal name
+     * @param timeEaten the time the meal was eaten
+     * @param foodId the food ID, or null for a meal without entries
+     * @param servingSize the serving size of this entry
+     * @param foodName the entry's spelling of the food name, or the food's own name
+     * @param fat the fat in grams
+     * @param protein the protein in grams
+     * @param carbs the carbs in grams
+     * @param calories the calories
+     * @param cholesterol the cholesterol in milligrams
+     * @param sodium the sodium in milligrams
+     * @param fiber the fiber in grams
+     * @param sugar the sugar in grams
+     * @param addedSugar the added sugar in grams
+     * @param vitaminD the vitamin D in micrograms
+     * @param calcium the calcium in milligrams
+     * @param iron the iron in milligrams
+     * @param potassium the potassium in milligrams
+     * @param notes the food notes
+     */
+    public MealFoodRow(Long mealId, String mealName, LocalDateTime timeEaten,
+                       Long foodId, Double servingSize, String foodName,
+                       Double fat, Double protein, Double carbs, Double calories,
+                       Double cholesterol, Double sodium, Double fiber, Double sugar,
+                       Double addedSugar, Double vitaminD, Double calcium, Double iron,
+                       Double potassium, String notes) {
+        this.mealId = mealId;
+        this.mealName = mealName;
+        this.timeEaten = timeEaten;
+        this.foodId = foodId;
+        this.servingSize = servingSize;
+        this.foodName = foodName;
+        this.fat = fat;
+        this.protein = protein;
+        this.carbs = carbs;
+        this.calories = calories;
+        this.cholesterol = cholesterol;
+        this.sodium = sodium;
+        this.fiber = fiber;
+        this.sugar = sugar;
+        this.addedSugar = addedSugar;
+        this.vitaminD = vitaminD;
+        this.calcium = calcium;
+        this.iron = iron;
+        this.potassium = potassium;
+        this.notes = notes;
+    }
+
+    public Long getMealId() { return mealId; }
+
+    public String getMealName() { return mealName; }
+
+    public LocalDateTime getTimeEaten() { return timeEaten; }
+
+    public Long getFoodId() { return foodId; }
+
+    public Double getServingSize() { return servingSize; }
+
+    public String getFoodName() { return foodName; }
+
+    public Double getFat() { return fat; }
+
+    public Double getProtein() { return protein; }
+
+    public Double getCarbs() { return carbs; }
+
+    public Double getCalories() { return calories; }
+
+    public Double getCholesterol() { return cholesterol; }
+
+    public Double getSodium() { return sodium; }
+
+    public Double getFiber() { return fiber; }
+
+    public Double getSugar() { return sugar; }
+
+    public Double getAddedSugar() { return addedSugar; }
+
+    public Double getVitaminD() { return vitaminD; }
+
+    public Double getCalcium() { return calcium; }
+
+    public Double getIron() { return iron; }
+
+    public Double getPotassium() { return potassium; }
+
+    public String getNotes() { return notes; }
+}
@@ -0,0 +1,242 @@
+package com.grittonbelldev.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO describing how glucose responded to a single meal.
+ * <p>
+ * The response metrics are null when there were not enough readings around the meal
+ * to compute them (no baseline readings, or no readings after the meal).
+ * </p>
+ */
+public class MealGlucoseResponseDto {
+    /**
+     * ID of the meal.
+     */
+    private Long mealId;
+
+    /**
+     * Name of the meal.
+     */
+    private String mealName;
+
+    /**
+     * When the meal was eaten.
+     */
+    private LocalDateTime timeEaten;
+
+    /**
+     * Mean glucose in mg/dL over the 30 minutes up to the meal; null if there were no readings.
+     */
+    private Double baseline;
+
+    /**
+     * Highest glucose in mg/dL within 3 hours after the meal.
+     */
+    private Double peak;
+
+    /**
+     * Minutes from the meal to the peak.
+     */
+    private Long minutesToPeak;
+
+    /**
+     * Incremental area under the curve above baseline over the first 2 hours, in mg/dL·min.
+     */
+    private Double incrementalAuc2h;
+
+    /**
+     * Minutes from the meal until glucose first fell back to baseline after the peak; null if it did not within 3 hours.
+     */
+    private Long minutesToBaseline;
+
+    /**
+     * Number of readings within 3 hours after the meal.
+     */
+    private int readingCount;
+
+    // --- Constructors ---
+
+    /**
+     * Instantiates a new, empty Meal glucose response dto.
+     */
+    public MealGlucoseResponseDto() {}
+
+    /**
+     * Creates a response for a meal before any metrics are computed.
+     * Used by HQL {@code select new} projections.
+     *
+     * @param mealId the meal ID
+     * @param mealName the meal name
+     * @param timeEaten when the meal was eaten
+     */
+    public MealGlucoseResponseDto(Long mealId, String mealName, LocalDateTime timeEaten) {
+        this.mealId = mealId;
+        this.mealName = mealName;
+        this.timeEaten = timeEaten;
+    }
+
+    // --- Getters and Setters ---
+
+    /**
+     * Gets meal id.
+     *
+     * @return the meal id
+     */
+    public Long getMealId() {
+        return mealId;
+    }
+
+    /**
+     * Sets meal id.
+     *
+     * @param mealId the meal id
+     */
+    public void setMealId(Long mealId) {
+        this.mealId = mealId;
+    }
+
+    /**
+     * Gets meal name.
+     *
+     * @return the meal name
+     */
+    public String getMealName() {
+        return mealName;
+    }
+
+    /**
+     * Sets meal name.
+     *
+     * @param mealName the meal name
+     */
+    public void setMealName(String mealName) {
+        this.mealName = mealName;
+    }
+
+    /**
+     * Gets time eaten.
+     *
+     * @return the time eaten
+     */
+    public LocalDateTime getTimeEaten() {
+        return timeEaten;
+    }
+
+    /**
+     * Sets time eaten.
+     *
+     * @param timeEaten the time eaten
+     */
+    public void setTimeEaten(LocalDateTime timeEaten) {
+        this.timeEaten = timeEaten;
+    }
+
+    /**
+     * Gets baseline.
+     *
+     * @return the baseline
+     */
+    public Double getBaseline() {
+        return baseline;
+    }
+
+    /**
+     * Sets baseline.
+     *
+     * @param baseline the baseline
+     */
+    public void setBaseline(Double baseline) {
+        this.baseline = baseline;
+    }
+
+    /**
+     * Gets peak.
+     *
+     * @return the peak
+     */
+    public Double getPeak() {
+        return peak;
+    }
+
+    /**
+     * Sets peak.
+     *
+     * @param peak the peak
+     */
+    public void setPeak(Double peak) {
+        this.peak = peak;
+    }
+
+    /**
+     * Gets minutes to peak.
+     *
+     * @return the minutes to peak
+     */
+    public Long getMinutesToPeak() {
+        return minutesToPeak;
+    }
+
+    /**
+     * Sets minutes to peak.
+     *
+     * @param minutesToPeak the minutes to peak
+     */
+    public void setMinutesToPeak(Long minutesToPeak) {
+        this.minutesToPeak = minutesToPeak;
+    }
+
+    /**
+     * Gets incremental auc 2h.
+     *
+     * @return the incremental auc 2h
+     */
+    public Double getIncrementalAuc2h() {
+        return incrementalAuc2h;
+    }
+
+    /**
+     * Sets incremental auc 2h.
+     *
+     * @param incrementalAuc2h the incremental auc 2h
+     */
+    public void setIncrementalAuc2h(Double incrementalAuc2h) {
+        this.incrementalAuc2h = incrementalAuc2h;
+    }
+
+    /**
+     * Gets minutes to baseline.
+     *
+     * @return the minutes to baseline
+     */
+    public Long getMinutesToBaseline() {
+        return minutesToBaseline;
+    }
+
+    /**
+     * Sets minutes to baseline.
+     *
+     * @param minutesToBaseline the minutes to baseline
+     */
+    public void setMinutesToBaseline(Long minutesToBaseline) {
+        this.minutesToBaseline = minutesToBaseline;
+    }
+
+    /**
+     * Gets reading count.
+     *
+     * @return the reading count
+     */
+    public int getReadingCount() {
+        return readingCount;
+    }
+
+    /**
+     * Sets reading count.
+     *
+     * @param readingCount the reading count
+     */
+    public void setReadingCount(int readingCount) {
+        this.readingCount = readingCount;
+    }
+}
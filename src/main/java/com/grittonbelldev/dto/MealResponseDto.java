@@ -5,6 +5,7 @@ import com.grittonbelldev.entity.FoodMealJournal;
 import com.grittonbelldev.entity.Meal;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -129,6 +130,7 @@ public class MealResponseDto {
                             .map(entry -> {
                                 FoodEntryDto foodDto = FoodEntryDto.fromEntity(entry.getFood());
                                 foodDto.setServingSize(entry.getServingSize()); // inject serving size
+                                foodDto.setFoodName(entry.getDisplayName()); // the entry's own spelling
                                 return foodDto;
                             })
                             .collect(Collectors.toList())
@@ -138,4 +140,35 @@ public class MealResponseDto {
         return dto;
     }
 
+    /**
+     * Folds a projection row stream into MealResponseDto objects.
+     * <p>
+     * Rows must be ordered so that all rows of a meal are adjacent; meal order and entry
+     * order are preserved. A row with a null food ID marks a meal without entries.
+     * </p>
+     *
+     * @param rows The flat rows, grouped by meal
+     * @return One MealResponseDto per distinct meal, in row order
+     */
+    public static List<MealResponseDto> fromRows(List<MealFoodRow> rows) {
+        List<MealResponseDto> meals = new ArrayList<>();
+        MealResponseDto current = null;
+
+        for (MealFoodRow row : rows) {
+            if (current == null || !current.getId().equals(row.getMealId())) {
+                current = new MealResponseDto();
+                current.setId(row.getMealId());
+                current.setMealName(row.getMealName());
+                current.setTimeEaten(row.getTimeEaten());
+                current.setFoods(new ArrayList<>());
+                meals.add(current);
+            }
+            if (row.getFoodId() != null) {
+                current.getFoods().add(FoodEntryDto.fromRow(row));
+            }
+        }
+
+        return meals;
+    }
+
 }
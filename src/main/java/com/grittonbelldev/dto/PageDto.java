@@ -0,0 +1,114 @@
+package com.grittonbelldev.dto;
+
+import com.grittonbelldev.util.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Response envelope for one page of a keyset-paginated listing.
+ * <p>
+ * {@code nextCursor} is an opaque token to pass back as {@code ?cursor=} for the next
+ * page; it is null once the last page has been returned.
+ * </p>
+ *
+ * @param <T> the item type
+ */
+public class PageDto<T> {
+
+    /**
+     * Items on this page, in listing order.
+     */
+    private List<T> items;
+
+    /**
+     * Token for the next page, or null if there are no more items.
+     */
+    private String nextCursor;
+
+    /**
+     * Page size that was applied to this request.
+     */
+    private int limit;
+
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} items.
+     * The extra item only signals that another page exists and is dropped.
+     *
+     * @param fetched the items fetched, at most limit + 1
+     * @param limit the page size
+     * @param timeOf extracts the sort time of an item
+     * @param idOf extracts the ID of an item
+     * @param <T> the item type
+     * @return the page
+     */
+    public static <T> PageDto<T> of(List<T> fetched, int limit,
+                                    Function<T, LocalDateTime> timeOf, Function<T, Long> idOf) {
+        PageDto<T> page = new PageDto<>();
+        page.setLimit(limit);
+        if (fetched.size() > limit) {
+            List<T> items = fetched.subList(0, limit);
+            T last = items.get(limit - 1);
+            page.setItems(items);
+            page.setNextCursor(new PageCursor(timeOf.apply(last), idOf.apply(last)).encode());
+        } else {
+            page.setItems(fetched);
+        }
+        return page;
+    }
+
+    /**
+     * Gets items.
+     *
+     * @return the items
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets items.
+     *
+     * @param items the items
+     */
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets next cursor.
+     *
+     * @return the next cursor
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets next cursor.
+     *
+     * @param nextCursor the next cursor
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets limit.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets limit.
+     *
+     * @param limit the limit
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -54,6 +54,14 @@ public class CommonItem {
 		return foodName;
 	}
 
+	/**
+	 * Sets the name of the food item.
+	 * @param foodName food name
+	 */
+	public void setFoodName(String foodName) {
+		this.foodName = foodName;
+	}
+
 	/**
 	 * Gets the unit used for serving size.
 	 * @return serving unit as a String
@@ -1,6 +1,8 @@
 package com.grittonbelldev.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.util.Objects;
@@ -10,9 +12,19 @@ import java.util.Objects;
  *
  * <p>This entity models both branded and generic food entries, capturing
  * macronutrient and micronutrient values as well as optional notes for custom entries.</p>
+ *
+ * <p>Rows form a shared catalog: foods with the same normalized name, nutrient values and
+ * notes carry the same {@link #getContentHash() content hash} and are stored once. A row
+ * may be referenced by many users' meals and favorites, so its values are never edited
+ * on behalf of one meal.</p>
+ *
+ * <p>Because rows are shared and rarely change, they are kept in the {@code food}
+ * second-level cache region.</p>
  */
 @Entity
 @Table(name = "Food")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "food")
 public class Food {
 
     /** Primary key for the food item. */
@@ -81,6 +93,10 @@ public class Food {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    /** Hex SHA-256 of the normalized content; null on rows not yet backfilled. */
+    @Column(name = "content_hash", length = 64, unique = true)
+    private String contentHash;
+
     // ---------------- Constructors ----------------
 
     /** No-argument constructor for JPA. */
@@ -329,6 +345,20 @@ public class Food {
      */
     public void setNotes(String notes) { this.notes = notes; }
 
+    /**
+     * Gets content hash.
+     *
+     * @return the content hash, or null if the row has not been hashed yet
+     */
+    public String getContentHash() { return contentHash; }
+
+    /**
+     * Sets content hash.
+     *
+     * @param contentHash the content hash
+     */
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
     // ---------------- Object overrides ----------------
 
     @Override
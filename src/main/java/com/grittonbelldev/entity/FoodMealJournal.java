@@ -11,6 +11,11 @@ import java.util.Objects;
  * <p>This entity serves as a join table between {@link Meal} and {@link Food},
  * capturing the serving size of each food item consumed in a specific meal.
  * Each entry in this table corresponds to one food item and its portion within one meal.</p>
+ *
+ * <p>Food rows are a shared catalog keyed on the normalized name, so two spellings that differ
+ * only in case or spacing share one row. The entry keeps the spelling the user logged in
+ * {@link #getFoodName() foodName}. It is null when the entry shows the food's own name, as on
+ * entries written before the catalog existed.</p>
  */
 @Entity
 @Table(name = "FoodMealJournal")
@@ -36,6 +41,10 @@ public class FoodMealJournal {
     @Column(name = "serving_size", nullable = false)
     private Double servingSize;
 
+    /** The food's name as logged for this entry, or null to use the catalog food's name. */
+    @Column(name = "food_name")
+    private String foodName;
+
     // ---------------- Constructors ----------------
 
     /** No-arg constructor for JPA. */
@@ -54,6 +63,19 @@ public class FoodMealJournal {
         this.servingSize = servingSize;
     }
 
+    /**
+     * Constructs a journal entry that keeps its own spelling of the food's name.
+     *
+     * @param meal the meal in which the food was consumed
+     * @param food the food item consumed
+     * @param servingSize the amount consumed, in serving units
+     * @param foodName the name as logged, or null to use the food's name
+     */
+    public FoodMealJournal(Meal meal, Food food, Double servingSize, String foodName) {
+        this(meal, food, servingSize);
+        this.foodName = foodName;
+    }
+
     // ---------------- Getters and Setters ----------------
 
     /**
@@ -112,6 +134,27 @@ public class FoodMealJournal {
      */
     public void setServingSize(Double servingSize) { this.servingSize = servingSize; }
 
+    /**
+     * Gets food name.
+     *
+     * @return the name as logged, or null when the entry uses the food's name
+     */
+    public String getFoodName() { return foodName; }
+
+    /**
+     * Sets food name.
+     *
+     * @param foodName the name as logged, or null to use the food's name
+     */
+    public void setFoodName(String foodName) { this.foodName = foodName; }
+
+    /**
+     * Gets the name to show for this entry: its own spelling, or the food's name when it has none.
+     *
+     * @return the display name
+     */
+    public String getDisplayName() { return foodName != null ? foodName : food.getFoodName(); }
+
     // ---------------- Object overrides ----------------
 
     @Override
@@ -122,12 +165,13 @@ public class FoodMealJournal {
         return Objects.equals(id, that.id) &&
                 Objects.equals(meal, that.meal) &&
                 Objects.equals(food, that.food) &&
-                Objects.equals(servingSize, that.servingSize);
+                Objects.equals(servingSize, that.servingSize) &&
+                Objects.equals(foodName, that.foodName);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, meal, food, servingSize);
+        return Objects.hash(id, meal, food, servingSize, foodName);
     }
 
     @Override
@@ -137,6 +181,7 @@ public class FoodMealJournal {
                 ", meal=" + meal +
                 ", food=" + food +
                 ", servingSize=" + servingSize +
+                ", foodName='" + foodName + '\'' +
                 '}';
     }
 }
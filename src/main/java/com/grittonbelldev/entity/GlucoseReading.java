@@ -15,7 +15,8 @@ import java.util.Objects;
  * (such as "manual" or "Dexcom"), and optional notes.</p>
  */
 @Entity
-@Table(name = "GlucoseReading")
+@Table(name = "GlucoseReading",
+        indexes = @Index(name = "idx_glucose_user_time", columnList = "user_id, measurement_time"))
 public class GlucoseReading {
 
     /** Primary key for the glucose reading. */
@@ -18,7 +18,8 @@ import java.util.Objects;
  * relationship with {@link FoodMealJournal}.</p>
  */
 @Entity
-@Table(name = "Meal")
+@Table(name = "Meal",
+        indexes = @Index(name = "idx_meal_user_time", columnList = "user_id, time_eaten"))
 public class Meal {
 
     /** Primary key for the Meal. */
@@ -44,8 +45,11 @@ public class Meal {
     @Column(name = "is_favorite", nullable = false)
     private boolean isFavorite = false;
 
-    /** List of all food entries that were part of this meal. */
-    @OneToMany(mappedBy = "meal", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    /**
+     * List of all food entries that were part of this meal.
+     * Loaded lazily; read paths that need the entries fetch-join them through {@code MealDao}.
+     */
+    @OneToMany(mappedBy = "meal", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<FoodMealJournal> foodMealEntries = new ArrayList<>();
 
     // ---------------- Constructors ----------------
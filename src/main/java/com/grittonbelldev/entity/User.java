@@ -1,7 +1,11 @@
 package com.grittonbelldev.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -16,9 +20,16 @@ import java.util.Objects;
  * such as name and email. This entity also holds relationships to all associated meals,
  * glucose readings, and favorited food items. The createdAt field is automatically
  * populated at instantiation and truncated to the nearest second for consistency.</p>
+ *
+ * <p>The Cognito ID is the user's natural ID. Users are kept in the {@code user}
+ * second-level cache region, and Cognito IDs resolve to user IDs through the
+ * {@code user-natural-id} region.</p>
  */
 @Entity
 @Table(name = "Users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
 
     /** Primary key for the user. */
@@ -27,6 +38,7 @@ public class User {
     private Long id;
 
     /** Unique identifier corresponding to the AWS Cognito identity. */
+    @NaturalId
     @Column(name = "cognito_id", nullable = false, unique = true)
     private String cognitoId;
 
@@ -0,0 +1,28 @@
+package com.grittonbelldev.job;
+
+import com.grittonbelldev.persistence.DailyNutritionSummaryDao;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Command-line job that rebuilds the {@code DailyNutritionSummary} rollup from the meal journal.
+ *
+ * <p>{@code dba/daily_nutrition_summary_migration.sql} creates and fills the table on an
+ * existing database. Run this job any time the rollup is suspected to have drifted (e.g. after
+ * journal rows were edited by hand). Normal meal writes keep the rollup current on their own.</p>
+ */
+public class DailyNutritionBackfill {
+
+    private static final Logger logger = LogManager.getLogger(DailyNutritionBackfill.class);
+
+    /**
+     * Rebuilds the rollup using the application's Hibernate configuration.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        logger.info("Rebuilding daily nutrition rollup...");
+        int rows = new DailyNutritionSummaryDao().rebuildAll();
+        logger.info("Daily nutrition rollup rebuilt with {} rows", rows);
+    }
+}
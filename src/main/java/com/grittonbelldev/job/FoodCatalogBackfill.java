@@ -0,0 +1,33 @@
+package com.grittonbelldev.job;
+
+import com.grittonbelldev.persistence.FoodDao;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Command-line job that turns the {@code Food} table into a deduplicated catalog.
+ *
+ * <p>Run it once after applying {@code dba/food_catalog_migration.sql}. It hashes every row
+ * that has no content hash yet, moves meal entries and favorites from duplicate rows onto
+ * one kept row per hash, and deletes the duplicates. It is safe to run again: rows already
+ * hashed are left alone.</p>
+ *
+ * <p>The web application keeps food rows in its second-level cache, which this separate
+ * process cannot evict. Restart the application after the job, or it may keep serving
+ * deleted duplicates until their cache entries expire.</p>
+ */
+public class FoodCatalogBackfill {
+
+    private static final Logger logger = LogManager.getLogger(FoodCatalogBackfill.class);
+
+    /**
+     * Merges duplicate foods using the application's Hibernate configuration.
+     *
+     * @param args unused
+     */
+    public static void main(String[] args) {
+        logger.info("Merging duplicate foods into the catalog...");
+        int removed = new FoodDao().mergeDuplicates();
+        logger.info("Food catalog backfill removed {} duplicate rows", removed);
+    }
+}
@@ -0,0 +1,135 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.dto.DailyNutritionDto;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO for the {@code DailyNutritionSummary} rollup: one row per user and calendar day holding
+ * that day's meal count and calorie, protein, fat and carb totals.
+ * <p>
+ * The rollup is maintained incrementally. Every meal write calls {@link #refreshDay} inside its
+ * own transaction for each day it touched, so the summary commits (or rolls back) together
+ * with the journal rows it was derived from. {@link #rebuildAll()} recomputes the whole table
+ * and is used for backfill.
+ * </p>
+ */
+public class DailyNutritionSummaryDao {
+
+    private static final Logger logger = LogManager.getLogger(DailyNutritionSummaryDao.class);
+
+    /** The rollup table; no entity maps it, so writes to it leave the second-level cache alone. */
+    private static final String SUMMARY_TABLE = "DailyNutritionSummary";
+
+    // Totals are the food's value per serving multiplied by the serving size of each entry
+    private static final String TOTAL_COLUMNS =
+            "COUNT(DISTINCT m.id), "
+                    + "COALESCE(SUM(f.calories * e.serving_size), 0), "
+                    + "COALESCE(SUM(f.protein * e.serving_size), 0), "
+                    + "COALESCE(SUM(f.fat * e.serving_size), 0), "
+                    + "COALESCE(SUM(f.carbs * e.serving_size), 0) "
+                    + "FROM Meal m "
+                    + "LEFT JOIN FoodMealJournal e ON e.meal_id = m.id "
+                    + "LEFT JOIN Food f ON f.id = e.food_id ";
+
+    /**
+     * Recomputes one user's totals for one day and upserts them, in a single statement.
+     *
+     * <p>The aggregate always yields exactly one row, so a day whose last meal was removed is
+     * written back as a zero row rather than needing a separate delete. Pending changes in the
+     * session are flushed first so the recomputation sees them.</p>
+     *
+     * @param session an open session with an active transaction
+     * @param userId the user's internal database ID
+     * @param day the calendar day to recompute
+     */
+    public void refreshDay(Session session, long userId, LocalDate day) {
+        session.flush();
+        NativeMutations.create(session,
+                        "INSERT INTO DailyNutritionSummary "
+                                + "(user_id, summary_date, meal_count, calories, protein, fat, carbs) "
+                                + "SELECT :userId, :day, " + TOTAL_COLUMNS
+                                + "WHERE m.user_id = :userId AND m.time_eaten >= :dayStart AND m.time_eaten < :dayEnd "
+                                + "ON DUPLICATE KEY UPDATE meal_count = VALUES(meal_count), "
+                                + "calories = VALUES(calories), protein = VALUES(protein), "
+                                + "fat = VALUES(fat), carbs = VALUES(carbs)",
+                        SUMMARY_TABLE)
+                .setParameter("userId", userId)
+                .setParameter("day", day)
+                .setParameter("dayStart", day.atStartOfDay())
+                .setParameter("dayEnd", day.plusDays(1).atStartOfDay())
+                .executeUpdate();
+        logger.debug("Refreshed daily nutrition for user {} on {}", userId, day);
+    }
+
+    /**
+     * Rebuilds the whole rollup from the meal journal in one transaction.
+     *
+     * @return the number of (user, day) rows written
+     */
+    public int rebuildAll() {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                NativeMutations.create(session, "DELETE FROM DailyNutritionSummary", SUMMARY_TABLE).executeUpdate();
+                int rows = NativeMutations.create(session,
+                                "INSERT INTO DailyNutritionSummary "
+                                        + "(user_id, summary_date, meal_count, calories, protein, fat, carbs) "
+                                        + "SELECT m.user_id, DATE(m.time_eaten), " + TOTAL_COLUMNS
+                                        + "GROUP BY m.user_id, DATE(m.time_eaten)",
+                                SUMMARY_TABLE)
+                        .executeUpdate();
+                transaction.commit();
+                logger.info("Rebuilt daily nutrition rollup: {} rows", rows);
+                return rows;
+            } catch (RuntimeException e) {
+                logger.error("Rolling back daily nutrition rebuild", e);
+                transaction.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Lists a user's daily totals for the days in {@code [from, to]} that have at least one meal,
+     * oldest first.
+     *
+     * @param userId the user's internal database ID
+     * @param from the first day to include
+     * @param to the last day to include
+     * @return one DTO per day with meals
+     */
+    public List<DailyNutritionDto> findForUser(long userId, LocalDate from, LocalDate to) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            List<Object[]> rows = session.createNativeQuery(
+                            "SELECT summary_date, meal_count, calories, protein, fat, carbs "
+                                    + "FROM DailyNutritionSummary "
+                                    + "WHERE user_id = :userId AND summary_date BETWEEN :from AND :to "
+                                    + "AND meal_count > 0 ORDER BY summary_date", Object[].class)
+                    .addScalar("summary_date", LocalDate.class)
+                    .addScalar("meal_count", Integer.class)
+                    .addScalar("calories", Double.class)
+                    .addScalar("protein", Double.class)
+                    .addScalar("fat", Double.class)
+                    .addScalar("carbs", Double.class)
+                    .setParameter("userId", userId)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .list();
+
+            List<DailyNutritionDto> result = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                result.add(new DailyNutritionDto((LocalDate) row[0], (Integer) row[1],
+                        (Double) row[2], (Double) row[3], (Double) row[4], (Double) row[5]));
+            }
+            logger.debug("Read {} daily summaries for userId={} in [{}, {}]", result.size(), userId, from, to);
+            return result;
+        }
+    }
+}
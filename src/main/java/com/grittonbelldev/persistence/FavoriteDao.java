@@ -0,0 +1,43 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.dto.FoodResponseDto;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+
+import java.util.List;
+
+/**
+ * DAO class for read-only queries over a user's favorites.
+ * <p>
+ * Results are projected straight into response DTOs, so listing favorites never
+ * loads FavoriteItem entities or their eager associations.
+ * </p>
+ */
+public class FavoriteDao {
+
+    private static final Logger logger = LogManager.getLogger(FavoriteDao.class);
+
+    /**
+     * Lists the foods a user has favorited with their full nutritional profile.
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @return The favorited foods, in the order they were favorited
+     */
+    public List<FoodResponseDto> findFavoriteFoodDtos(long userId) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            List<FoodResponseDto> result = session.createQuery(
+                            "select new com.grittonbelldev.dto.FoodResponseDto("
+                                    + "f.id, f.foodName, f.fat, f.protein, f.carbs, f.calories, "
+                                    + "f.cholesterol, f.sodium, f.fiber, f.sugar, f.addedSugar, "
+                                    + "f.vitaminD, f.calcium, f.iron, f.potassium, f.notes) "
+                                    + "from FavoriteItem fav join fav.food f "
+                                    + "where fav.user.id = :userId order by fav.id",
+                            FoodResponseDto.class)
+                    .setParameter("userId", userId)
+                    .list();
+            logger.debug("Projected {} favorite foods for userId={}", result.size(), userId);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.entity.Food;
+import com.grittonbelldev.util.FoodContentHash;
+import jakarta.persistence.LockModeType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * DAO class for the shared Food catalog.
+ *
+ * <p>Each distinct food is stored once, identified by its {@link FoodContentHash content hash}
+ * and protected by a unique index on {@code content_hash}. New foods are matched against
+ * the catalog before insert, concurrent inserts of the same content share one row, and
+ * {@link #mergeDuplicates()} folds rows written before the catalog existed into one row
+ * per hash.</p>
+ */
+public class FoodDao {
+
+    private static final Logger logger = LogManager.getLogger(FoodDao.class);
+
+    /** Rows read per page while hashing the table. */
+    private static final int MERGE_PAGE_SIZE = 1_000;
+
+    /** Duplicate groups merged per transaction. */
+    private static final int MERGE_GROUPS_PER_TRANSACTION = 100;
+
+    /** Adds a catalog row; a row that already holds the hash is left as it is. */
+    private static final String INSERT_IGNORING_DUPLICATES =
+            "INSERT INTO Food (food_name, fat, protein, carbs, calories, cholesterol, sodium, fiber, sugar, "
+                    + "added_sugar, vitamin_d, calcium, iron, potassium, notes, content_hash) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE id = id";
+
+    /**
+     * Resolves new foods to catalog rows inside the caller's transaction.
+     *
+     * <p>All hashes are looked up with one query. Foods whose content is already stored map
+     * to that row. The remaining foods are inserted with {@code ON DUPLICATE KEY UPDATE}, so
+     * a concurrent transaction that stores the same content first is not an error: its row
+     * is reused. The inserted hashes are then read back with a locking read, which sees rows
+     * committed after this transaction's snapshot was taken.</p>
+     *
+     * <p>The insert goes straight through the session's JDBC connection as one batch; the
+     * rows are loaded as entities by the locking read that follows. It only adds rows, so no
+     * cached food can become stale, and Hibernate is not asked to evict the food cache
+     * region as it would for a native statement.</p>
+     *
+     * @param session an open session with an active transaction
+     * @param foods transient foods (without IDs); their content hash is set
+     * @return the managed catalog row for every hash among the given foods
+     */
+    public Map<String, Food> findOrInsert(Session session, Collection<Food> foods) {
+        for (Food food : foods) {
+            food.setContentHash(FoodContentHash.of(food));
+        }
+        Set<String> hashes = foods.stream().map(Food::getContentHash).collect(Collectors.toSet());
+
+        Map<String, Food> catalog = new HashMap<>();
+        for (Food stored : findByHashes(session, hashes, LockModeType.NONE)) {
+            catalog.put(stored.getContentHash(), stored);
+        }
+        int reused = catalog.size();
+
+        // One food per missing hash, in hash order so concurrent inserts take index locks in the same order
+        Map<String, Food> missing = new TreeMap<>();
+        for (Food food : foods) {
+            if (!catalog.containsKey(food.getContentHash())) {
+                missing.putIfAbsent(food.getContentHash(), food);
+            }
+        }
+        if (!missing.isEmpty()) {
+            session.doWork(connection -> insertIgnoringDuplicates(connection, missing.values()));
+            for (Food stored : findByHashes(session, missing.keySet(), LockModeType.PESSIMISTIC_READ)) {
+                catalog.put(stored.getContentHash(), stored);
+            }
+        }
+        logger.debug("Resolved {} foods to {} catalog rows ({} already stored)",
+                foods.size(), catalog.size(), reused);
+        return catalog;
+    }
+
+    /**
+     * Loads the catalog rows with the given content hashes.
+     *
+     * @param session an open session
+     * @param hashes the content hashes to look up
+     * @param lockMode {@code PESSIMISTIC_READ} to read the latest committed rows rather than the snapshot
+     * @return the stored foods
+     */
+    private List<Food> findByHashes(Session session, Collection<String> hashes, LockModeType lockMode) {
+        return session.createQuery("from Food f where f.contentHash in (:hashes)", Food.class)
+                .setParameterList("hashes", hashes)
+                .setLockMode(lockMode)
+                .list();
+    }
+
+    /**
+     * Inserts foods into the catalog, skipping any whose content hash is already stored.
+     *
+     * @param connection the session's JDBC connection
+     * @param foods foods with their content hash set
+     * @throws SQLException if the insert fails for any reason other than a duplicate hash
+     */
+    private void insertIgnoringDuplicates(Connection connection, Collection<Food> foods) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_IGNORING_DUPLICATES)) {
+            for (Food food : foods) {
+                insert.setString(1, food.getFoodName());
+                insert.setObject(2, food.getFat(), Types.DOUBLE);
+                insert.setObject(3, food.getProtein(), Types.DOUBLE);
+                insert.setObject(4, food.getCarbs(), Types.DOUBLE);
+                insert.setObject(5, food.getCalories(), Types.DOUBLE);
+                insert.setObject(6, food.getCholesterol(), Types.DOUBLE);
+                insert.setObject(7, food.getSodium(), Types.DOUBLE);
+                insert.setObject(8, food.getFiber(), Types.DOUBLE);
+                insert.setObject(9, food.getSugar(), Types.DOUBLE);
+                insert.setObject(10, food.getAddedSugar(), Types.DOUBLE);
+                insert.setObject(11, food.getVitaminD(), Types.DOUBLE);
+                insert.setObject(12, food.getCalcium(), Types.DOUBLE);
+                insert.setObject(13, food.getIron(), Types.DOUBLE);
+                insert.setObject(14, food.getPotassium(), Types.DOUBLE);
+                insert.setString(15, food.getNotes());
+                insert.setString(16, food.getContentHash());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Hashes every food that has no content hash yet and merges rows with the same content.
+     *
+     * <p>For each hash one row is kept: the row that already holds the hash if there is one,
+     * otherwise the lowest ID. Meal journal entries and favorites pointing at the other rows
+     * are moved to it (journal entries keep the name they showed), favorites that become
+     * repeats of one another are removed, and the other rows are deleted. Only the kept row
+     * is given the hash, so the unique index holds at every step. The daily nutrition rollup needs no refresh, since merged rows carry
+     * the same nutrient values.</p>
+     *
+     * <p>Groups are merged in batches of {@value #MERGE_GROUPS_PER_TRANSACTION} per
+     * transaction, so the job can be stopped and run again; it picks up the rows still
+     * without a hash.</p>
+     *
+     * @return the number of duplicate rows removed
+     */
+    public int mergeDuplicates() {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            // Rows hashed on insert are already unique and are kept
+            Map<String, Long> keeperByHash = new HashMap<>();
+            for (Object[] row : session.createQuery(
+                            "select f.contentHash, f.id from Food f where f.contentHash is not null", Object[].class)
+                    .list()) {
+                keeperByHash.put((String) row[0], (Long) row[1]);
+            }
+
+            // Hash the remaining rows page by page, grouping duplicates under their keeper
+            Map<Long, String> unhashedKeepers = new LinkedHashMap<>();
+            Map<Long, List<Long>> duplicatesByKeeper = new LinkedHashMap<>();
+            long lastId = 0;
+            List<Food> page;
+            do {
+                page = session.createQuery(
+                                "from Food f where f.contentHash is null and f.id > :lastId order by f.id", Food.class)
+                        .setParameter("lastId", lastId)
+                        .setMaxResults(MERGE_PAGE_SIZE)
+                        .setReadOnly(true)
+                        .list();
+                for (Food food : page) {
+                    String hash = FoodContentHash.of(food);
+                    Long keeper = keeperByHash.putIfAbsent(hash, food.getId());
+                    if (keeper == null) {
+                        unhashedKeepers.put(food.getId(), hash);
+                    } else {
+                        duplicatesByKeeper.computeIfAbsent(keeper, id -> new ArrayList<>()).add(food.getId());
+                    }
+                    lastId = food.getId();
+                }
+                session.clear();
+            } while (page.size() == MERGE_PAGE_SIZE);
+
+            List<Long> keepers = new ArrayList<>(duplicatesByKeeper.keySet());
+            for (Long keeper : unhashedKeepers.keySet()) {
+                if (!duplicatesByKeeper.containsKey(keeper)) {
+                    keepers.add(keeper);
+                }
+            }
+
+            int removed = 0;
+            for (int start = 0; start < keepers.size(); start += MERGE_GROUPS_PER_TRANSACTION) {
+                List<Long> batch = keepers.subList(start, Math.min(start + MERGE_GROUPS_PER_TRANSACTION, keepers.size()));
+                removed += mergeBatch(session, batch, duplicatesByKeeper, unhashedKeepers);
+            }
+            logger.info("Food catalog merge: hashed {} rows, removed {} duplicates", unhashedKeepers.size(), removed);
+            return removed;
+        }
+    }
+
+    /**
+     * Merges one batch of duplicate groups and hashes their keepers in a single transaction.
+     *
+     * @param session an open session
+     * @param keepers the IDs of the rows being kept
+     * @param duplicatesByKeeper the duplicate row IDs of each keeper that has any
+     * @param unhashedKeepers the hash to store on each keeper that does not have one yet
+     * @return the number of duplicate rows removed
+     */
+    private int mergeBatch(Session session, List<Long> keepers, Map<Long, List<Long>> duplicatesByKeeper,
+                           Map<Long, String> unhashedKeepers) {
+        Transaction transaction = session.beginTransaction();
+        try {
+            int removed = 0;
+            for (Long keeper : keepers) {
+                List<Long> duplicates = duplicatesByKeeper.get(keeper);
+                if (duplicates != null) {
+                    removed += mergeInto(session, keeper, duplicates);
+                }
+                String hash = unhashedKeepers.get(keeper);
+                if (hash != null) {
+                    NativeMutations.create(session, "UPDATE Food SET content_hash = :hash WHERE id = :id", "Food")
+                            .setParameter("hash", hash)
+                            .setParameter("id", keeper)
+                            .executeUpdate();
+                }
+            }
+            transaction.commit();
+            return removed;
+        } catch (RuntimeException e) {
+            logger.error("Rolling back food catalog merge batch", e);
+            transaction.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Points every reference to the duplicates at the kept row, then deletes the duplicates.
+     *
+     * @param session an open session with an active transaction
+     * @param keeper the ID of the row being kept
+     * @param duplicates the IDs of rows with the same content
+     * @return the number of rows deleted
+     */
+    private int mergeInto(Session session, long keeper, List<Long> duplicates) {
+        // Entries without their own spelling keep the duplicate's name rather than taking the keeper's
+        NativeMutations.create(session,
+                        "UPDATE FoodMealJournal e JOIN Food f ON f.id = e.food_id "
+                                + "SET e.food_name = COALESCE(e.food_name, f.food_name), e.food_id = :keeper "
+                                + "WHERE e.food_id IN (:duplicates)",
+                        "FoodMealJournal")
+                .setParameter("keeper", keeper)
+                .setParameterList("duplicates", duplicates)
+                .executeUpdate();
+        NativeMutations.create(session,
+                        "UPDATE FavoriteItems SET food_id = :keeper WHERE food_id IN (:duplicates)", "FavoriteItems")
+                .setParameter("keeper", keeper)
+                .setParameterList("duplicates", duplicates)
+                .executeUpdate();
+        // A user who favorited several of the duplicates keeps one favorite of the merged food
+        NativeMutations.create(session,
+                        "DELETE newer FROM FavoriteItems newer JOIN FavoriteItems older "
+                                + "ON older.user_id = newer.user_id AND older.food_id = newer.food_id "
+                                + "AND older.meal_id IS NULL AND newer.meal_id IS NULL AND older.id < newer.id "
+                                + "WHERE newer.food_id = :keeper",
+                        "FavoriteItems")
+                .setParameter("keeper", keeper)
+                .executeUpdate();
+        int deleted = NativeMutations.create(session, "DELETE FROM Food WHERE id IN (:duplicates)", "Food")
+                .setParameterList("duplicates", duplicates)
+                .executeUpdate();
+        logger.debug("Merged foods {} into {}", duplicates, keeper);
+        return deleted;
+    }
+}
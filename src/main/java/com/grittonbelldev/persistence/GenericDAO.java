@@ -9,7 +9,12 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Generic Data Access Object (DAO) class for performing common CRUD operations on any entity type.
@@ -42,6 +47,50 @@ public class GenericDAO<T> {
         }
     }
 
+    /**
+     * Retrieves the entities with the given primary keys in one round trip.
+     *
+     * <p>Uses Hibernate's multi-load: entities already in the second-level cache are taken
+     * from it, and the rest are read with a single {@code IN} query.</p>
+     *
+     * @param ids The primary key values; duplicates are ignored.
+     * @param <ID> The type of the primary key.
+     * @return The entities found, keyed by primary key. IDs with no row are absent.
+     */
+    public <ID> Map<ID, T> getByIds(Collection<ID> ids) {
+        Map<ID, T> found = new HashMap<>();
+        if (ids.isEmpty()) {
+            return found;
+        }
+        List<ID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            // Results come back in the order of the IDs, with null for IDs that have no row
+            List<T> entities = session.byMultipleIds(type).multiLoad(distinctIds);
+            for (int i = 0; i < distinctIds.size(); i++) {
+                if (entities.get(i) != null) {
+                    found.put(distinctIds.get(i), entities.get(i));
+                }
+            }
+        }
+        logger.debug("Loaded {} of {} {} rows by ID", found.size(), distinctIds.size(), type.getSimpleName());
+        return found;
+    }
+
+    /**
+     * Retrieves an entity by its natural ID.
+     *
+     * <p>For an entity marked {@code @NaturalIdCache} the lookup is answered from the
+     * second-level cache when the natural ID has been resolved before.</p>
+     *
+     * @param naturalId The value of the entity's single {@code @NaturalId} attribute.
+     * @return The entity with the given natural ID, or null if not found.
+     */
+    public T getBySimpleNaturalId(Object naturalId) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            return session.bySimpleNaturalId(type).load(naturalId);
+        }
+    }
+
     /**
      * Updates an existing entity in the database.
      *
@@ -0,0 +1,70 @@
+package com.grittonbelldev.persistence;
+
+/**
+ * Raw aggregates computed by the database over a user's readings in a time window.
+ * <p>
+ * Holds only sums and counts; the derived statistics (mean, standard deviation,
+ * time-in-range percentages and so on) are computed from these by the service layer.
+ * </p>
+ */
+public class GlucoseAggregate {
+
+    private final long count;
+    private final double sum;
+    private final double sumOfSquares;
+    private final Double min;
+    private final Double max;
+    private final long below54;
+    private final long below70;
+    private final long inRange;
+    private final long above180;
+    private final long above250;
+
+    /**
+     * Creates an aggregate from the database results.
+     *
+     * @param count number of readings
+     * @param sum sum of glucose levels
+     * @param sumOfSquares sum of squared glucose levels
+     * @param min lowest level, or null when there are no readings
+     * @param max highest level, or null when there are no readings
+     * @param below54 readings below 54 mg/dL
+     * @param below70 readings below 70 mg/dL
+     * @param inRange readings from 70 to 180 mg/dL inclusive
+     * @param above180 readings above 180 mg/dL
+     * @param above250 readings above 250 mg/dL
+     */
+    public GlucoseAggregate(long count, double sum, double sumOfSquares, Double min, Double max,
+                            long below54, long below70, long inRange, long above180, long above250) {
+        this.count = count;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+        this.min = min;
+        this.max = max;
+        this.below54 = below54;
+        this.below70 = below70;
+        this.inRange = inRange;
+        this.above180 = above180;
+        this.above250 = above250;
+    }
+
+    public long getCount() { return count; }
+
+    public double getSum() { return sum; }
+
+    public double getSumOfSquares() { return sumOfSquares; }
+
+    public Double getMin() { return min; }
+
+    public Double getMax() { return max; }
+
+    public long getBelow54() { return below54; }
+
+    public long getBelow70() { return below70; }
+
+    public long getInRange() { return inRange; }
+
+    public long getAbove180() { return above180; }
+
+    public long getAbove250() { return above250; }
+}
@@ -0,0 +1,22 @@
+package com.grittonbelldev.persistence;
+
+import java.time.LocalDateTime;
+
+/**
+ * Callback that receives bare (time, level) pairs while glucose readings are streamed.
+ * <p>
+ * Used by chart and analytics code that only needs the two numeric columns, so no DTO
+ * is created per reading.
+ * </p>
+ */
+@FunctionalInterface
+public interface GlucosePointConsumer {
+
+    /**
+     * Handles a single reading.
+     *
+     * @param measurementTime when the reading was taken
+     * @param glucoseLevel the glucose level in mg/dL
+     */
+    void accept(LocalDateTime measurementTime, double glucoseLevel);
+}
@@ -0,0 +1,24 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.dto.GlucoseResponseDto;
+
+import java.io.IOException;
+
+/**
+ * Callback that receives glucose readings one at a time while a query result is streamed.
+ * <p>
+ * Declared separately from {@link java.util.function.Consumer} so implementations can
+ * write straight to an output stream and let {@link IOException} propagate.
+ * </p>
+ */
+@FunctionalInterface
+public interface GlucoseReadingConsumer {
+
+    /**
+     * Handles a single reading. The instance must not be retained after the call returns.
+     *
+     * @param reading the reading
+     * @throws IOException if the reading cannot be written
+     */
+    void accept(GlucoseResponseDto reading) throws IOException;
+}
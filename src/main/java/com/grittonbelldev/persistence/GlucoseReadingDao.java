@@ -0,0 +1,200 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.dto.GlucoseResponseDto;
+import com.grittonbelldev.util.PageCursor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DAO class for glucose reading queries that GenericDAO cannot express efficiently.
+ * <p>
+ * Every query here is scoped to one user and ordered by measurement time, so it can be
+ * answered from the (user_id, measurement_time) index without scanning the user's full history.
+ * </p>
+ */
+public class GlucoseReadingDao {
+
+    private static final Logger logger = LogManager.getLogger(GlucoseReadingDao.class);
+
+    private static final String READING_DTO_SELECT =
+            "select new com.grittonbelldev.dto.GlucoseResponseDto("
+                    + "r.id, r.glucoseLevel, r.measurementTime, r.measurementSource, r.notes) "
+                    + "from GlucoseReading r ";
+
+    /**
+     * Fetches one page of a user's readings, newest first, optionally limited to a time range.
+     *
+     * <p>The range bounds and the keyset cursor all become predicates on measurement_time,
+     * so MySQL answers the query with a range scan on (user_id, measurement_time) and reads
+     * only the rows that end up on the page.</p>
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @param from Inclusive lower bound on measurement time, or null for no lower bound
+     * @param to Exclusive upper bound on measurement time, or null for no upper bound
+     * @param after The position of the last reading on the previous page, or null for the first page
+     * @param maxResults The maximum number of readings to return
+     * @return Up to maxResults readings
+     */
+    public List<GlucoseResponseDto> findPageForUser(long userId, LocalDateTime from, LocalDateTime to,
+                                                    PageCursor after, int maxResults) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            StringBuilder hql = new StringBuilder(READING_DTO_SELECT).append("where r.user.id = :userId");
+            if (from != null) {
+                hql.append(" and r.measurementTime >= :from");
+            }
+            if (to != null) {
+                hql.append(" and r.measurementTime < :to");
+            }
+            if (after != null) {
+                hql.append(" and (r.measurementTime < :afterTime or (r.measurementTime = :afterTime and r.id < :afterId))");
+            }
+            hql.append(" order by r.measurementTime desc, r.id desc");
+
+            Query<GlucoseResponseDto> query = session.createQuery(hql.toString(), GlucoseResponseDto.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(maxResults);
+            if (from != null) {
+                query.setParameter("from", from);
+            }
+            if (to != null) {
+                query.setParameter("to", to);
+            }
+            if (after != null) {
+                query.setParameter("afterTime", after.getTime());
+                query.setParameter("afterId", after.getId());
+            }
+
+            List<GlucoseResponseDto> result = query.list();
+            logger.debug("Loaded page of {} readings for userId={} in [{}, {})", result.size(), userId, from, to);
+            return result;
+        }
+    }
+
+    /**
+     * Streams every reading for a user, oldest first, to the consumer.
+     *
+     * <p>Uses a stateless session and a forward-only cursor with MySQL's streaming fetch size,
+     * so the driver hands rows over one at a time instead of buffering the whole result set.
+     * Nothing is retained between rows; heap use does not grow with the size of the history.
+     * The connection is busy for the duration of the call, so the consumer must not issue
+     * other queries.</p>
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @param consumer Receives each reading in order
+     * @return The number of readings streamed
+     * @throws IOException if the consumer fails to write a reading
+     */
+    public long forEachReading(long userId, GlucoseReadingConsumer consumer) throws IOException {
+        try (StatelessSession session = SessionFactoryProvider.getSessionFactory().openStatelessSession();
+             ScrollableResults<GlucoseResponseDto> results = session.createQuery(
+                             READING_DTO_SELECT + "where r.user.id = :userId order by r.measurementTime, r.id",
+                             GlucoseResponseDto.class)
+                     .setParameter("userId", userId)
+                     .setFetchSize(Integer.MIN_VALUE)
+                     .setReadOnly(true)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            long count = 0;
+            while (results.next()) {
+                consumer.accept(results.get());
+                count++;
+            }
+            logger.debug("Streamed {} readings for userId={}", count, userId);
+            return count;
+        }
+    }
+
+    /**
+     * Streams the (time, level) pairs of a user's readings in {@code [from, to)}, oldest first.
+     *
+     * <p>Selects only the two columns the chart needs and streams them the same way as
+     * {@link #forEachReading(long, GlucoseReadingConsumer)}, over the (user_id, measurement_time)
+     * index range.</p>
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @param from Inclusive lower bound on measurement time
+     * @param to Exclusive upper bound on measurement time
+     * @param consumer Receives each point in time order
+     * @return The number of points streamed
+     */
+    public long forEachPoint(long userId, LocalDateTime from, LocalDateTime to, GlucosePointConsumer consumer) {
+        try (StatelessSession session = SessionFactoryProvider.getSessionFactory().openStatelessSession();
+             ScrollableResults<Object[]> results = session.createQuery(
+                             "select r.measurementTime, r.glucoseLevel from GlucoseReading r "
+                                     + "where r.user.id = :userId and r.measurementTime >= :from and r.measurementTime < :to "
+                                     + "order by r.measurementTime, r.id",
+                             Object[].class)
+                     .setParameter("userId", userId)
+                     .setParameter("from", from)
+                     .setParameter("to", to)
+                     .setFetchSize(Integer.MIN_VALUE)
+                     .setReadOnly(true)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            long count = 0;
+            while (results.next()) {
+                Object[] row = results.get();
+                consumer.accept((LocalDateTime) row[0], ((Number) row[1]).doubleValue());
+                count++;
+            }
+            logger.debug("Streamed {} points for userId={} in [{}, {})", count, userId, from, to);
+            return count;
+        }
+    }
+
+    /**
+     * Computes count, sums, extremes and range buckets over a user's readings in
+     * {@code [from, to)} with a single aggregate query.
+     *
+     * <p>The database does all the work over the (user_id, measurement_time) index range
+     * and returns one row, so the cost to the application is the same for a day or a year.</p>
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @param from Inclusive lower bound on measurement time
+     * @param to Exclusive upper bound on measurement time
+     * @return The aggregates; count is zero when there are no readings in the window
+     */
+    public GlucoseAggregate aggregateForUser(long userId, LocalDateTime from, LocalDateTime to) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            Object[] row = session.createQuery(
+                            "select count(r), sum(r.glucoseLevel), sum(r.glucoseLevel * r.glucoseLevel), "
+                                    + "min(r.glucoseLevel), max(r.glucoseLevel), "
+                                    + "sum(case when r.glucoseLevel < 54 then 1 else 0 end), "
+                                    + "sum(case when r.glucoseLevel < 70 then 1 else 0 end), "
+                                    + "sum(case when r.glucoseLevel >= 70 and r.glucoseLevel <= 180 then 1 else 0 end), "
+                                    + "sum(case when r.glucoseLevel > 180 then 1 else 0 end), "
+                                    + "sum(case when r.glucoseLevel > 250 then 1 else 0 end) "
+                                    + "from GlucoseReading r "
+                                    + "where r.user.id = :userId and r.measurementTime >= :from and r.measurementTime < :to",
+                            Object[].class)
+                    .setParameter("userId", userId)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .getSingleResult();
+
+            // Sums, min and max are null when the window is empty
+            GlucoseAggregate aggregate = new GlucoseAggregate(
+                    toLong(row[0]), toDouble(row[1]), toDouble(row[2]),
+                    row[3] != null ? ((Number) row[3]).doubleValue() : null,
+                    row[4] != null ? ((Number) row[4]).doubleValue() : null,
+                    toLong(row[5]), toLong(row[6]), toLong(row[7]), toLong(row[8]), toLong(row[9]));
+            logger.debug("Aggregated {} readings for userId={} in [{}, {})", aggregate.getCount(), userId, from, to);
+            return aggregate;
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,212 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.entity.FoodMealJournal;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes the row-level changes needed to bring a stored meal in line with an update request.
+ *
+ * <p>The service layer builds a change set by diffing the incoming foods against the meal's
+ * current journal entries. {@link MealDao#applyChanges(MealChangeSet)} then writes only
+ * what is listed here, so untouched rows never generate a statement.</p>
+ */
+public class MealChangeSet {
+
+    private final long userId;
+    private final long mealId;
+
+    // Day the meal was eaten before this update; its daily nutrition totals always need a refresh
+    private final LocalDate originalDay;
+
+    // Top-level meal fields, only set when either of them differs from the stored value
+    private boolean mealFieldsChanged;
+    private String mealName;
+    private LocalDateTime timeEaten;
+
+    // Journal entry ID -> new serving size
+    private final Map<Long, Double> servingSizeUpdates = new LinkedHashMap<>();
+
+    // Journal entry ID -> new spelling of the same catalog food's name
+    private final Map<Long, String> foodNameUpdates = new LinkedHashMap<>();
+
+    // Journal entries that are no longer part of the meal
+    private final List<Long> removedEntryIds = new ArrayList<>();
+
+    // New journal entries; their foods may be transient and are resolved against the food catalog
+    private final List<FoodMealJournal> addedEntries = new ArrayList<>();
+
+    /**
+     * Creates an empty change set for the given meal.
+     *
+     * @param userId the ID of the user who owns the meal
+     * @param mealId the ID of the meal being updated
+     * @param originalDay the day the meal was eaten before this update
+     */
+    public MealChangeSet(long userId, long mealId, LocalDate originalDay) {
+        this.userId = userId;
+        this.mealId = mealId;
+        this.originalDay = originalDay;
+    }
+
+    /**
+     * Records new values for the meal's name and time eaten.
+     *
+     * @param mealName the new meal name
+     * @param timeEaten the new time eaten
+     */
+    public void updateMealFields(String mealName, LocalDateTime timeEaten) {
+        this.mealFieldsChanged = true;
+        this.mealName = mealName;
+        this.timeEaten = timeEaten;
+    }
+
+    /**
+     * Records a serving size change for an existing journal entry.
+     *
+     * @param entryId the journal entry ID
+     * @param servingSize the new serving size
+     */
+    public void updateServingSize(long entryId, Double servingSize) {
+        servingSizeUpdates.put(entryId, servingSize);
+    }
+
+    /**
+     * Records a new spelling for an existing journal entry's food name. The entry stays linked
+     * to the same catalog food.
+     *
+     * @param entryId the journal entry ID
+     * @param foodName the name as logged
+     */
+    public void updateFoodName(long entryId, String foodName) {
+        foodNameUpdates.put(entryId, foodName);
+    }
+
+    /**
+     * Records an existing journal entry that should be removed from the meal.
+     *
+     * @param entryId the journal entry ID
+     */
+    public void removeEntry(long entryId) {
+        removedEntryIds.add(entryId);
+    }
+
+    /**
+     * Records a new journal entry to insert.
+     *
+     * @param entry the new entry
+     */
+    public void addEntry(FoodMealJournal entry) {
+        addedEntries.add(entry);
+    }
+
+    /**
+     * Returns true when there is nothing to write.
+     *
+     * @return whether the change set is empty
+     */
+    public boolean isEmpty() {
+        return !mealFieldsChanged
+                && servingSizeUpdates.isEmpty()
+                && foodNameUpdates.isEmpty()
+                && removedEntryIds.isEmpty()
+                && addedEntries.isEmpty();
+    }
+
+    /**
+     * Returns the days whose daily nutrition totals this change set can affect for the meal's owner:
+     * the original day, plus the new day when the meal was moved.
+     *
+     * @return the affected days
+     */
+    public Set<LocalDate> getAffectedDays() {
+        Set<LocalDate> days = new LinkedHashSet<>();
+        days.add(originalDay);
+        if (mealFieldsChanged) {
+            days.add(timeEaten.toLocalDate());
+        }
+        return days;
+    }
+
+    /**
+     * Gets user id.
+     *
+     * @return the user id
+     */
+    public long getUserId() { return userId; }
+
+    /**
+     * Gets meal id.
+     *
+     * @return the meal id
+     */
+    public long getMealId() { return mealId; }
+
+    /**
+     * Is meal fields changed boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isMealFieldsChanged() { return mealFieldsChanged; }
+
+    /**
+     * Gets meal name.
+     *
+     * @return the meal name
+     */
+    public String getMealName() { return mealName; }
+
+    /**
+     * Gets time eaten.
+     *
+     * @return the time eaten
+     */
+    public LocalDateTime getTimeEaten() { return timeEaten; }
+
+    /**
+     * Gets serving size updates.
+     *
+     * @return the serving size updates keyed by journal entry ID
+     */
+    public Map<Long, Double> getServingSizeUpdates() { return servingSizeUpdates; }
+
+    /**
+     * Gets food name updates.
+     *
+     * @return the food name updates keyed by journal entry ID
+     */
+    public Map<Long, String> getFoodNameUpdates() { return foodNameUpdates; }
+
+    /**
+     * Gets removed entry ids.
+     *
+     * @return the removed entry ids
+     */
+    public List<Long> getRemovedEntryIds() { return removedEntryIds; }
+
+    /**
+     * Gets added entries.
+     *
+     * @return the added entries
+     */
+    public List<FoodMealJournal> getAddedEntries() { return addedEntries; }
+
+    @Override
+    public String toString() {
+        return "MealChangeSet{" +
+                "mealId=" + mealId +
+                ", mealFieldsChanged=" + mealFieldsChanged +
+                ", servingSizeUpdates=" + servingSizeUpdates.size() +
+                ", foodNameUpdates=" + foodNameUpdates.size() +
+                ", removedEntries=" + removedEntryIds.size() +
+                ", addedEntries=" + addedEntries.size() +
+                '}';
+    }
+}
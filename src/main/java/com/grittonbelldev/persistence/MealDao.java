@@ -1,55 +1,384 @@
 package com.grittonbelldev.persistence;
 
+import com.grittonbelldev.dto.MealFoodRow;
+import com.grittonbelldev.dto.MealGlucoseResponseDto;
+import com.grittonbelldev.dto.MealResponseDto;
+import com.grittonbelldev.entity.Food;
+import com.grittonbelldev.entity.FoodMealJournal;
 import com.grittonbelldev.entity.Meal;
+import com.grittonbelldev.util.PageCursor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Session;
+import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * DAO class for performing custom database queries related to Meal entities.
  * <p>
  * Unlike GenericDAO, this class supports complex queries specific to the Meal domain,
  * such as filtering by time range or retrieving meals with related food metadata.
+ * It also owns the multi-row write paths that must succeed or fail as a single unit,
+ * including keeping the daily nutrition rollup in step with the journal.
  * </p>
  */
 public class MealDao {
 
     private static final Logger logger = LogManager.getLogger(NutritionixDao.class);
 
+    private final DailyNutritionSummaryDao summaryDao = new DailyNutritionSummaryDao();
+    private final FoodDao foodDao = new FoodDao();
+
+    /**
+     * Base query that loads meals together with their owner, journal entries and foods
+     * in a single SQL statement, so mapping the results never triggers secondary selects.
+     */
+    private static final String MEAL_GRAPH_QUERY =
+            "select distinct m from Meal m "
+                    + "join fetch m.user "
+                    + "left join fetch m.foodMealEntries e "
+                    + "left join fetch e.food ";
+
     /**
-     * Fetches meals eaten within the last N days by user ID.
+     * Projection that selects one flat row per journal entry (or one row for a meal without
+     * entries) straight into {@link MealFoodRow}, bypassing entity instantiation entirely.
+     */
+    private static final String MEAL_ROW_QUERY =
+            "select new com.grittonbelldev.dto.MealFoodRow("
+                    + "m.id, m.mealName, m.timeEaten, f.id, e.servingSize, coalesce(e.foodName, f.foodName), "
+                    + "f.fat, f.protein, f.carbs, f.calories, f.cholesterol, f.sodium, f.fiber, "
+                    + "f.sugar, f.addedSugar, f.vitaminD, f.calcium, f.iron, f.potassium, f.notes) "
+                    + "from Meal m "
+                    + "left join m.foodMealEntries e "
+                    + "left join e.food f ";
+
+    // Keeps each meal's rows adjacent so they can be folded in a single pass
+    private static final String MEAL_ROW_ORDER = " order by m.timeEaten desc, m.id desc, e.id asc";
+
+    /**
+     * Fetches one page of a user's meals as response DTOs, newest first.
+     *
+     * <p>The page is resolved in two steps inside one session: a keyset seek on
+     * (time eaten, id) picks the meal IDs for the page, then a single projection loads
+     * those meals with their foods. Limiting meal IDs rather than joined rows keeps a
+     * meal's entries from being split across pages.</p>
      *
      * @param userId The user's internal database ID (primary key)
-     * @param days Number of days back from today
-     * @return List of meals within that range
+     * @param after The position of the last meal on the previous page, or null for the first page
+     * @param maxResults The maximum number of meals to return
+     * @return Up to maxResults meals with their foods and serving sizes
      */
-    public List<Meal> findMealsWithinDays(Long userId, int days) {
+    public List<MealResponseDto> findMealPageForUser(long userId, PageCursor after, int maxResults) {
         try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
-            String hql = "FROM Meal m WHERE m.user.id = :userId AND m.timeEaten >= :cutoff ORDER BY m.timeEaten DESC";
+            String idHql = "select m.id from Meal m where m.user.id = :userId"
+                    + (after != null
+                        ? " and (m.timeEaten < :afterTime or (m.timeEaten = :afterTime and m.id < :afterId))"
+                        : "")
+                    + " order by m.timeEaten desc, m.id desc";
 
-            LocalDate cutoffDate = LocalDate.now().minusDays(days);
-            LocalDateTime cutoff = cutoffDate.atStartOfDay();
+            Query<Long> idQuery = session.createQuery(idHql, Long.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(maxResults);
+            if (after != null) {
+                idQuery.setParameter("afterTime", after.getTime());
+                idQuery.setParameter("afterId", after.getId());
+            }
 
-            logger.debug("Querying recent meals for userId={} within last {} days", userId, days);
-            logger.debug("Cutoff date (at start of day): {}", cutoff);
+            List<Long> mealIds = idQuery.list();
+            if (mealIds.isEmpty()) {
+                return new ArrayList<>();
+            }
 
-            Query<Meal> query = session.createQuery(hql, Meal.class);
-            query.setParameter("userId", userId);
-            query.setParameter("cutoff", cutoff);
+            List<MealFoodRow> rows = session.createQuery(
+                            MEAL_ROW_QUERY + "where m.id in (:mealIds)" + MEAL_ROW_ORDER, MealFoodRow.class)
+                    .setParameterList("mealIds", mealIds)
+                    .list();
+            logger.debug("Loaded page of {} meals ({} rows) for userId={}", mealIds.size(), rows.size(), userId);
+            return MealResponseDto.fromRows(rows);
+        }
+    }
 
-            List<Meal> result = query.list();
+    /**
+     * Loads one meal as a response DTO, but only if it belongs to the given user.
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @param mealId The meal ID
+     * @return the meal DTO, or null if it does not exist or is owned by someone else
+     */
+    public MealResponseDto findMealDtoForUser(long userId, long mealId) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            List<MealFoodRow> rows = session.createQuery(
+                            MEAL_ROW_QUERY + "where m.id = :mealId and m.user.id = :userId" + MEAL_ROW_ORDER,
+                            MealFoodRow.class)
+                    .setParameter("mealId", mealId)
+                    .setParameter("userId", userId)
+                    .list();
+            List<MealResponseDto> meals = MealResponseDto.fromRows(rows);
+            return meals.isEmpty() ? null : meals.get(0);
+        }
+    }
 
-            logger.debug("Found {} meals after cutoff", result.size());
-            for (Meal meal : result) {
-                logger.debug("Meal ID: {}, timeEaten: {}", meal.getId(), meal.getTimeEaten());
+    /**
+     * Lists a user's meals eaten at or after the cutoff as response DTOs, newest first.
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @param cutoff The earliest time eaten to include
+     * @return The matching meals with their foods and serving sizes
+     */
+    public List<MealResponseDto> findMealDtosSince(long userId, LocalDateTime cutoff) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            List<MealFoodRow> rows = session.createQuery(
+                            MEAL_ROW_QUERY + "where m.user.id = :userId and m.timeEaten >= :cutoff" + MEAL_ROW_ORDER,
+                            MealFoodRow.class)
+                    .setParameter("userId", userId)
+                    .setParameter("cutoff", cutoff)
+                    .list();
+            logger.debug("Projected {} meal rows for userId={} since {}", rows.size(), userId, cutoff);
+            return MealResponseDto.fromRows(rows);
+        }
+    }
+
+    /**
+     * Lists the meals a user has favorited as response DTOs, newest first.
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @return The favorited meals with their foods and serving sizes
+     */
+    public List<MealResponseDto> findFavoriteMealDtos(long userId) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            List<MealFoodRow> rows = session.createQuery(
+                            MEAL_ROW_QUERY
+                                    + "where m.id in (select fav.meal.id from FavoriteItem fav where fav.user.id = :userId)"
+                                    + MEAL_ROW_ORDER,
+                            MealFoodRow.class)
+                    .setParameter("userId", userId)
+                    .list();
+            return MealResponseDto.fromRows(rows);
+        }
+    }
+
+    /**
+     * Lists the ID, name and time of a user's meals eaten in {@code [from, to)}, oldest first.
+     * Only the three columns are read; entries and foods are not joined.
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @param from Inclusive lower bound on time eaten
+     * @param to Exclusive upper bound on time eaten
+     * @return One unfilled MealGlucoseResponseDto per meal, in time order
+     */
+    public List<MealGlucoseResponseDto> findMealMarkersForUser(long userId, LocalDateTime from, LocalDateTime to) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            return session.createQuery(
+                            "select new com.grittonbelldev.dto.MealGlucoseResponseDto(m.id, m.mealName, m.timeEaten) "
+                                    + "from Meal m where m.user.id = :userId "
+                                    + "and m.timeEaten >= :from and m.timeEaten < :to "
+                                    + "order by m.timeEaten, m.id",
+                            MealGlucoseResponseDto.class)
+                    .setParameter("userId", userId)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .list();
+        }
+    }
+
+    /**
+     * Loads the ID, name and time of one meal, but only if it belongs to the given user.
+     *
+     * @param userId The user's internal database ID (primary key)
+     * @param mealId The meal ID
+     * @return An unfilled MealGlucoseResponseDto, or null if not found or owned by someone else
+     */
+    public MealGlucoseResponseDto findMealMarkerForUser(long userId, long mealId) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            return session.createQuery(
+                            "select new com.grittonbelldev.dto.MealGlucoseResponseDto(m.id, m.mealName, m.timeEaten) "
+                                    + "from Meal m where m.id = :mealId and m.user.id = :userId",
+                            MealGlucoseResponseDto.class)
+                    .setParameter("mealId", mealId)
+                    .setParameter("userId", userId)
+                    .uniqueResult();
+        }
+    }
+
+    /**
+     * Fetches a single meal with its entries and foods already loaded.
+     *
+     * @param mealId The meal ID
+     * @return the meal, or null if it does not exist
+     */
+    public Meal findByIdWithEntries(long mealId) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            return session.createQuery(MEAL_GRAPH_QUERY + "where m.id = :mealId", Meal.class)
+                    .setParameter("mealId", mealId)
+                    .uniqueResult();
+        }
+    }
+
+    /**
+     * Persists a new meal together with its journal entries and any new foods they reference,
+     * using one session and one transaction.
+     *
+     * <p>Foods without an ID are resolved against the food catalog first: an entry whose food
+     * is already stored is pointed at that row, and only foods not yet in the catalog are
+     * inserted. Foods that already have an ID are only referenced. The journal entries are written through the meal's cascade. If any statement fails the
+     * whole unit is rolled back, so a meal is never left half-written. The day's nutrition
+     * totals are refreshed in the same transaction.</p>
+     *
+     * @param meal a transient meal whose foodMealEntries are already populated
+     * @return the same meal instance with generated IDs assigned
+     */
+    public Meal insertWithEntries(Meal meal) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            session.setJdbcBatchSize(SessionFactoryProvider.JDBC_BATCH_SIZE);
+            Transaction transaction = session.beginTransaction();
+            try {
+                linkCatalogFoods(session, meal.getFoodMealEntries());
+                session.persist(meal);
+                summaryDao.refreshDay(session, meal.getUser().getId(), meal.getTimeEaten().toLocalDate());
+                transaction.commit();
+            } catch (RuntimeException e) {
+                logger.error("Rolling back meal insert for user {}", meal.getUser().getId(), e);
+                transaction.rollback();
+                throw e;
+            }
+
+            logger.debug("Inserted meal {} with {} entries in one transaction",
+                    meal.getId(), meal.getFoodMealEntries().size());
+            return meal;
+        }
+    }
+
+    /**
+     * Applies a diffed set of changes to an existing meal in one session and one transaction.
+     *
+     * <p>Only the rows named in the change set are touched: serving size edits become single-row
+     * UPDATEs, removed entries are deleted with one statement, and new entries are inserted after
+     * their new foods are resolved against the food catalog. Finally the nutrition totals of every
+     * day the changes can affect are refreshed before committing.</p>
+     *
+     * @param changes the changes computed by the service layer
+     */
+    public void applyChanges(MealChangeSet changes) {
+        if (changes.isEmpty()) {
+            logger.debug("No changes to apply for meal {}", changes.getMealId());
+            return;
+        }
+
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            session.setJdbcBatchSize(SessionFactoryProvider.JDBC_BATCH_SIZE);
+            Transaction transaction = session.beginTransaction();
+            try {
+                if (changes.isMealFieldsChanged()) {
+                    session.createMutationQuery(
+                                    "update Meal m set m.mealName = :mealName, m.timeEaten = :timeEaten where m.id = :mealId")
+                            .setParameter("mealName", changes.getMealName())
+                            .setParameter("timeEaten", changes.getTimeEaten())
+                            .setParameter("mealId", changes.getMealId())
+                            .executeUpdate();
+                }
+
+                for (Map.Entry<Long, Double> update : changes.getServingSizeUpdates().entrySet()) {
+                    session.createMutationQuery(
+                                    "update FoodMealJournal e set e.servingSize = :servingSize where e.id = :entryId")
+                            .setParameter("servingSize", update.getValue())
+                            .setParameter("entryId", update.getKey())
+                            .executeUpdate();
+                }
+
+                for (Map.Entry<Long, String> update : changes.getFoodNameUpdates().entrySet()) {
+                    session.createMutationQuery(
+                                    "update FoodMealJournal e set e.foodName = :foodName where e.id = :entryId")
+                            .setParameter("foodName", update.getValue())
+                            .setParameter("entryId", update.getKey())
+                            .executeUpdate();
+                }
+
+                if (!changes.getRemovedEntryIds().isEmpty()) {
+                    session.createMutationQuery("delete from FoodMealJournal e where e.id in (:entryIds)")
+                            .setParameterList("entryIds", changes.getRemovedEntryIds())
+                            .executeUpdate();
+                }
+
+                linkCatalogFoods(session, changes.getAddedEntries());
+                for (FoodMealJournal entry : changes.getAddedEntries()) {
+                    session.persist(entry);
+                }
+
+                for (LocalDate day : changes.getAffectedDays()) {
+                    summaryDao.refreshDay(session, changes.getUserId(), day);
+                }
+
+                transaction.commit();
+            } catch (RuntimeException e) {
+                logger.error("Rolling back update of meal {}", changes.getMealId(), e);
+                transaction.rollback();
+                throw e;
             }
 
-            return result;
+            logger.debug("Applied {}", changes);
+        }
+    }
+
+    /**
+     * Points entries with new foods at the matching food catalog rows, inserting only foods
+     * the catalog does not hold yet.
+     *
+     * @param session an open session with an active transaction
+     * @param entries journal entries whose foods may be transient
+     */
+    private void linkCatalogFoods(Session session, Collection<FoodMealJournal> entries) {
+        Set<Food> newFoods = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (FoodMealJournal entry : entries) {
+            if (entry.getFood().getId() == null) {
+                newFoods.add(entry.getFood());
+            }
+        }
+        if (newFoods.isEmpty()) {
+            return;
+        }
+
+        Map<String, Food> catalog = foodDao.findOrInsert(session, newFoods);
+        for (FoodMealJournal entry : entries) {
+            if (newFoods.contains(entry.getFood())) {
+                entry.setFood(catalog.get(entry.getFood().getContentHash()));
+            }
+        }
+    }
+
+    /**
+     * Deletes a meal and its journal entries, and refreshes that day's nutrition totals,
+     * in one session and one transaction. Favorites of the meal are removed by the database cascade.
+     *
+     * @param meal the meal to delete (only its ID, owner and time eaten are used)
+     */
+    public void deleteWithEntries(Meal meal) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                session.createMutationQuery("delete from FoodMealJournal e where e.meal.id = :mealId")
+                        .setParameter("mealId", meal.getId())
+                        .executeUpdate();
+                session.createMutationQuery("delete from Meal m where m.id = :mealId")
+                        .setParameter("mealId", meal.getId())
+                        .executeUpdate();
+                summaryDao.refreshDay(session, meal.getUser().getId(), meal.getTimeEaten().toLocalDate());
+                transaction.commit();
+            } catch (RuntimeException e) {
+                logger.error("Rolling back delete of meal {}", meal.getId(), e);
+                transaction.rollback();
+                throw e;
+            }
+            logger.debug("Deleted meal {} with its entries", meal.getId());
         }
     }
 }
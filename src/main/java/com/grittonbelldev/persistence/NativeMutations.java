@@ -0,0 +1,36 @@
+package com.grittonbelldev.persistence;
+
+import org.hibernate.Session;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.SynchronizeableQuery;
+
+/**
+ * Creates native SQL writes that declare the tables they change.
+ *
+ * <p>Hibernate cannot tell which tables a native statement writes, so unless it is told it
+ * evicts every second-level cache region when the statement runs. Declaring the tables
+ * limits the eviction to entities mapped to them; a write to a table that no cached entity
+ * uses leaves the cache alone.</p>
+ */
+final class NativeMutations {
+
+    private NativeMutations() {}
+
+    /**
+     * Creates a native insert, update or delete.
+     *
+     * @param session an open session
+     * @param sql the SQL statement
+     * @param tables every table the statement writes
+     * @return the query, ready for parameters
+     */
+    static MutationQuery create(Session session, String sql, String... tables) {
+        MutationQuery query = session.createNativeMutationQuery(sql);
+        // Hibernate's native queries are synchronizeable; the MutationQuery view just doesn't expose it
+        SynchronizeableQuery synchronizeable = (SynchronizeableQuery) query;
+        for (String table : tables) {
+            synchronizeable.addSynchronizedQuerySpace(table);
+        }
+        return query;
+    }
+}
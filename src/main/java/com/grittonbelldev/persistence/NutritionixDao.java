@@ -3,23 +3,35 @@ package com.grittonbelldev.persistence;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.grittonbelldev.dto.nutritionix.BrandedItem;
 import com.grittonbelldev.dto.nutritionix.CommonItem;
 import com.grittonbelldev.dto.nutritionix.FoodResponse;
 import com.grittonbelldev.dto.nutritionix.NutritionixSearchResponseDto;
+import com.grittonbelldev.util.Bulkhead;
+import com.grittonbelldev.util.CircuitBreaker;
+import com.grittonbelldev.util.Futures;
+import com.grittonbelldev.util.UpstreamUnavailableException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import javax.ws.rs.ProcessingException;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * DAO for interacting with the Nutritionix Track API.
@@ -28,39 +40,130 @@ import java.util.Map;
  * branded/common food filtering, item lookups by ID, and natural-language nutrient breakdowns.</p>
  *
  * <p>Handles request header injection, response validation, error propagation,
- * and object mapping using Jackson.</p>
+ * and object mapping using Jackson. The client collects each response body into a byte
+ * array without holding a thread, and a reusable {@link ObjectReader} per result type
+ * parses the bytes directly. The body is only copied into a String when debug logging
+ * is on.</p>
+ *
+ * <p>One instance is meant to live for the whole application. It owns a single
+ * {@link HttpClient}, which keeps connections to Nutritionix alive and reuses them, so
+ * the TCP and TLS handshakes are paid once rather than on every search keystroke.
+ * Call {@link #close()} on shutdown to stop the client's worker threads.</p>
+ *
+ * <p>Every call has an {@code ...Async} variant that returns at once with a
+ * {@link CompletableFuture}. The request is sent without blocking, and the response is
+ * parsed on one of the client's worker threads, so the caller's thread is free while
+ * Nutritionix is answering. The blocking methods wait on the same future.</p>
+ *
+ * <p>Each endpoint is guarded so a slow or failing Nutritionix cannot tie up the request
+ * threads the journal endpoints depend on:</p>
+ * <ul>
+ *   <li>a deadline on every request, covering the headers and the whole body (instant search
+ *       is capped lower than the read timeout, since a late type-ahead answer is useless);</li>
+ *   <li>a {@link Bulkhead} limiting concurrent calls, refusing extra callers at once;</li>
+ *   <li>a {@link CircuitBreaker} that opens after repeated errors or slow calls and then
+ *       refuses calls for a while.</li>
+ * </ul>
+ * <p>Refused calls fail with {@link UpstreamUnavailableException} without touching the network.
+ * 4xx answers other than 429 count as healthy, since the upstream did respond.</p>
  */
-public class NutritionixDao {
+public class NutritionixDao implements AutoCloseable {
 
     private static final Logger logger = LogManager.getLogger(NutritionixDao.class);
 
-    /** Base URL for instant (type-ahead) search. */
-    private static final String INSTANT_URL = "https://trackapi.nutritionix.com/v2/search/instant";
+    /** Root of the Nutritionix Track API. */
+    private static final String BASE_URL = "https://trackapi.nutritionix.com/v2";
+
+    /** Path for instant (type-ahead) search. */
+    private static final String INSTANT_PATH = "/search/instant";
+
+    /** Path for retrieving a single item's detailed information. */
+    private static final String ITEM_PATH = "/search/item";
+
+    /** Path for free-form, natural-language nutrient analysis. */
+    private static final String NATURAL_PATH = "/natural/nutrients";
+
+    /** Connect timeout used when none is configured. */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(3);
 
-    /** Base URL for retrieving a single item's detailed information. */
-    private static final String ITEM_URL = "https://trackapi.nutritionix.com/v2/search/item";
+    /** Per-request response timeout used when none is configured. */
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(10);
 
-    /** Base URL for free-form, natural-language nutrient analysis. */
-    private static final String NATURAL_URL = "https://trackapi.nutritionix.com/v2/natural/nutrients";
+    /** Upper bound on the instant-search deadline. */
+    private static final Duration INSTANT_DEADLINE_CAP = Duration.ofSeconds(3);
 
+    /** Concurrent calls allowed per endpoint. */
+    private static final int INSTANT_MAX_CONCURRENT = 20;
+    private static final int ITEM_MAX_CONCURRENT = 10;
+    private static final int NATURAL_MAX_CONCURRENT = 10;
+
+    /** Consecutive failures that open an endpoint's circuit, and how long it stays open. */
+    private static final int BREAKER_FAILURE_THRESHOLD = 5;
+    private static final Duration BREAKER_OPEN_DURATION = Duration.ofSeconds(30);
+
+    // Configured once and shared; ObjectMapper is thread-safe after configuration
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // Immutable readers with their deserializers resolved once, one per response type
+    private static final ObjectReader SEARCH_READER = MAPPER.readerFor(NutritionixSearchResponseDto.class);
+    private static final ObjectReader FOOD_READER = MAPPER.readerFor(FoodResponse.class);
+
+    private final String baseUrl;
     private final String appId;
     private final String appKey;
-    private final Client client = ClientBuilder.newClient();
-    private final ObjectMapper mapper;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final Guard instantGuard;
+    private final Guard itemGuard;
+    private final Guard naturalGuard;
 
     /**
-     * Constructs a DAO for Nutritionix with the required application credentials.
+     * Constructs a DAO for Nutritionix with the required application credentials
+     * and the default timeouts.
      *
      * @param appId the Nutritionix App ID
      * @param appKey the Nutritionix App Key
      */
     public NutritionixDao(String appId, String appKey) {
+        this(appId, appKey, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Constructs a DAO for Nutritionix with the given credentials and timeouts.
+     *
+     * @param appId the Nutritionix App ID
+     * @param appKey the Nutritionix App Key
+     * @param connectTimeout how long to wait for a new connection to be established
+     * @param readTimeout how long to wait for a response once a request is sent
+     */
+    public NutritionixDao(String appId, String appKey, Duration connectTimeout, Duration readTimeout) {
+        this(BASE_URL, appId, appKey, connectTimeout, readTimeout);
+    }
+
+    /**
+     * Constructs a DAO against an arbitrary API root, e.g. a local stub server in tests.
+     */
+    NutritionixDao(String baseUrl, String appId, String appKey, Duration connectTimeout, Duration readTimeout) {
+        this.baseUrl = baseUrl;
         this.appId = appId;
         this.appKey = appKey;
+        Duration instantDeadline = readTimeout.compareTo(INSTANT_DEADLINE_CAP) < 0 ? readTimeout : INSTANT_DEADLINE_CAP;
+        this.instantGuard = new Guard("instant search", instantDeadline, INSTANT_MAX_CONCURRENT);
+        this.itemGuard = new Guard("fetch", readTimeout, ITEM_MAX_CONCURRENT);
+        this.naturalGuard = new Guard("natural nutrients", readTimeout, NATURAL_MAX_CONCURRENT);
 
-        // Configure Jackson to ignore unknown fields in JSON
-        this.mapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        // Own the worker threads so they can be stopped when the application is undeployed
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "nutritionix-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
     }
 
     /**
@@ -70,37 +173,24 @@ public class NutritionixDao {
      *
      * @param query the search term (may be null)
      * @return the search result DTO
+     * @throws UpstreamUnavailableException if the call is refused by the circuit breaker or bulkhead
      * @throws RuntimeException if the HTTP request fails or JSON cannot be parsed
      */
     public NutritionixSearchResponseDto searchInstant(String query) {
-        WebTarget target = client.target(INSTANT_URL)
-                .queryParam("query", query == null ? "" : query);
-
-        Response resp = null;
-        try {
-            resp = target.request(MediaType.APPLICATION_JSON)
-                    .header("x-app-id", appId)
-                    .header("x-app-key", appKey)
-                    .get();
-
-            if (resp.getStatus() != 200) {
-                throw new RuntimeException(
-                        "Nutritionix instant search failed: HTTP " +
-                                resp.getStatus() + " " + resp.getStatusInfo().getReasonPhrase()
-                );
-            }
-
-            String json = resp.readEntity(String.class);
-            logger.debug("Nutritionix instant search JSON: {}", json);
-            return mapper.readValue(json, NutritionixSearchResponseDto.class);
+        return Futures.join(searchInstantAsync(query));
+    }
 
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to parse Nutritionix instant search JSON", e);
-        } catch (ProcessingException e) {
-            throw new RuntimeException("Error calling Nutritionix instant search API", e);
-        } finally {
-            if (resp != null) resp.close();
-        }
+    /**
+     * Starts an instant (type-ahead) search without blocking the calling thread.
+     *
+     * @param query the search term (may be null)
+     * @return a future completing with the search result DTO, or failing as
+     *         {@link #searchInstant(String)} would throw
+     */
+    public CompletableFuture<NutritionixSearchResponseDto> searchInstantAsync(String query) {
+        String encoded = URLEncoder.encode(query == null ? "" : query, StandardCharsets.UTF_8);
+        HttpRequest request = newRequest(instantGuard, INSTANT_PATH + "?query=" + encoded).GET().build();
+        return sendAsync(instantGuard, request, SEARCH_READER);
     }
 
     /**
@@ -128,37 +218,24 @@ public class NutritionixDao {
      *
      * @param nixItemId the Nutritionix item ID
      * @return a FoodResponse containing nutritional data
+     * @throws UpstreamUnavailableException if the call is refused by the circuit breaker or bulkhead
      * @throws RuntimeException if the request fails or response is malformed
      */
     public FoodResponse fetchById(String nixItemId) {
-        WebTarget target = client.target(ITEM_URL)
-                .queryParam("nix_item_id", nixItemId);
-
-        Response resp = null;
-        try {
-            resp = target.request(MediaType.APPLICATION_JSON)
-                    .header("x-app-id", appId)
-                    .header("x-app-key", appKey)
-                    .get();
-
-            if (resp.getStatus() != 200) {
-                throw new RuntimeException(
-                        "Nutritionix fetch failed: HTTP " +
-                                resp.getStatus() + " " + resp.getStatusInfo().getReasonPhrase()
-                );
-            }
-
-            String json = resp.readEntity(String.class);
-            logger.debug("Nutritionix fetch-by-id JSON: {}", json);
-            return mapper.readValue(json, FoodResponse.class);
+        return Futures.join(fetchByIdAsync(nixItemId));
+    }
 
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to parse Nutritionix fetch-by-id JSON", e);
-        } catch (ProcessingException e) {
-            throw new RuntimeException("Error calling Nutritionix fetch-by-id API", e);
-        } finally {
-            if (resp != null) resp.close();
-        }
+    /**
+     * Starts an item lookup by Nutritionix ID without blocking the calling thread.
+     *
+     * @param nixItemId the Nutritionix item ID
+     * @return a future completing with the item's FoodResponse, or failing as
+     *         {@link #fetchById(String)} would throw
+     */
+    public CompletableFuture<FoodResponse> fetchByIdAsync(String nixItemId) {
+        String encoded = URLEncoder.encode(nixItemId, StandardCharsets.UTF_8);
+        HttpRequest request = newRequest(itemGuard, ITEM_PATH + "?nix_item_id=" + encoded).GET().build();
+        return sendAsync(itemGuard, request, FOOD_READER);
     }
 
     /**
@@ -166,40 +243,186 @@ public class NutritionixDao {
      *
      * @param query a description such as "1 banana" or "2 eggs and toast"
      * @return a FoodResponse object containing parsed nutrient data
+     * @throws UpstreamUnavailableException if the call is refused by the circuit breaker or bulkhead
      * @throws RuntimeException if the HTTP call fails or the response cannot be parsed
      */
     public FoodResponse naturalNutrients(String query) {
-        WebTarget target = client.target(NATURAL_URL);
+        return Futures.join(naturalNutrientsAsync(query));
+    }
 
+    /**
+     * Starts a natural-language nutrient analysis without blocking the calling thread.
+     *
+     * @param query a description such as "1 banana" or "2 eggs and toast"
+     * @return a future completing with the parsed nutrient data, or failing as
+     *         {@link #naturalNutrients(String)} would throw
+     */
+    public CompletableFuture<FoodResponse> naturalNutrientsAsync(String query) {
         Map<String, String> body = new HashMap<>();
         body.put("query", query == null ? "" : query);
 
-        Response resp = null;
+        String payload;
         try {
-            String payload = mapper.writeValueAsString(body);
-
-            resp = target.request(MediaType.APPLICATION_JSON)
-                    .header("x-app-id", appId)
-                    .header("x-app-key", appKey)
-                    .post(Entity.json(payload));
-
-            if (resp.getStatus() != 200) {
-                throw new RuntimeException(
-                        "Nutritionix natural nutrients failed: HTTP " +
-                                resp.getStatus() + " " + resp.getStatusInfo().getReasonPhrase()
-                );
+            payload = MAPPER.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Failed to build Nutritionix natural nutrients request", e));
+        }
+
+        HttpRequest request = newRequest(naturalGuard, NATURAL_PATH)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+        return sendAsync(naturalGuard, request, FOOD_READER);
+    }
+
+    /**
+     * Stops the HTTP client's worker threads. Idle pooled connections are released
+     * once the client is no longer referenced.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        logger.info("Nutritionix HTTP client closed.");
+    }
+
+    /**
+     * Gets the circuit breaker state of each endpoint.
+     *
+     * @return the states, keyed by endpoint name
+     */
+    public Map<String, CircuitBreaker.State> circuitStates() {
+        return Map.of(
+                instantGuard.operation, instantGuard.breaker.getState(),
+                itemGuard.operation, itemGuard.breaker.getState(),
+                naturalGuard.operation, naturalGuard.breaker.getState());
+    }
+
+    /**
+     * Starts a request to an API path with the credential headers and the endpoint's deadline applied.
+     *
+     * @param guard the endpoint's guard, which supplies the deadline
+     * @param pathAndQuery the path below the API root, including any query string
+     * @return a request builder for the caller to finish
+     */
+    private HttpRequest.Builder newRequest(Guard guard, String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(guard.deadline)
+                .header("Accept", "application/json")
+                .header("x-app-id", appId)
+                .header("x-app-key", appKey);
+    }
+
+    /**
+     * Sends a request through the endpoint's bulkhead and circuit breaker without waiting
+     * for the answer.
+     *
+     * <p>The bulkhead slot is held until the response has been parsed, so it counts calls
+     * in flight rather than threads waiting. The breaker is told the outcome at the same
+     * point. The request's own timeout only covers the wait for headers, so the exchange as
+     * a whole is also bounded by the deadline: a server that stalls mid-body fails the call
+     * as a timeout instead of holding the slot.</p>
+     *
+     * @param guard the endpoint's guard
+     * @param request the request to send
+     * @param reader the reader for the expected DTO type
+     * @return a future completing with the mapped response; it fails with
+     *         {@link UpstreamUnavailableException} if the bulkhead is full or the circuit is open,
+     *         and with a RuntimeException if the call fails, returns a non-200 status, or cannot be parsed
+     */
+    private <T> CompletableFuture<T> sendAsync(Guard guard, HttpRequest request, ObjectReader reader) {
+        if (!guard.bulkhead.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new UpstreamUnavailableException("Too many concurrent Nutritionix " + guard.operation + " calls"));
+        }
+        if (!guard.breaker.tryAcquire()) {
+            guard.bulkhead.release();
+            return CompletableFuture.failedFuture(
+                    new UpstreamUnavailableException("Nutritionix " + guard.operation + " circuit is open"));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .orTimeout(guard.deadline.toMillis(), TimeUnit.MILLISECONDS)
+                    .handle((resp, error) -> read(resp, error, reader, guard.operation));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.whenComplete((result, error) -> {
+            // A 4xx means Nutritionix answered; only errors and slow calls count against the circuit
+            if (error == null || Futures.unwrap(error) instanceof ClientErrorException) {
+                guard.breaker.onSuccess(Duration.ofNanos(System.nanoTime() - start));
+            } else {
+                guard.breaker.onFailure();
             }
+            guard.bulkhead.release();
+        });
+    }
 
-            String json = resp.readEntity(String.class);
-            logger.debug("Nutritionix natural nutrients JSON: {}", json);
-            return mapper.readValue(json, FoodResponse.class);
+    /**
+     * Maps a 200 response body with the given reader. Runs on a client worker thread.
+     *
+     * @param resp the response, or null if the exchange failed
+     * @param error why the exchange failed, or null
+     * @param reader the reader for the expected DTO type
+     * @param operation a short name for the call, used in log and error messages
+     * @return the mapped response
+     * @throws ClientErrorException if Nutritionix rejected the request itself (4xx other than 429)
+     * @throws RuntimeException if the call failed, returned another non-200 status, or cannot be parsed
+     */
+    private <T> T read(HttpResponse<byte[]> resp, Throwable error, ObjectReader reader, String operation) {
+        if (error != null) {
+            throw new RuntimeException("Error calling Nutritionix " + operation + " API", Futures.unwrap(error));
+        }
 
+        int status = resp.statusCode();
+        if (status != 200) {
+            String message = "Nutritionix " + operation + " failed: HTTP " + status;
+            if (status >= 400 && status < 500 && status != 429) {
+                throw new ClientErrorException(message);
+            }
+            throw new RuntimeException(message);
+        }
+        try {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Nutritionix {} JSON: {}", operation, new String(resp.body(), StandardCharsets.UTF_8));
+            }
+            return reader.readValue(resp.body());
         } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to parse Nutritionix natural nutrients JSON", e);
-        } catch (ProcessingException e) {
-            throw new RuntimeException("Error calling Nutritionix natural nutrients API", e);
-        } finally {
-            if (resp != null) resp.close();
+            throw new RuntimeException("Failed to parse Nutritionix " + operation + " JSON", e);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading Nutritionix " + operation + " response", e);
+        }
+    }
+
+    /**
+     * A non-200 answer that says the request was wrong (e.g. an unknown item), not that
+     * Nutritionix is unhealthy.
+     */
+    private static final class ClientErrorException extends RuntimeException {
+        private ClientErrorException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Deadline, bulkhead and circuit breaker for one endpoint.
+     */
+    private static final class Guard {
+        private final String operation;
+        private final Duration deadline;
+        private final Bulkhead bulkhead;
+        private final CircuitBreaker breaker;
+
+        private Guard(String operation, Duration deadline, int maxConcurrentCalls) {
+            this.operation = operation;
+            this.deadline = deadline;
+            this.bulkhead = new Bulkhead("nutritionix " + operation, maxConcurrentCalls);
+            // A call using more than half its deadline counts against the circuit
+            this.breaker = new CircuitBreaker("nutritionix " + operation, BREAKER_FAILURE_THRESHOLD,
+                    deadline.dividedBy(2), BREAKER_OPEN_DURATION, Clock.systemUTC());
         }
     }
 }
@@ -5,6 +5,7 @@ import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
 
 /**
  * This file provides a SessionFactory for use with DAOs using Hibernate
@@ -14,6 +15,12 @@ import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
  */
 public class SessionFactoryProvider {
 
+    /** Number of statements Hibernate groups into a single JDBC batch. */
+    public static final int JDBC_BATCH_SIZE = 25;
+
+    /** JCache provider backing the second-level cache; its regions are sized in application.conf. */
+    private static final String CACHE_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
     private static SessionFactory sessionFactory;
     private static StandardServiceRegistry registry;
 
@@ -22,8 +29,20 @@ public class SessionFactoryProvider {
      */
     public static void createSessionFactory() {
 
-        // Create registry
-        registry = new StandardServiceRegistryBuilder().configure().build();
+        // Create registry. Batching and caching defaults are applied first so hibernate.cfg.xml can still override them.
+        // Statistics feed the cache hit/miss counters under /api/metrics; the per-session log line is left off.
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, JDBC_BATCH_SIZE)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.ORDER_UPDATES, true)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, true)
+                .applySetting(AvailableSettings.CACHE_REGION_FACTORY, "jcache")
+                .applySetting("hibernate.javax.cache.provider", CACHE_PROVIDER)
+                .applySetting("hibernate.javax.cache.missing_cache_strategy", "create-warn")
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .applySetting(AvailableSettings.LOG_SESSION_METRICS, false)
+                .configure()
+                .build();
 
         // Create MetadataSources
         MetadataSources sources = new MetadataSources(registry);
@@ -1,13 +1,14 @@
 package com.grittonbelldev.service;
 
-import com.grittonbelldev.dto.FoodEntryDto;
 import com.grittonbelldev.dto.FoodResponseDto;
 import com.grittonbelldev.dto.MealResponseDto;
 import com.grittonbelldev.entity.FavoriteItem;
 import com.grittonbelldev.entity.Food;
 import com.grittonbelldev.entity.Meal;
 import com.grittonbelldev.entity.User;
+import com.grittonbelldev.persistence.FavoriteDao;
 import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.persistence.MealDao;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -31,6 +32,8 @@ public class FavoriteService {
     private final GenericDAO<Meal>         mealDao = new GenericDAO<>(Meal.class);
     private final GenericDAO<Food>         foodDao = new GenericDAO<>(Food.class);
     private final GenericDAO<User>         userDao = new GenericDAO<>(User.class);
+    private final MealDao                  mealGraphDao = new MealDao();
+    private final FavoriteDao              favoriteQueryDao = new FavoriteDao();
 
     /**
      * Marks a meal as favorite for the specified user.
@@ -114,46 +117,7 @@ public class FavoriteService {
      */
     public List<MealResponseDto> listFavoriteMeals(Long userId) {
         logger.debug("Fetching favorite meals for userId: {}", userId);
-        List<FavoriteItem> found = favDao.getByPropertyEqual("user.id", userId);
-        return found.stream()
-                .filter(fav -> fav.getMeal() != null)
-                .map(fav -> {
-                    Meal m = fav.getMeal();
-                    MealResponseDto dto = new MealResponseDto();
-                    dto.setId(m.getId());
-                    dto.setMealName(m.getMealName());
-                    dto.setTimeEaten(m.getTimeEaten());
-
-                    // Map associated food entries to DTOs
-                    List<FoodEntryDto> foods = m.getFoodMealEntries().stream()
-                            .map(entry -> {
-                                Food f = entry.getFood();
-                                FoodEntryDto fe = new FoodEntryDto();
-                                fe.setFoodId(f.getId());
-                                fe.setFoodName(f.getFoodName());
-                                fe.setCalories(f.getCalories());
-                                fe.setProtein(f.getProtein());
-                                fe.setCarbs(f.getCarbs());
-                                fe.setFat(f.getFat());
-                                fe.setCholesterol(f.getCholesterol());
-                                fe.setSodium(f.getSodium());
-                                fe.setFiber(f.getFiber());
-                                fe.setSugar(f.getSugar());
-                                fe.setAddedSugar(f.getAddedSugar());
-                                fe.setVitaminD(f.getVitaminD());
-                                fe.setCalcium(f.getCalcium());
-                                fe.setIron(f.getIron());
-                                fe.setPotassium(f.getPotassium());
-                                fe.setNotes(f.getNotes());
-                                fe.setServingSize(entry.getServingSize());
-                                return fe;
-                            })
-                            .collect(Collectors.toList());
-
-                    dto.setFoods(foods);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return mealGraphDao.findFavoriteMealDtos(userId);
     }
 
     /**
@@ -164,30 +128,6 @@ public class FavoriteService {
      */
     public List<FoodResponseDto> listFavoriteFoods(Long userId) {
         logger.debug("Fetching favorite foods for userId: {}", userId);
-        List<FavoriteItem> found = favDao.getByPropertyEqual("user.id", userId);
-        return found.stream()
-                .filter(fav -> fav.getFood() != null)
-                .map(fav -> {
-                    Food f = fav.getFood();
-                    FoodResponseDto dto = new FoodResponseDto();
-                    dto.setId(f.getId());
-                    dto.setFoodName(f.getFoodName());
-                    dto.setCalories(f.getCalories());
-                    dto.setProtein(f.getProtein());
-                    dto.setCarbs(f.getCarbs());
-                    dto.setFat(f.getFat());
-                    dto.setCholesterol(f.getCholesterol());
-                    dto.setSodium(f.getSodium());
-                    dto.setFiber(f.getFiber());
-                    dto.setSugar(f.getSugar());
-                    dto.setAddedSugar(f.getAddedSugar());
-                    dto.setVitaminD(f.getVitaminD());
-                    dto.setCalcium(f.getCalcium());
-                    dto.setIron(f.getIron());
-                    dto.setPotassium(f.getPotassium());
-                    dto.setNotes(f.getNotes());
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return favoriteQueryDao.findFavoriteFoodDtos(userId);
     }
 }
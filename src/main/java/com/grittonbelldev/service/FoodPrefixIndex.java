@@ -0,0 +1,235 @@
+package com.grittonbelldev.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.grittonbelldev.dto.CacheStatsDto;
+import com.grittonbelldev.dto.nutritionix.BrandedItem;
+import com.grittonbelldev.dto.nutritionix.CommonItem;
+import com.grittonbelldev.dto.nutritionix.NutritionixSearchResponseDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory type-ahead index over the items of recent Nutritionix search results.
+ *
+ * <p>Type-ahead sends "b", "ba", "ban", "bana"… and each would otherwise be a separate
+ * Nutritionix call. This index remembers the items from earlier search results and answers
+ * a prefix from them when it has enough candidates. Only thin prefixes go upstream. It holds
+ * Nutritionix data only, never foods users logged, so one user's entries cannot surface in
+ * another user's suggestions.</p>
+ *
+ * <p>Each item is indexed under every word of its name, so "bre" finds "banana bread".
+ * Keys are normalized names in a {@link ConcurrentSkipListMap}, which makes a prefix query a
+ * sorted range scan. A local answer is therefore ordered alphabetically by the matching
+ * word, not by Nutritionix relevance, and holds at most {@link #RESULT_LIMIT} common and
+ * {@link #RESULT_LIMIT} branded items; each item is the one Nutritionix returned, with its
+ * photo and IDs.</p>
+ *
+ * <p>An item expires as long after it was last seen in a search result as that result stays
+ * in the search cache, so a local answer is never older than a cached one. When
+ * {@link #MAX_ITEMS} are held, the least recently seen items are dropped first.</p>
+ */
+public class FoodPrefixIndex {
+
+    /** Upper bound on distinct items held, which caps memory. */
+    static final int MAX_ITEMS = 50_000;
+
+    /** Maximum number of common and of branded items returned for one prefix. */
+    static final int RESULT_LIMIT = 20;
+
+    /** Fewest local candidates (common plus branded) needed to answer without Nutritionix. */
+    static final int MIN_LOCAL_RESULTS = 8;
+
+    // Separates the indexed word suffix from the item's identity so keys stay unique
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final NavigableMap<String, CommonItem> common = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, BrandedItem> branded = new ConcurrentSkipListMap<>();
+    // Every indexed item by identity; when one expires or is evicted its words leave the maps
+    private final Cache<String, Indexed> items;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates an empty index.
+     *
+     * @param ttl how long an item is kept after it was last seen in a search result
+     * @param ticker the time source used for expiry
+     */
+    public FoodPrefixIndex(Duration ttl, Ticker ticker) {
+        this.items = Caffeine.newBuilder()
+                .maximumSize(MAX_ITEMS)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .evictionListener((String id, Indexed indexed, RemovalCause cause) -> {
+                    unindex(id, indexed);
+                    evictions.incrementAndGet();
+                })
+                .build();
+    }
+
+    /**
+     * Answers a prefix locally when the index has enough candidates for it.
+     *
+     * @param prefix a normalized search term
+     * @return the matching items, or empty when the caller should ask Nutritionix
+     */
+    public Optional<NutritionixSearchResponseDto> lookup(String prefix) {
+        if (prefix.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<CommonItem> commonMatches = collect(common, prefix);
+        List<BrandedItem> brandedMatches = collect(branded, prefix);
+        if (commonMatches.size() + brandedMatches.size() < MIN_LOCAL_RESULTS) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        hits.incrementAndGet();
+        NutritionixSearchResponseDto result = new NutritionixSearchResponseDto();
+        result.setCommon(commonMatches);
+        result.setBranded(brandedMatches);
+        return Optional.of(result);
+    }
+
+    /**
+     * Returns whatever the index has for a prefix, however few, for use when Nutritionix
+     * cannot be asked.
+     *
+     * @param prefix a normalized search term
+     * @return the matching items; both lists may be empty
+     */
+    public NutritionixSearchResponseDto fallback(String prefix) {
+        NutritionixSearchResponseDto result = new NutritionixSearchResponseDto();
+        result.setCommon(prefix.isEmpty() ? List.of() : collect(common, prefix));
+        result.setBranded(prefix.isEmpty() ? List.of() : collect(branded, prefix));
+        return result;
+    }
+
+    /**
+     * Adds the items of a Nutritionix search result, replacing earlier copies of the same item.
+     *
+     * @param result the search result
+     */
+    public void addAll(NutritionixSearchResponseDto result) {
+        if (result.getCommon() != null) {
+            for (CommonItem item : result.getCommon()) {
+                String name = NutritionixService.normalize(item.getFoodName());
+                add(common, "c:" + name, name, item);
+            }
+        }
+        if (result.getBranded() != null) {
+            for (BrandedItem item : result.getBranded()) {
+                if (item.getNixItemId() == null) {
+                    continue;
+                }
+                String label = item.getBrandNameItemName() != null ? item.getBrandNameItemName() : item.getFoodName();
+                add(branded, "b:" + item.getNixItemId(), NutritionixService.normalize(label), item);
+            }
+        }
+    }
+
+    /**
+     * Returns the index's size and how often it answered a prefix locally.
+     *
+     * @return a statistics snapshot; evictions count expired and size-evicted items
+     */
+    public CacheStatsDto stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+
+        CacheStatsDto dto = new CacheStatsDto();
+        dto.setName("foodPrefixIndex");
+        dto.setSize(items.estimatedSize());
+        dto.setHitCount(hitCount);
+        dto.setMissCount(missCount);
+        dto.setHitRate(requests == 0 ? 1.0 : (double) hitCount / requests);
+        dto.setEvictionCount(evictions.get());
+        return dto;
+    }
+
+    /**
+     * Indexes one item under each word of its name, replacing an earlier copy of the item
+     * and restarting its lifetime.
+     *
+     * @param index the map for the item's kind
+     * @param id identifies the item across results
+     * @param name the normalized name
+     * @param item the item
+     */
+    private <T> void add(NavigableMap<String, T> index, String id, String name, T item) {
+        if (name.isEmpty()) {
+            return;
+        }
+        items.asMap().compute(id, (key, previous) -> {
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            for (int start = 0; start >= 0; start = nextWord(name, start)) {
+                index.put(name.substring(start) + ID_SEPARATOR + key, item);
+            }
+            return new Indexed(index, name);
+        });
+    }
+
+    /**
+     * Removes an item's words from the map they were indexed in.
+     */
+    private static void unindex(String id, Indexed indexed) {
+        for (int start = 0; start >= 0; start = nextWord(indexed.name, start)) {
+            indexed.index.remove(indexed.name.substring(start) + ID_SEPARATOR + id);
+        }
+    }
+
+    private static int nextWord(String name, int start) {
+        int space = name.indexOf(' ', start);
+        return space < 0 ? -1 : space + 1;
+    }
+
+    /**
+     * Collects up to {@link #RESULT_LIMIT} distinct unexpired items with a word starting with the prefix.
+     */
+    private <T> List<T> collect(NavigableMap<String, T> index, String prefix) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        for (Map.Entry<String, T> entry : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            String key = entry.getKey();
+            String id = key.substring(key.indexOf(ID_SEPARATOR) + 1);
+            // An expired item may linger in the map until the cache's next cleanup
+            if (items.getIfPresent(id) == null) {
+                continue;
+            }
+            byId.putIfAbsent(id, entry.getValue());
+            if (byId.size() == RESULT_LIMIT) {
+                break;
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Where an item's words are indexed.
+     */
+    private static final class Indexed {
+        private final NavigableMap<String, ?> index;
+        private final String name;
+
+        private Indexed(NavigableMap<String, ?> index, String name) {
+            this.index = index;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.grittonbelldev.service;
+
+import com.grittonbelldev.dto.GlucoseProfileBucketDto;
+import com.grittonbelldev.dto.GlucoseProfileDto;
+import com.grittonbelldev.dto.GlucoseStatsDto;
+import com.grittonbelldev.persistence.GlucoseAggregate;
+import com.grittonbelldev.persistence.GlucoseReadingDao;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service layer for glucose analytics computed over a user's readings: time-in-range
+ * statistics and the ambulatory glucose profile (AGP).
+ *
+ * <p>Statistics follow the international consensus on CGM time in range: TIR is 70–180 mg/dL,
+ * TBR is below 70 (with below 54 reported separately), TAR is above 180 (with above 250
+ * reported separately), and GMI is estimated from the mean. The database returns sums
+ * and counts in one aggregate query; nothing is loaded row by row.</p>
+ */
+public class GlucoseAnalyticsService {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private final GlucoseReadingDao readingQueryDao = new GlucoseReadingDao();
+
+    // AGP histogram covers 0..600 mg/dL in 1 mg/dL bins, the range CGMs report
+    private static final int MAX_LEVEL = 600;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MIN_BUCKET_MINUTES = 5;
+    private static final int MAX_BUCKET_MINUTES = 240;
+
+    /**
+     * Computes time-in-range and variability statistics for the user's readings in {@code [from, to)}.
+     *
+     * @param userId the ID of the user
+     * @param from inclusive start of the window
+     * @param to exclusive end of the window
+     * @return the statistics for the window
+     * @throws WebApplicationException if from is not before to
+     */
+    public GlucoseStatsDto statsForUser(long userId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            logger.warn("Rejected inverted time range [{}, {})", from, to);
+            throw new WebApplicationException("'from' must be before 'to'", Response.Status.BAD_REQUEST);
+        }
+        logger.info("Computing glucose stats for user {} in [{}, {})", userId, from, to);
+
+        GlucoseAggregate aggregate = readingQueryDao.aggregateForUser(userId, from, to);
+        GlucoseStatsDto stats = new GlucoseStatsDto();
+        stats.setFrom(from);
+        stats.setTo(to);
+        stats.setReadingCount(aggregate.getCount());
+
+        long n = aggregate.getCount();
+        if (n == 0) {
+            logger.debug("No readings for user {} in window", userId);
+            return stats;
+        }
+
+        double mean = aggregate.getSum() / n;
+        stats.setMean(mean);
+        stats.setMin(aggregate.getMin());
+        stats.setMax(aggregate.getMax());
+        stats.setGmi(3.31 + 0.02392 * mean);
+
+        // Sample standard deviation from the running sums; clamp tiny negative rounding error
+        if (n > 1) {
+            double variance = Math.max(0.0, (aggregate.getSumOfSquares() - n * mean * mean) / (n - 1));
+            double sd = Math.sqrt(variance);
+            stats.setStandardDeviation(sd);
+            stats.setCoefficientOfVariation(mean > 0 ? sd / mean * 100.0 : null);
+        }
+
+        stats.setPercentVeryLow(percent(aggregate.getBelow54(), n));
+        stats.setPercentBelowRange(percent(aggregate.getBelow70(), n));
+        stats.setPercentInRange(percent(aggregate.getInRange(), n));
+        stats.setPercentAboveRange(percent(aggregate.getAbove180(), n));
+        stats.setPercentVeryHigh(percent(aggregate.getAbove250(), n));
+
+        logger.debug("User {}: {} readings, mean {}, TIR {}%", userId, n, mean, stats.getPercentInRange());
+        return stats;
+    }
+
+    /**
+     * Builds an ambulatory glucose profile for the user's readings in {@code [from, to)}.
+     *
+     * <p>Readings are streamed from the database and dropped into a 1 mg/dL histogram per
+     * time-of-day slot, so memory is proportional to the number of slots rather than the
+     * number of readings, and nothing is sorted. Levels outside 0–600 mg/dL are clamped
+     * into the end bins.</p>
+     *
+     * @param userId the ID of the user
+     * @param from inclusive start of the window
+     * @param to exclusive end of the window
+     * @param bucketMinutes slot width in minutes; must divide a day evenly
+     * @return the profile, one entry per slot starting at midnight
+     * @throws WebApplicationException if the range is inverted or the slot width is invalid
+     */
+    public GlucoseProfileDto profileForUser(long userId, LocalDateTime from, LocalDateTime to, int bucketMinutes) {
+        if (!from.isBefore(to)) {
+            logger.warn("Rejected inverted time range [{}, {})", from, to);
+            throw new WebApplicationException("'from' must be before 'to'", Response.Status.BAD_REQUEST);
+        }
+        if (bucketMinutes < MIN_BUCKET_MINUTES || bucketMinutes > MAX_BUCKET_MINUTES
+                || MINUTES_PER_DAY % bucketMinutes != 0) {
+            logger.warn("Rejected AGP bucket width {}", bucketMinutes);
+            throw new WebApplicationException(
+                    "bucketMinutes must divide 1440 and be between " + MIN_BUCKET_MINUTES + " and " + MAX_BUCKET_MINUTES,
+                    Response.Status.BAD_REQUEST);
+        }
+        logger.info("Building AGP for user {} in [{}, {}) with {}-minute buckets", userId, from, to, bucketMinutes);
+
+        int bucketCount = MINUTES_PER_DAY / bucketMinutes;
+        int[][] histograms = new int[bucketCount][MAX_LEVEL + 1];
+        long[] counts = new long[bucketCount];
+
+        long total = readingQueryDao.forEachPoint(userId, from, to, (time, level) -> {
+            int bucket = (time.getHour() * 60 + time.getMinute()) / bucketMinutes;
+            int bin = (int) Math.round(Math.min(Math.max(level, 0), MAX_LEVEL));
+            histograms[bucket][bin]++;
+            counts[bucket]++;
+        });
+
+        List<GlucoseProfileBucketDto> buckets = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            GlucoseProfileBucketDto bucket = new GlucoseProfileBucketDto();
+            bucket.setMinuteOfDay(b * bucketMinutes);
+            bucket.setCount(counts[b]);
+            if (counts[b] > 0) {
+                bucket.setP5(percentile(histograms[b], counts[b], 5));
+                bucket.setP25(percentile(histograms[b], counts[b], 25));
+                bucket.setP50(percentile(histograms[b], counts[b], 50));
+                bucket.setP75(percentile(histograms[b], counts[b], 75));
+                bucket.setP95(percentile(histograms[b], counts[b], 95));
+            }
+            buckets.add(bucket);
+        }
+
+        GlucoseProfileDto profile = new GlucoseProfileDto();
+        profile.setFrom(from);
+        profile.setTo(to);
+        profile.setBucketMinutes(bucketMinutes);
+        profile.setReadingCount(total);
+        profile.setBuckets(buckets);
+        logger.debug("AGP for user {} built from {} readings", userId, total);
+        return profile;
+    }
+
+    /**
+     * Finds a nearest-rank percentile in a 1 mg/dL histogram.
+     *
+     * @param histogram reading counts indexed by glucose level
+     * @param count total readings in the histogram (must be positive)
+     * @param p the percentile, 0–100
+     * @return the glucose level at that percentile
+     */
+    private static int percentile(int[] histogram, long count, double p) {
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+        long seen = 0;
+        for (int level = 0; level < histogram.length; level++) {
+            seen += histogram[level];
+            if (seen >= rank) {
+                return level;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    private static double percent(long part, long total) {
+        return part * 100.0 / total;
+    }
+}
@@ -1,17 +1,29 @@
 package com.grittonbelldev.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.grittonbelldev.dto.GlucoseRequestDto;
 import com.grittonbelldev.dto.GlucoseResponseDto;
+import com.grittonbelldev.dto.GlucoseSeriesDto;
+import com.grittonbelldev.dto.PageDto;
 import com.grittonbelldev.entity.GlucoseReading;
 import com.grittonbelldev.entity.User;
 import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.persistence.GlucoseReadingDao;
+import com.grittonbelldev.util.Lttb;
+import com.grittonbelldev.util.PageCursor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service layer for managing GlucoseReading entities.
@@ -27,20 +39,116 @@ public class GlucoseService {
     // DAOs for glucose readings and users
     private final GenericDAO<GlucoseReading> glucoseDao = new GenericDAO<>(GlucoseReading.class);
     private final GenericDAO<User> userDao = new GenericDAO<>(User.class);
+    private final GlucoseReadingDao readingQueryDao = new GlucoseReadingDao();
+
+    // Bounds on the number of points a chart series may ask for
+    private static final int MIN_SERIES_POINTS = 3;
+    private static final int MAX_SERIES_POINTS = 5000;
 
     /**
-     * Retrieves all glucose readings associated with the given user ID.
+     * Returns one page of the user's glucose readings, newest first, optionally limited
+     * to readings taken in {@code [from, to)}.
      *
      * @param userId the ID of the user
-     * @return a list of GlucoseResponseDto instances
+     * @param from inclusive start of the time range, or null
+     * @param to exclusive end of the time range, or null
+     * @param cursor the opaque cursor from the previous page, or null for the first page
+     * @param limit the requested page size, or null for the default
+     * @return the page of readings and the cursor for the next one
+     * @throws WebApplicationException if the cursor is malformed or the range is inverted
      */
-    public List<GlucoseResponseDto> listAllForUser(long userId) {
-        logger.info("Fetching all glucose readings for user {}", userId);
-        List<GlucoseResponseDto> results = glucoseDao.getByPropertyEqual("user.id", userId).stream()
-                .map(this::toResponseDto)
-                .collect(Collectors.toList());
-        logger.debug("Found {} readings for user {}", results.size(), userId);
-        return results;
+    public PageDto<GlucoseResponseDto> listPageForUser(long userId, LocalDateTime from, LocalDateTime to,
+                                                       String cursor, Integer limit) {
+        validateRange(from, to);
+        PageCursor after = decodeCursor(cursor);
+        int pageSize = PageCursor.resolveLimit(limit);
+        logger.info("Listing glucose readings for user {} in [{}, {}) (limit {}, after {})",
+                userId, from, to, pageSize, cursor);
+
+        // Fetch one extra reading to learn whether another page exists
+        List<GlucoseResponseDto> fetched = readingQueryDao.findPageForUser(userId, from, to, after, pageSize + 1);
+        return PageDto.of(fetched, pageSize, GlucoseResponseDto::getMeasurementTime, GlucoseResponseDto::getId);
+    }
+
+    /**
+     * Returns the user's readings in {@code [from, to)} reduced to at most {@code points}
+     * points with Largest-Triangle-Three-Buckets, for chart rendering.
+     *
+     * <p>Only the time and level columns are streamed from the database, into primitive
+     * arrays; no DTO is created for a raw reading. Downsampling keeps the first and last
+     * readings and the visually significant highs and lows in between.</p>
+     *
+     * @param userId the ID of the user
+     * @param from inclusive start of the window
+     * @param to exclusive end of the window
+     * @param points the maximum number of points to return
+     * @return the downsampled series
+     * @throws WebApplicationException if the range is inverted
+     */
+    public GlucoseSeriesDto getSeriesForUser(long userId, LocalDateTime from, LocalDateTime to, int points) {
+        validateRange(from, to);
+        int threshold = Math.min(Math.max(points, MIN_SERIES_POINTS), MAX_SERIES_POINTS);
+        logger.info("Building glucose series for user {} in [{}, {}) with up to {} points", userId, from, to, threshold);
+
+        PointBuffer raw = new PointBuffer();
+        readingQueryDao.forEachPoint(userId, from, to, raw::add);
+
+        int[] kept = Lttb.downsample(raw.times, raw.values, raw.size, threshold);
+        LocalDateTime[] times = new LocalDateTime[kept.length];
+        double[] values = new double[kept.length];
+        for (int i = 0; i < kept.length; i++) {
+            times[i] = LocalDateTime.ofEpochSecond(raw.times[kept[i]], 0, ZoneOffset.UTC);
+            values[i] = raw.values[kept[i]];
+        }
+
+        GlucoseSeriesDto series = new GlucoseSeriesDto();
+        series.setFrom(from);
+        series.setTo(to);
+        series.setRawCount(raw.size);
+        series.setTimes(times);
+        series.setValues(values);
+        logger.debug("Downsampled {} readings to {} points for user {}", raw.size, kept.length, userId);
+        return series;
+    }
+
+    /**
+     * Writes every reading for the user to the output stream, oldest first, without
+     * materializing the list in memory.
+     *
+     * <p>Each row is serialized through the supplied writer as soon as it is read from the
+     * database. {@code json} produces a single JSON array; {@code ndjson} produces one JSON
+     * object per line.</p>
+     *
+     * @param userId the ID of the user
+     * @param ndjson true for newline-delimited JSON, false for a JSON array
+     * @param writer a Jackson writer for GlucoseResponseDto
+     * @param out the response stream; it is flushed but left to the caller to close
+     * @throws IOException if writing to the stream fails
+     */
+    public void exportForUser(long userId, boolean ndjson, ObjectWriter writer, OutputStream out) throws IOException {
+        logger.info("Exporting glucose readings for user {} as {}", userId, ndjson ? "ndjson" : "json");
+
+        // Don't flush after every value; the generator's buffer decides when bytes hit the wire
+        ObjectWriter rowWriter = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = rowWriter.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            long count;
+            if (ndjson) {
+                // Newlines separate the values; suppress the default space between root values
+                generator.setRootValueSeparator(null);
+                count = readingQueryDao.forEachReading(userId, reading -> {
+                    rowWriter.writeValue(generator, reading);
+                    generator.writeRaw('\n');
+                });
+            } else {
+                generator.writeStartArray();
+                count = readingQueryDao.forEachReading(userId, reading -> rowWriter.writeValue(generator, reading));
+                generator.writeEndArray();
+            }
+            generator.flush();
+            logger.debug("Exported {} readings for user {}", count, userId);
+        }
     }
 
     /**
@@ -137,6 +245,36 @@ public class GlucoseService {
         logger.debug("Deleted reading {} for user {}", readingId, userId);
     }
 
+    /**
+     * Rejects a time range whose start is not before its end.
+     *
+     * @param from inclusive start, or null
+     * @param to exclusive end, or null
+     * @throws WebApplicationException if both bounds are set and from is not before to
+     */
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            logger.warn("Rejected inverted time range [{}, {})", from, to);
+            throw new WebApplicationException("'from' must be before 'to'", Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Decodes a client-supplied page cursor.
+     *
+     * @param cursor the opaque cursor, or null
+     * @return the decoded position, or null for the first page
+     * @throws WebApplicationException if the cursor is malformed
+     */
+    private PageCursor decodeCursor(String cursor) {
+        try {
+            return PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected malformed reading cursor: {}", cursor);
+            throw new WebApplicationException("Invalid cursor", Response.Status.BAD_REQUEST);
+        }
+    }
+
     /**
      * Maps a GlucoseReading entity to a GlucoseResponseDto.
      *
@@ -153,4 +291,24 @@ public class GlucoseService {
         logger.trace("Mapped reading {} to DTO", r.getId());
         return dto;
     }
+
+    /**
+     * Growable pair of primitive arrays holding (epoch second, level) points.
+     * Measurement times are local, so UTC is used only as a fixed offset for the math.
+     */
+    private static final class PointBuffer {
+        private long[] times = new long[1024];
+        private double[] values = new double[1024];
+        private int size;
+
+        private void add(LocalDateTime time, double value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            times[size] = time.toEpochSecond(ZoneOffset.UTC);
+            values[size] = value;
+            size++;
+        }
+    }
 }
@@ -1,20 +1,36 @@
 package com.grittonbelldev.service;
 
+import com.grittonbelldev.dto.DailyNutritionDto;
 import com.grittonbelldev.dto.FoodEntryDto;
 import com.grittonbelldev.dto.MealRequestDto;
 import com.grittonbelldev.dto.MealResponseDto;
+import com.grittonbelldev.dto.PageDto;
 import com.grittonbelldev.entity.Food;
 import com.grittonbelldev.entity.FoodMealJournal;
 import com.grittonbelldev.entity.Meal;
 import com.grittonbelldev.entity.User;
+import com.grittonbelldev.persistence.DailyNutritionSummaryDao;
 import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.persistence.MealChangeSet;
 import com.grittonbelldev.persistence.MealDao;
+import com.grittonbelldev.util.FoodContentHash;
+import com.grittonbelldev.util.PageCursor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -29,27 +45,30 @@ public class MealService {
     private final Logger logger = LogManager.getLogger(this.getClass());
 
 
-    // DAOs for working with Meal, FoodMealJournal, Food, and User entities
-    private final GenericDAO<Meal> mealDao = new GenericDAO<>(Meal.class);
-    private final GenericDAO<FoodMealJournal> fmjDao = new GenericDAO<>(FoodMealJournal.class);
+    // DAOs for working with Food and User entities
     private final GenericDAO<Food> foodDao = new GenericDAO<>(Food.class);
     private final GenericDAO<User> userDao = new GenericDAO<>(User.class);
 
     private final MealDao customMealDao = new MealDao();
+    private final DailyNutritionSummaryDao dailySummaryDao = new DailyNutritionSummaryDao();
 
     /**
-     * Returns a list of all meals owned by the given user.
+     * Returns one page of the user's meals, newest first.
      *
      * @param userId the ID of the user whose meals should be listed
-     * @return a list of MealResponseDto representing each meal
+     * @param cursor the opaque cursor from the previous page, or null for the first page
+     * @param limit the requested page size, or null for the default
+     * @return the page of meals and the cursor for the next one
+     * @throws WebApplicationException if the cursor is malformed
      */
-    public List<MealResponseDto> listAllForUser(long userId) {
-        logger.info("Listing all meals for user {}", userId);
-        List<MealResponseDto> results = mealDao.getByPropertyEqual("user.id", userId).stream()
-                .map(this::toResponseDto)
-                .collect(Collectors.toList());
-        logger.debug("Found {} meals for user {}", results.size(), userId);
-        return results;
+    public PageDto<MealResponseDto> listPageForUser(long userId, String cursor, Integer limit) {
+        PageCursor after = decodeCursor(cursor);
+        int pageSize = PageCursor.resolveLimit(limit);
+        logger.info("Listing meals for user {} (limit {}, after {})", userId, pageSize, cursor);
+
+        // Fetch one extra meal to learn whether another page exists
+        List<MealResponseDto> fetched = customMealDao.findMealPageForUser(userId, after, pageSize + 1);
+        return PageDto.of(fetched, pageSize, MealResponseDto::getTimeEaten, MealResponseDto::getId);
     }
 
     /**
@@ -62,18 +81,23 @@ public class MealService {
      */
     public MealResponseDto findForUser(long userId, long mealId) {
         logger.info("Fetching meal {} for user {}", mealId, userId);
-        Meal meal = mealDao.getById(mealId);
-        if (meal == null || meal.getUser() == null || meal.getUser().getId() != userId) {
+        MealResponseDto meal = customMealDao.findMealDtoForUser(userId, mealId);
+        if (meal == null) {
             logger.warn("Meal {} not found or does not belong to user {}", mealId, userId);
             throw new WebApplicationException("Meal not found", Response.Status.NOT_FOUND);
         }
         logger.debug("Meal {} found for user {}", mealId, userId);
-        return toResponseDto(meal);
+        return meal;
     }
 
     /**
      * Creates a new meal associated with the given user and adds any listed food items.
      *
+     * <p>Every field is validated before anything is written. The meal, any new foods and
+     * the journal links are then persisted together in a single transaction. A food entered
+     * without an ID reuses the catalog row with the same content when there is one, so
+     * logging the same food again does not add another Food row.</p>
+     *
      * @param userId the ID of the user who owns the new meal
      * @param dto the DTO containing meal name, time, and foods
      * @return a MealResponseDto representing the newly created meal
@@ -89,15 +113,10 @@ public class MealService {
             throw new WebApplicationException("User not found", Response.Status.NOT_FOUND);
         }
 
-        // Validate required meal fields
-        if (dto.getMealName() == null || dto.getMealName().trim().isEmpty()) {
-            logger.warn("Missing required field: mealName");
-            throw new WebApplicationException("Meal name is required", Response.Status.BAD_REQUEST);
-        }
-        if (dto.getTimeEaten() == null) {
-            logger.warn("Missing required field: timeEaten");
-            throw new WebApplicationException("Time eaten is required", Response.Status.BAD_REQUEST);
-        }
+        // Validate the whole request up front so a bad entry never leaves a partial meal behind
+        validateMealFields(dto);
+        List<FoodEntryDto> foodEntries = dto.getFoods() != null ? dto.getFoods() : List.of();
+        foodEntries.forEach(this::validateFoodEntry);
 
         // Create and populate the new meal entity
         Meal meal = new Meal();
@@ -105,81 +124,44 @@ public class MealService {
         meal.setMealName(dto.getMealName());
         meal.setTimeEaten(dto.getTimeEaten());
 
-        // Save the meal to the database
-        mealDao.insert(meal);
-        logger.debug("Inserted meal with ID {}", meal.getId());
-
-        // Process and attach each food entry to the meal
-        if (dto.getFoods() != null) {
-            logger.debug("Adding {} food entries to meal {}", dto.getFoods().size(), meal.getId());
-
-            for (FoodEntryDto foodDto : dto.getFoods()) {
-                // Validate required fields from Food and FoodMealJournal
-                if (foodDto.getServingSize() == null) {
-                    logger.warn("Missing required field: servingSize in food entry");
-                    throw new WebApplicationException("Serving size is required for each food", Response.Status.BAD_REQUEST);
-                }
-
-                if (foodDto.getFoodName() == null || foodDto.getFoodName().trim().isEmpty()) {
-                    logger.warn("Missing required field: foodName in food entry");
-                    throw new WebApplicationException("Food name is required for each food", Response.Status.BAD_REQUEST);
-                }
-
-                if (foodDto.getCalories() == null || foodDto.getFat() == null
-                        || foodDto.getProtein() == null || foodDto.getCarbs() == null) {
-                    logger.warn("Missing required nutrient values in food entry: {}", foodDto);
-                    throw new WebApplicationException("Calories, fat, protein, and carbs are required for each food", Response.Status.BAD_REQUEST);
+        // Look up every referenced food at once rather than one session per entry
+        Map<Long, Food> referencedFoods = foodDao.getByIds(foodEntries.stream()
+                .map(FoodEntryDto::getFoodId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+
+        // Build the journal entries in memory; nothing is written until the whole graph is ready
+        logger.debug("Adding {} food entries to new meal", foodEntries.size());
+        for (FoodEntryDto foodDto : foodEntries) {
+            Food food;
+
+            // If a foodId is provided, use the existing Food looked up above
+            if (foodDto.getFoodId() != null) {
+                food = referencedFoods.get(foodDto.getFoodId());
+
+                // If the foodId is invalid, return a 400 error
+                if (food == null) {
+                    logger.error("Food ID {} not found during meal creation", foodDto.getFoodId());
+                    throw new WebApplicationException(
+                            "Food not found: " + foodDto.getFoodId(),
+                            Response.Status.BAD_REQUEST
+                    );
                 }
 
-                Food food;
-
-                // If a foodId is provided, attempt to look up the existing Food
-                if (foodDto.getFoodId() != null) {
-                    food = foodDao.getById(foodDto.getFoodId());
-
-                    // If the foodId is invalid, return a 400 error
-                    if (food == null) {
-                        logger.error("Food ID {} not found during meal creation", foodDto.getFoodId());
-                        throw new WebApplicationException(
-                                "Food not found: " + foodDto.getFoodId(),
-                                Response.Status.BAD_REQUEST
-                        );
-                    }
-
-                    // TODO: Add logic to check for duplicate foods instead of just adding a new food each time
-
-                } else {
-                    // If no foodId is provided, assume this is a new custom food and create it
-                    logger.info("No foodId provided. Creating new food from entry.");
-
-                    food = new Food();
-                    food.setFoodName(foodDto.getFoodName());
-                    food.setCalories(foodDto.getCalories());
-                    food.setProtein(foodDto.getProtein());
-                    food.setFat(foodDto.getFat());
-                    food.setCarbs(foodDto.getCarbs());
-                    food.setCholesterol(foodDto.getCholesterol());
-                    food.setSodium(foodDto.getSodium());
-                    food.setFiber(foodDto.getFiber());
-                    food.setSugar(foodDto.getSugar());
-                    food.setAddedSugar(foodDto.getAddedSugar());
-                    food.setVitaminD(foodDto.getVitaminD());
-                    food.setCalcium(foodDto.getCalcium());
-                    food.setIron(foodDto.getIron());
-                    food.setPotassium(foodDto.getPotassium());
-                    food.setNotes(foodDto.getNotes());
-
-                    // Save the newly created Food entry to the database
-                    foodDao.insert(food);
-                    logger.debug("New food created with ID {}", food.getId());
-                }
-
-                // Create a linking FoodMealJournal entry to associate the food with this meal
-                FoodMealJournal entry = new FoodMealJournal(meal, food, foodDto.getServingSize());
-                fmjDao.insert(entry);
+            } else {
+                // If no foodId is provided, the DAO matches the entry against the food catalog
+                logger.info("No foodId provided. Resolving food from entry.");
+                food = new Food();
+                copyNutrition(foodDto, food);
             }
+
+            meal.addFoodMealEntry(new FoodMealJournal(meal, food, foodDto.getServingSize(), entryName(foodDto, food)));
         }
 
+        // Save the meal, new foods and journal links as one unit of work
+        customMealDao.insertWithEntries(meal);
+        logger.debug("Inserted meal with ID {}", meal.getId());
+
         // Convert and return the Meal as a response DTO
         return toResponseDto(meal);
     }
@@ -188,6 +170,13 @@ public class MealService {
     /**
      * Updates a meal and its associated food entries if it belongs to the given user.
      *
+     * <p>The incoming foods are diffed against the meal's current journal entries. Entries are
+     * matched by food ID; only serving sizes, names and links that actually changed are written,
+     * and all of those writes happen in a single transaction. Food rows are shared catalog
+     * entries, so an entry whose nutrition values were edited is re-linked to the catalog row for
+     * the new values rather than changing the food for every meal that uses it. A rename that
+     * only changes case or spacing stays on the same row and is stored on the entry.</p>
+     *
      * @param userId The ID of the user making the request
      * @param mealId The ID of the meal to update
      * @param dto The updated meal data
@@ -197,128 +186,111 @@ public class MealService {
     public MealResponseDto updateForUser(long userId, long mealId, MealRequestDto dto) {
         logger.info("Updating meal {} for user {}", mealId, userId);
 
-        // Fetch and validate the meal
-        Meal mealToUpdate = mealDao.getById(mealId);
+        // Fetch the meal with its current entries and foods, then validate ownership
+        Meal mealToUpdate = customMealDao.findByIdWithEntries(mealId);
         if (mealToUpdate == null || mealToUpdate.getUser() == null || mealToUpdate.getUser().getId() != userId) {
             logger.warn("Meal {} not found or does not belong to user {}", mealId, userId);
             throw new WebApplicationException("Meal not found", Response.Status.NOT_FOUND);
         }
 
-        // Validate required top-level fields
-        if (dto.getMealName() == null || dto.getMealName().trim().isEmpty()) {
-            logger.warn("Missing required field: mealName");
-            throw new WebApplicationException("Meal name is required", Response.Status.BAD_REQUEST);
-        }
-        if (dto.getTimeEaten() == null) {
-            logger.warn("Missing required field: timeEaten");
-            throw new WebApplicationException("Time eaten is required", Response.Status.BAD_REQUEST);
-        }
+        // Validate the whole request before computing any changes
+        validateMealFields(dto);
+        List<FoodEntryDto> foodEntries = dto.getFoods() != null ? dto.getFoods() : List.of();
+        foodEntries.forEach(this::validateFoodEntry);
+
+        MealChangeSet changes = new MealChangeSet(userId, mealId, mealToUpdate.getTimeEaten().toLocalDate());
 
-        // Update top-level fields
-        mealToUpdate.setMealName(dto.getMealName());
-        mealToUpdate.setTimeEaten(dto.getTimeEaten());
-        mealDao.update(mealToUpdate);
-        logger.debug("Updated meal {} fields: name='{}', timeEaten='{}'",
-                mealId, dto.getMealName(), dto.getTimeEaten());
-
-        // Remove all existing food journal entries linked to this meal
-        List<FoodMealJournal> existingFoodLinks = mealToUpdate.getFoodMealEntries();
-        for (FoodMealJournal journalEntry : existingFoodLinks) {
-            fmjDao.delete(journalEntry);
+        // Top-level fields are only written when they differ
+        LocalDateTime timeEaten = dto.getTimeEaten().truncatedTo(ChronoUnit.SECONDS);
+        if (!dto.getMealName().equals(mealToUpdate.getMealName())
+                || !timeEaten.equals(mealToUpdate.getTimeEaten())) {
+            changes.updateMealFields(dto.getMealName(), timeEaten);
+            mealToUpdate.setMealName(dto.getMealName());
+            mealToUpdate.setTimeEaten(timeEaten);
         }
-        logger.debug("Deleted {} existing FoodMealJournal entries for meal {}", existingFoodLinks.size(), mealId);
 
-        // Re-create food entries and links
-        if (dto.getFoods() != null && !dto.getFoods().isEmpty()) {
-            logger.debug("Processing {} foods from update DTO", dto.getFoods().size());
+        // Index the current entries by food ID so each incoming food can claim a matching entry
+        Map<Long, Deque<FoodMealJournal>> currentByFood = new LinkedHashMap<>();
+        Map<Long, Food> referencedFoods = new HashMap<>();
+        for (FoodMealJournal entry : mealToUpdate.getFoodMealEntries()) {
+            currentByFood.computeIfAbsent(entry.getFood().getId(), id -> new ArrayDeque<>()).add(entry);
+            referencedFoods.put(entry.getFood().getId(), entry.getFood());
+        }
 
-            for (FoodEntryDto foodDto : dto.getFoods()) {
+        // Foods already in the meal came with it; any other referenced food is looked up in one query
+        referencedFoods.putAll(foodDao.getByIds(foodEntries.stream()
+                .map(FoodEntryDto::getFoodId)
+                .filter(id -> id != null && !referencedFoods.containsKey(id))
+                .collect(Collectors.toList())));
+
+        List<FoodMealJournal> updatedEntries = new ArrayList<>();
+        for (FoodEntryDto foodDto : foodEntries) {
+
+            // Case 1: New food entry to be created
+            if (foodDto.getFoodId() == null) {
+                Food newFood = new Food();
+                copyNutrition(foodDto, newFood);
+                FoodMealJournal newEntry = new FoodMealJournal(mealToUpdate, newFood, foodDto.getServingSize(),
+                        foodDto.getFoodName());
+                changes.addEntry(newEntry);
+                updatedEntries.add(newEntry);
+                continue;
+            }
 
-                // Validate required fields from Food and FoodMealJournal
-                if (foodDto.getServingSize() == null) {
-                    logger.warn("Missing required field: servingSize in food entry");
-                    throw new WebApplicationException("Serving size is required for each food", Response.Status.BAD_REQUEST);
-                }
+            // Case 2: Existing food, ideally already linked to this meal
+            Deque<FoodMealJournal> candidates = currentByFood.get(foodDto.getFoodId());
+            FoodMealJournal entry = candidates != null ? candidates.poll() : null;
+            Food linkedFood = entry != null ? entry.getFood() : referencedFoods.get(foodDto.getFoodId());
+            if (linkedFood == null) {
+                logger.error("Food ID {} not found in update", foodDto.getFoodId());
+                throw new WebApplicationException("Food not found: " + foodDto.getFoodId(), Response.Status.BAD_REQUEST);
+            }
 
-                if (foodDto.getFoodName() == null || foodDto.getFoodName().trim().isEmpty()) {
-                    logger.warn("Missing required field: foodName in food entry");
-                    throw new WebApplicationException("Food name is required for each food", Response.Status.BAD_REQUEST);
+            if (!nutritionMatches(foodDto, linkedFood)) {
+                logger.debug("Food ID {} was edited; linking the entry to the matching catalog food", linkedFood.getId());
+                if (entry != null) {
+                    changes.removeEntry(entry.getId());
                 }
-
-                if (foodDto.getCalories() == null || foodDto.getFat() == null
-                        || foodDto.getProtein() == null || foodDto.getCarbs() == null) {
-                    logger.warn("Missing required nutrient values in food entry: {}", foodDto);
-                    throw new WebApplicationException("Calories, fat, protein, and carbs are required for each food", Response.Status.BAD_REQUEST);
+                Food editedFood = new Food();
+                copyNutrition(foodDto, editedFood);
+                entry = new FoodMealJournal(mealToUpdate, editedFood, foodDto.getServingSize(), foodDto.getFoodName());
+                changes.addEntry(entry);
+            } else if (entry == null) {
+                entry = new FoodMealJournal(mealToUpdate, linkedFood, foodDto.getServingSize(),
+                        entryName(foodDto, linkedFood));
+                changes.addEntry(entry);
+            } else {
+                if (!foodDto.getServingSize().equals(entry.getServingSize())) {
+                    entry.setServingSize(foodDto.getServingSize());
+                    changes.updateServingSize(entry.getId(), foodDto.getServingSize());
                 }
-
-                Food linkedFood;
-
-                // Case 1: Existing food entry to be updated
-                if (foodDto.getFoodId() != null) {
-                    linkedFood = foodDao.getById(foodDto.getFoodId());
-
-                    if (linkedFood == null) {
-                        logger.error("Food ID {} not found in update", foodDto.getFoodId());
-                        throw new WebApplicationException("Food not found: " + foodDto.getFoodId(), Response.Status.BAD_REQUEST);
-                    }
-
-                    // Update fields in the existing food record
-                    linkedFood.setFoodName(foodDto.getFoodName());
-                    linkedFood.setCalories(foodDto.getCalories());
-                    linkedFood.setProtein(foodDto.getProtein());
-                    linkedFood.setFat(foodDto.getFat());
-                    linkedFood.setCarbs(foodDto.getCarbs());
-                    linkedFood.setCholesterol(foodDto.getCholesterol());
-                    linkedFood.setSodium(foodDto.getSodium());
-                    linkedFood.setFiber(foodDto.getFiber());
-                    linkedFood.setSugar(foodDto.getSugar());
-                    linkedFood.setAddedSugar(foodDto.getAddedSugar());
-                    linkedFood.setVitaminD(foodDto.getVitaminD());
-                    linkedFood.setCalcium(foodDto.getCalcium());
-                    linkedFood.setIron(foodDto.getIron());
-                    linkedFood.setPotassium(foodDto.getPotassium());
-                    linkedFood.setNotes(foodDto.getNotes());
-
-                    foodDao.update(linkedFood);
-                    logger.debug("Updated food ID {} with new nutrition data", linkedFood.getId());
-
-                } else {
-                    // Case 2: New food entry to be created
-                    linkedFood = new Food();
-                    linkedFood.setFoodName(foodDto.getFoodName());
-                    linkedFood.setCalories(foodDto.getCalories());
-                    linkedFood.setProtein(foodDto.getProtein());
-                    linkedFood.setFat(foodDto.getFat());
-                    linkedFood.setCarbs(foodDto.getCarbs());
-                    linkedFood.setCholesterol(foodDto.getCholesterol());
-                    linkedFood.setSodium(foodDto.getSodium());
-                    linkedFood.setFiber(foodDto.getFiber());
-                    linkedFood.setSugar(foodDto.getSugar());
-                    linkedFood.setAddedSugar(foodDto.getAddedSugar());
-                    linkedFood.setVitaminD(foodDto.getVitaminD());
-                    linkedFood.setCalcium(foodDto.getCalcium());
-                    linkedFood.setIron(foodDto.getIron());
-                    linkedFood.setPotassium(foodDto.getPotassium());
-                    linkedFood.setNotes(foodDto.getNotes());
-
-                    foodDao.insert(linkedFood);
-                    logger.debug("Created new food entry with ID {}", linkedFood.getId());
+                // A rename that only changes case or spacing keeps the catalog food but not its spelling
+                String name = entryName(foodDto, linkedFood);
+                if (name != null && !name.equals(entry.getDisplayName())) {
+                    entry.setFoodName(name);
+                    changes.updateFoodName(entry.getId(), name);
                 }
+            }
+            updatedEntries.add(entry);
+        }
 
-                // Link food to the updated meal
-                FoodMealJournal newLink = new FoodMealJournal(mealToUpdate, linkedFood, foodDto.getServingSize());
-                fmjDao.insert(newLink);
-                logger.debug("Linked food ID {} to meal ID {} with serving size {}",
-                        linkedFood.getId(), mealToUpdate.getId(), foodDto.getServingSize());
+        // Whatever was not claimed by the request is no longer part of the meal
+        for (Deque<FoodMealJournal> unclaimed : currentByFood.values()) {
+            for (FoodMealJournal entry : unclaimed) {
+                changes.removeEntry(entry.getId());
             }
         }
 
-        logger.info("Meal {} successfully updated for user {}", mealId, userId);
+        customMealDao.applyChanges(changes);
+        mealToUpdate.setFoodMealEntries(updatedEntries);
+
+        logger.info("Meal {} successfully updated for user {}: {}", mealId, userId, changes);
         return toResponseDto(mealToUpdate);
     }
 
     /**
      * Deletes a meal if it belongs to the user.
+     * The meal, its journal entries and the day's nutrition totals are updated in one transaction.
      *
      * @param userId the user's ID
      * @param mealId the meal's ID
@@ -326,13 +298,13 @@ public class MealService {
      */
     public void deleteForUser(long userId, long mealId) {
         logger.info("Deleting meal {} for user {}", mealId, userId);
-        Meal meal = mealDao.getById(mealId);
+        Meal meal = customMealDao.findByIdWithEntries(mealId);
         if (meal == null || meal.getUser() == null || meal.getUser().getId() != userId) {
             logger.warn("Meal {} not found or does not belong to user {}", mealId, userId);
             throw new WebApplicationException("Meal not found", Response.Status.NOT_FOUND);
         }
 
-        mealDao.delete(meal);
+        customMealDao.deleteWithEntries(meal);
         logger.debug("Meal {} deleted", mealId);
     }
 
@@ -351,51 +323,155 @@ public class MealService {
      * @return A list of MealResponseDto objects for recent meals
      */
     public List<MealResponseDto> getMealsWithinDays(Long userId, int days) {
-        return customMealDao.findMealsWithinDays(userId, days).stream()
-                .map(MealResponseDto::fromEntity)
-                .collect(Collectors.toList());
+        LocalDateTime cutoff = LocalDate.now().minusDays(days).atStartOfDay();
+        logger.debug("Querying recent meals for userId={} since {}", userId, cutoff);
+        return customMealDao.findMealDtosSince(userId, cutoff);
+    }
+
+    /**
+     * Returns the user's nutrition totals for each day in {@code [from, to]} that has at least one meal.
+     * Totals come from the precomputed daily rollup, so this reads one row per day.
+     *
+     * @param userId the ID of the user
+     * @param from the first day to include
+     * @param to the last day to include
+     * @return one entry per day with meals, oldest first
+     * @throws WebApplicationException if from is after to
+     */
+    public List<DailyNutritionDto> listDailyTotalsForUser(long userId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            logger.warn("Rejected inverted date range [{}, {}]", from, to);
+            throw new WebApplicationException("'from' must not be after 'to'", Response.Status.BAD_REQUEST);
+        }
+        logger.info("Listing daily nutrition totals for user {} in [{}, {}]", userId, from, to);
+        return dailySummaryDao.findForUser(userId, from, to);
+    }
+
+
+    /**
+     * Decodes a client-supplied page cursor.
+     *
+     * @param cursor the opaque cursor, or null
+     * @return the decoded position, or null for the first page
+     * @throws WebApplicationException if the cursor is malformed
+     */
+    private PageCursor decodeCursor(String cursor) {
+        try {
+            return PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected malformed meal cursor: {}", cursor);
+            throw new WebApplicationException("Invalid cursor", Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Validates the top-level fields of a meal request.
+     *
+     * @param dto the incoming meal data
+     * @throws WebApplicationException if the meal name or time eaten is missing
+     */
+    private void validateMealFields(MealRequestDto dto) {
+        if (dto.getMealName() == null || dto.getMealName().trim().isEmpty()) {
+            logger.warn("Missing required field: mealName");
+            throw new WebApplicationException("Meal name is required", Response.Status.BAD_REQUEST);
+        }
+        if (dto.getTimeEaten() == null) {
+            logger.warn("Missing required field: timeEaten");
+            throw new WebApplicationException("Time eaten is required", Response.Status.BAD_REQUEST);
+        }
     }
 
+    /**
+     * Validates the required Food and FoodMealJournal fields of a single food entry.
+     *
+     * @param foodDto the food entry to check
+     * @throws WebApplicationException if serving size, name or required nutrients are missing
+     */
+    private void validateFoodEntry(FoodEntryDto foodDto) {
+        if (foodDto.getServingSize() == null) {
+            logger.warn("Missing required field: servingSize in food entry");
+            throw new WebApplicationException("Serving size is required for each food", Response.Status.BAD_REQUEST);
+        }
+
+        if (foodDto.getFoodName() == null || foodDto.getFoodName().trim().isEmpty()) {
+            logger.warn("Missing required field: foodName in food entry");
+            throw new WebApplicationException("Food name is required for each food", Response.Status.BAD_REQUEST);
+        }
+
+        if (foodDto.getCalories() == null || foodDto.getFat() == null
+                || foodDto.getProtein() == null || foodDto.getCarbs() == null) {
+            logger.warn("Missing required nutrient values in food entry: {}", foodDto);
+            throw new WebApplicationException("Calories, fat, protein, and carbs are required for each food", Response.Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Copies the name, nutrient values and notes from a food entry onto a Food entity.
+     *
+     * @param foodDto the source food entry
+     * @param food the Food entity to populate
+     */
+    private void copyNutrition(FoodEntryDto foodDto, Food food) {
+        food.setFoodName(foodDto.getFoodName());
+        food.setCalories(foodDto.getCalories());
+        food.setProtein(foodDto.getProtein());
+        food.setFat(foodDto.getFat());
+        food.setCarbs(foodDto.getCarbs());
+        food.setCholesterol(foodDto.getCholesterol());
+        food.setSodium(foodDto.getSodium());
+        food.setFiber(foodDto.getFiber());
+        food.setSugar(foodDto.getSugar());
+        food.setAddedSugar(foodDto.getAddedSugar());
+        food.setVitaminD(foodDto.getVitaminD());
+        food.setCalcium(foodDto.getCalcium());
+        food.setIron(foodDto.getIron());
+        food.setPotassium(foodDto.getPotassium());
+        food.setNotes(foodDto.getNotes());
+    }
+
+    /**
+     * Picks the spelling a journal entry keeps for its food.
+     *
+     * <p>Catalog rows hold whichever spelling was logged first, so the entry keeps the name as
+     * the user typed it when that is a spelling of the same food. A name that does not match
+     * at all (a client referencing a food by ID with a stale label) is not kept, and the entry
+     * shows the catalog name.</p>
+     *
+     * @param foodDto the incoming food entry
+     * @param food the food the entry links to
+     * @return the name to store on the entry, or null to use the food's name
+     */
+    private String entryName(FoodEntryDto foodDto, Food food) {
+        return FoodContentHash.sameName(foodDto.getFoodName(), food.getFoodName()) ? foodDto.getFoodName() : null;
+    }
+
+    /**
+     * Checks whether a food entry describes the same catalog food as a stored Food.
+     *
+     * <p>Both sides are compared by {@link FoodContentHash content hash}, the same identity the
+     * catalog uses, so a nutrient beyond the stored precision is not treated as an edit. Nor is
+     * a name differing only in case or spacing; the entry keeps that spelling itself.</p>
+     *
+     * @param foodDto the incoming food entry
+     * @param food the stored food
+     * @return true when the entry would resolve to the same catalog row
+     */
+    private boolean nutritionMatches(FoodEntryDto foodDto, Food food) {
+        Food candidate = new Food();
+        copyNutrition(foodDto, candidate);
+        // Rows written before the catalog existed have no stored hash yet
+        String storedHash = food.getContentHash() != null ? food.getContentHash() : FoodContentHash.of(food);
+        return FoodContentHash.of(candidate).equals(storedHash);
+    }
 
     /**
      * Maps a Meal entity to a MealResponseDto, including associated food entries.
+     * Only used on write paths, where the entity graph is already in memory.
      *
      * @param meal the Meal entity
      * @return the corresponding MealResponseDto
      */
     private MealResponseDto toResponseDto(Meal meal) {
-        MealResponseDto r = new MealResponseDto();
-        r.setId(meal.getId());
-        r.setMealName(meal.getMealName());
-        r.setTimeEaten(meal.getTimeEaten());
-
-        // Map each food entry with full nutritional info
-        List<FoodEntryDto> foods = meal.getFoodMealEntries().stream()
-                .map(e -> {
-                    Food f = e.getFood();
-                    FoodEntryDto fe = new FoodEntryDto();
-                    fe.setFoodId(f.getId());
-                    fe.setFoodName(f.getFoodName());
-                    fe.setServingSize(e.getServingSize());
-                    fe.setCalories(f.getCalories());
-                    fe.setProtein(f.getProtein());
-                    fe.setCarbs(f.getCarbs());
-                    fe.setFat(f.getFat());
-                    fe.setCholesterol(f.getCholesterol());
-                    fe.setSodium(f.getSodium());
-                    fe.setFiber(f.getFiber());
-                    fe.setSugar(f.getSugar());
-                    fe.setAddedSugar(f.getAddedSugar());
-                    fe.setVitaminD(f.getVitaminD());
-                    fe.setCalcium(f.getCalcium());
-                    fe.setIron(f.getIron());
-                    fe.setPotassium(f.getPotassium());
-                    fe.setNotes(f.getNotes());
-                    return fe;
-                })
-                .collect(Collectors.toList());
-
-        r.setFoods(foods);
-        return r;
+        return MealResponseDto.fromEntity(meal);
     }
 }
@@ -1,12 +1,29 @@
 package com.grittonbelldev.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.grittonbelldev.dto.CacheStatsDto;
 import com.grittonbelldev.dto.nutritionix.*;
 import com.grittonbelldev.persistence.NutritionixDao;
+import com.grittonbelldev.util.CircuitBreaker;
+import com.grittonbelldev.util.Futures;
+import com.grittonbelldev.util.SingleFlight;
+import com.grittonbelldev.util.UpstreamUnavailableException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.ws.rs.NotFoundException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service layer for handling business logic related to Nutritionix data.
@@ -15,23 +32,95 @@ import java.util.List;
  * shielding the API layer from direct interaction with HTTP clients or external APIs.
  * All Nutritionix-related operations (instant search, lookup by ID, natural-language
  * nutrient analysis) are encapsulated here.
+ *
+ * A single instance is created by {@code ApplicationStartup} and shared through the
+ * ServletContext attribute {@link #CONTEXT_ATTRIBUTE}, so every request reuses the same
+ * HTTP client and its pooled connections.
+ *
+ * Instant-search results and item lookups are cached in memory, each with its own size
+ * bound and time-to-live, so repeated type-ahead queries and item views do not spend
+ * Nutritionix quota. Search keys are normalized (trimmed, lower-cased, inner whitespace
+ * collapsed), so "Banana " and "banana" share one entry. The key only identifies the
+ * entry: Nutritionix receives the query as the caller typed it.
+ *
+ * Concurrent identical calls are coalesced: a cache miss is loaded once while other
+ * callers for the same key wait for it, and natural-language analysis, which is not
+ * cached, goes through a {@link SingleFlight} keyed the same way. A burst of users
+ * typing the same trending term therefore costs one upstream request.
+ *
+ * Before a search goes to the cache or upstream, the {@link FoodPrefixIndex} is asked
+ * whether it already knows enough foods matching the term, so most keystrokes after the
+ * first few are answered locally. The index holds only items from search results of the
+ * last search-cache TTL, so a local answer is no staler than a cached one.
+ *
+ * When the DAO refuses a call because Nutritionix is failing or saturated, searches fall
+ * back to whatever the prefix index holds, and item lookups and nutrient analysis that
+ * are not cached fail fast with 503 Service Unavailable.
+ *
+ * Search, item lookup and nutrient analysis each have an {@code ...Async} variant for
+ * endpoints that suspend the request instead of holding a container thread. Answers from
+ * the prefix index or the caches complete immediately; misses complete when the
+ * non-blocking upstream call does. The caches hold the in-flight future, so concurrent
+ * misses share one call whether they arrive through the blocking or the async methods.
  */
-public class NutritionixService {
+public class NutritionixService implements AutoCloseable {
+
+    /** ServletContext attribute holding the application-wide instance. */
+    public static final String CONTEXT_ATTRIBUTE = "nutritionix.service";
 
     private final Logger logger = LogManager.getLogger(this.getClass());
 
+    /** Maximum number of distinct search queries kept. */
+    static final long SEARCH_CACHE_SIZE = 5_000;
+
+    /** How long a search result is served from the cache. */
+    static final Duration SEARCH_CACHE_TTL = Duration.ofMinutes(15);
+
+    /** Maximum number of items kept. */
+    static final long ITEM_CACHE_SIZE = 10_000;
+
+    /** How long an item's nutrition details are served from the cache; they rarely change. */
+    static final Duration ITEM_CACHE_TTL = Duration.ofHours(24);
+
     private final NutritionixDao dao;
+    private final AsyncCache<String, NutritionixSearchResponseDto> searchCache;
+    private final AsyncCache<String, FoodsItem> itemCache;
+    private final SingleFlight<String, FoodResponse> naturalFlights = new SingleFlight<>();
+    private final FoodPrefixIndex prefixIndex;
 
     /**
-     * Constructs the service by instantiating a DAO with the provided Nutritionix credentials.
-     * The appId and appKey are typically loaded from ServletContext at runtime.
+     * Constructs the service on top of a configured DAO.
      *
-     * @param appId  Nutritionix Application ID
-     * @param appKey Nutritionix Application Key
+     * @param dao the DAO holding the Nutritionix credentials and HTTP client
      */
-    public NutritionixService(String appId, String appKey) {
-        logger.debug("Initializing NutritionixService with appId: {}", appId);
-        this.dao = new NutritionixDao(appId, appKey);
+    public NutritionixService(NutritionixDao dao) {
+        this(dao, SEARCH_CACHE_TTL, ITEM_CACHE_TTL, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructs the service with explicit cache lifetimes and time source.
+     *
+     * @param dao the DAO holding the Nutritionix credentials and HTTP client
+     * @param searchTtl how long a search result stays cached
+     * @param itemTtl how long an item stays cached
+     * @param ticker the time source used for expiry
+     */
+    NutritionixService(NutritionixDao dao, Duration searchTtl, Duration itemTtl, Ticker ticker) {
+        logger.debug("Initializing NutritionixService");
+        this.dao = dao;
+        this.searchCache = Caffeine.newBuilder()
+                .maximumSize(SEARCH_CACHE_SIZE)
+                .expireAfterWrite(searchTtl)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+        this.itemCache = Caffeine.newBuilder()
+                .maximumSize(ITEM_CACHE_SIZE)
+                .expireAfterWrite(itemTtl)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+        this.prefixIndex = new FoodPrefixIndex(searchTtl, ticker);
     }
 
     /**
@@ -41,11 +130,22 @@ public class NutritionixService {
      * @return DTO containing both common and branded search results
      */
     public NutritionixSearchResponseDto searchAll(String query) {
+        return Futures.join(searchAllAsync(query));
+    }
+
+    /**
+     * Starts an instant search that returns both common and branded food items.
+     *
+     * @param query the search term entered by the user
+     * @return a future completing with both common and branded search results
+     */
+    public CompletableFuture<NutritionixSearchResponseDto> searchAllAsync(String query) {
         logger.info("Performing full Nutritionix search for query: '{}'", query);
-        NutritionixSearchResponseDto result = dao.searchInstant(query);
-        logger.debug("Received {} common and {} branded results",
-                result.getCommon().size(), result.getBranded().size());
-        return result;
+        return searchCached(query).thenApply(result -> {
+            logger.debug("Received {} common and {} branded results",
+                    result.getCommon().size(), result.getBranded().size());
+            return result;
+        });
     }
 
     /**
@@ -57,7 +157,7 @@ public class NutritionixService {
      */
     public List<CommonItem> searchCommon(String query) {
         logger.info("Searching for common food items with query: '{}'", query);
-        List<CommonItem> results = dao.getCommon(query);
+        List<CommonItem> results = Futures.join(searchCached(query)).getCommon();
         logger.debug("Found {} common items", results.size());
         return results;
     }
@@ -71,7 +171,7 @@ public class NutritionixService {
      */
     public List<BrandedItem> searchBranded(String query) {
         logger.info("Searching for branded food items with query: '{}'", query);
-        List<BrandedItem> results = dao.getBranded(query);
+        List<BrandedItem> results = Futures.join(searchCached(query)).getBranded();
         logger.debug("Found {} branded items", results.size());
         return results;
     }
@@ -84,14 +184,33 @@ public class NutritionixService {
      * @throws NotFoundException if no item is found
      */
     public FoodsItem fetchById(String nixItemId) {
+        return Futures.join(fetchByIdAsync(nixItemId));
+    }
+
+    /**
+     * Starts a lookup of detailed nutritional information for a specific branded item.
+     *
+     * @param nixItemId the Nutritionix item ID to look up
+     * @return a future completing with the first {@link FoodsItem} from the Nutritionix
+     *         response, or failing with {@link NotFoundException} if no item is found
+     */
+    public CompletableFuture<FoodsItem> fetchByIdAsync(String nixItemId) {
         logger.info("Fetching Nutritionix item by ID: {}", nixItemId);
-        FoodResponse detail = dao.fetchById(nixItemId);
-        return detail.getFoods().stream()
-                .findFirst()
-                .orElseThrow(() -> {
-                    logger.warn("No item found for Nutritionix ID: {}", nixItemId);
-                    return new NotFoundException("Item not found: " + nixItemId);
-                });
+        String key = nixItemId == null ? "" : nixItemId.trim();
+        // A future completing with null is not cached, so a missing item is asked for again next time
+        return itemCache.get(key, (id, executor) -> {
+            logger.debug("Item cache miss for Nutritionix ID: {}", id);
+            return dao.fetchByIdAsync(id).thenApply(resp -> resp.getFoods().stream().findFirst().orElse(null));
+        }).handle((item, error) -> {
+            if (error != null) {
+                throw failure(error);
+            }
+            if (item == null) {
+                logger.warn("No item found for Nutritionix ID: {}", nixItemId);
+                throw new NotFoundException("Item not found: " + nixItemId);
+            }
+            return item;
+        });
     }
 
     /**
@@ -103,14 +222,135 @@ public class NutritionixService {
      * @throws NotFoundException if Nutritionix returns an empty list
      */
     public List<FoodsItem> naturalNutrients(String query) {
+        return Futures.join(naturalNutrientsAsync(query));
+    }
+
+    /**
+     * Starts the analysis of a free-form string describing food.
+     *
+     * @param query user-entered text describing food consumption
+     * @return a future completing with the parsed {@link FoodsItem} objects, or failing with
+     *         {@link NotFoundException} if Nutritionix returns an empty list
+     */
+    public CompletableFuture<List<FoodsItem>> naturalNutrientsAsync(String query) {
         logger.info("Analyzing natural nutrient string: '{}'", query);
-        FoodResponse resp = dao.naturalNutrients(query);
-        List<FoodsItem> foods = resp.getFoods();
-        if (foods.isEmpty()) {
-            logger.error("No nutrients found for input: '{}'", query);
-            throw new NotFoundException("No nutrient data found for: " + query);
+        String key = normalize(query);
+        // Spellings that normalize alike share one call, which sends the first caller's text as typed
+        String typed = Objects.toString(query, "");
+        return naturalFlights.executeAsync(key, () -> dao.naturalNutrientsAsync(typed)).handle((resp, error) -> {
+            if (error != null) {
+                throw failure(error);
+            }
+            List<FoodsItem> foods = resp.getFoods();
+            if (foods.isEmpty()) {
+                logger.error("No nutrients found for input: '{}'", query);
+                throw new NotFoundException("No nutrient data found for: " + query);
+            }
+            logger.debug("Parsed {} food items from natural language input", foods.size());
+            return foods;
+        });
+    }
+
+    /**
+     * Returns size and hit/miss/eviction counters for the search and item caches.
+     *
+     * @return one statistics snapshot per cache
+     */
+    public List<CacheStatsDto> cacheStats() {
+        return List.of(
+                CacheStatsDto.of("nutritionixSearch", searchCache.synchronous().estimatedSize(),
+                        searchCache.synchronous().stats()),
+                CacheStatsDto.of("nutritionixItems", itemCache.synchronous().estimatedSize(),
+                        itemCache.synchronous().stats()),
+                prefixIndex.stats());
+    }
+
+    /**
+     * Gets the circuit breaker state of each Nutritionix endpoint.
+     *
+     * @return the states, keyed by endpoint name
+     */
+    public Map<String, CircuitBreaker.State> circuitStates() {
+        return dao.circuitStates();
+    }
+
+    /**
+     * Returns the instant-search result for a query from the prefix index or the cache,
+     * calling Nutritionix only when neither can answer.
+     *
+     * @param query the raw search term
+     * @return a future completing with the (possibly shared) search result; callers must not modify it
+     */
+    private CompletableFuture<NutritionixSearchResponseDto> searchCached(String query) {
+        String normalized = normalize(query);
+        Optional<NutritionixSearchResponseDto> local = prefixIndex.lookup(normalized);
+        if (local.isPresent()) {
+            return CompletableFuture.completedFuture(local.get());
         }
-        logger.debug("Parsed {} food items from natural language input", foods.size());
-        return foods;
+
+        // Concurrent misses for one key share a single load, which sends the query as typed
+        String typed = Objects.toString(query, "");
+        return searchCache.get(normalized, (key, executor) -> {
+            logger.debug("Search cache miss for query: '{}'", key);
+            return dao.searchInstantAsync(typed).thenApply(result -> {
+                prefixIndex.addAll(result);
+                return result;
+            });
+        }).exceptionally(error -> {
+            Throwable cause = Futures.unwrap(error);
+            if (cause instanceof UpstreamUnavailableException) {
+                logger.warn("Serving local results for '{}': {}", normalized, cause.getMessage());
+                return prefixIndex.fallback(normalized);
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    /**
+     * Maps a failed upstream call for a future to fail with: a refused call becomes a 503
+     * response, anything else is passed on unchanged.
+     *
+     * @param error the failure reported by the future
+     * @return the exception to throw from the next stage
+     */
+    private CompletionException failure(Throwable error) {
+        Throwable cause = Futures.unwrap(error);
+        if (cause instanceof UpstreamUnavailableException) {
+            return new CompletionException(unavailable((UpstreamUnavailableException) cause));
+        }
+        return new CompletionException(cause);
+    }
+
+    /**
+     * Maps a refused upstream call to a 503 response.
+     *
+     * @param e the refusal
+     * @return the exception to throw
+     */
+    private WebApplicationException unavailable(UpstreamUnavailableException e) {
+        logger.warn("Nutritionix unavailable: {}", e.getMessage());
+        return new WebApplicationException("Nutritionix is temporarily unavailable",
+                Response.Status.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Normalizes a search term into a cache key.
+     *
+     * @param query the raw search term, possibly null
+     * @return the trimmed, lower-cased term with runs of whitespace collapsed to one space
+     */
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Releases the underlying HTTP client. Called once when the application shuts down.
+     */
+    @Override
+    public void close() {
+        dao.close();
     }
 }
@@ -0,0 +1,217 @@
+package com.grittonbelldev.service;
+
+import com.grittonbelldev.dto.MealGlucoseResponseDto;
+import com.grittonbelldev.persistence.GlucoseReadingDao;
+import com.grittonbelldev.persistence.MealDao;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Service layer that relates meals to the glucose readings around them.
+ *
+ * <p>For each meal it computes the pre-meal baseline, the post-meal peak and time to peak,
+ * the 2-hour incremental area under the curve (iAUC) and the time to return to baseline.
+ * Meals and readings are both read in time order and merge-joined in a single pass:
+ * each reading is handed only to the meals whose window contains it, so a user's whole
+ * history costs one linear scan of the glucose series.</p>
+ */
+public class PostprandialService {
+
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    // Readings in this window before a meal form its baseline
+    static final Duration BASELINE_WINDOW = Duration.ofMinutes(30);
+    // Peak and return-to-baseline are searched for in this window after a meal
+    static final Duration RESPONSE_WINDOW = Duration.ofHours(3);
+    // Incremental AUC is integrated over this window after a meal
+    static final Duration AUC_WINDOW = Duration.ofHours(2);
+
+    private final MealDao mealDao = new MealDao();
+    private final GlucoseReadingDao readingQueryDao = new GlucoseReadingDao();
+
+    /**
+     * Computes the glucose response to a single meal.
+     *
+     * @param userId the ID of the user
+     * @param mealId the ID of the meal
+     * @return the response metrics
+     * @throws WebApplicationException if the meal does not exist or does not belong to the user
+     */
+    public MealGlucoseResponseDto responseForMeal(long userId, long mealId) {
+        logger.info("Computing glucose response to meal {} for user {}", mealId, userId);
+        MealGlucoseResponseDto meal = mealDao.findMealMarkerForUser(userId, mealId);
+        if (meal == null) {
+            logger.warn("Meal {} not found or does not belong to user {}", mealId, userId);
+            throw new WebApplicationException("Meal not found", Response.Status.NOT_FOUND);
+        }
+        computeResponses(userId, List.of(meal));
+        return meal;
+    }
+
+    /**
+     * Computes the glucose response to every meal the user ate in {@code [from, to)}.
+     *
+     * @param userId the ID of the user
+     * @param from inclusive start of the window (by time eaten)
+     * @param to exclusive end of the window (by time eaten)
+     * @return one response per meal, oldest first
+     * @throws WebApplicationException if from is not before to
+     */
+    public List<MealGlucoseResponseDto> responsesForUser(long userId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            logger.warn("Rejected inverted time range [{}, {})", from, to);
+            throw new WebApplicationException("'from' must be before 'to'", Response.Status.BAD_REQUEST);
+        }
+        logger.info("Computing glucose responses for user {} in [{}, {})", userId, from, to);
+        List<MealGlucoseResponseDto> meals = mealDao.findMealMarkersForUser(userId, from, to);
+        computeResponses(userId, meals);
+        return meals;
+    }
+
+    /**
+     * Merge-joins the meals (oldest first) with the user's readings and fills in each meal's metrics.
+     *
+     * @param userId the ID of the user
+     * @param meals the meals to fill, sorted by time eaten
+     */
+    private void computeResponses(long userId, List<MealGlucoseResponseDto> meals) {
+        if (meals.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime first = meals.get(0).getTimeEaten().minus(BASELINE_WINDOW);
+        LocalDateTime last = meals.get(meals.size() - 1).getTimeEaten().plus(RESPONSE_WINDOW);
+
+        Iterator<MealGlucoseResponseDto> pending = meals.iterator();
+        Deque<ResponseAccumulator> active = new ArrayDeque<>();
+        ResponseAccumulator[] next = {pending.hasNext() ? new ResponseAccumulator(pending.next()) : null};
+
+        // Readings end exactly at the last window's edge, which is included
+        long readings = readingQueryDao.forEachPoint(userId, first, last.plusSeconds(1), (time, level) -> {
+            // Open every meal whose baseline window has started
+            while (next[0] != null && !time.isBefore(next[0].baselineStart)) {
+                active.addLast(next[0]);
+                next[0] = pending.hasNext() ? new ResponseAccumulator(pending.next()) : null;
+            }
+            // Close meals whose response window has ended; they were opened in time order
+            while (!active.isEmpty() && time.isAfter(active.peekFirst().responseEnd)) {
+                active.removeFirst().finish();
+            }
+            for (ResponseAccumulator accumulator : active) {
+                accumulator.add(time, level);
+            }
+        });
+
+        active.forEach(ResponseAccumulator::finish);
+        while (next[0] != null) {
+            next[0].finish();
+            next[0] = pending.hasNext() ? new ResponseAccumulator(pending.next()) : null;
+        }
+        logger.debug("Merged {} meals with {} readings for user {}", meals.size(), readings, userId);
+    }
+
+    /**
+     * Running state for one meal while readings stream past it.
+     */
+    private static final class ResponseAccumulator {
+        private final MealGlucoseResponseDto meal;
+        private final LocalDateTime mealTime;
+        private final LocalDateTime baselineStart;
+        private final LocalDateTime aucEnd;
+        private final LocalDateTime responseEnd;
+
+        private double baselineSum;
+        private int baselineCount;
+
+        private int postCount;
+        private double peak = Double.NEGATIVE_INFINITY;
+        private LocalDateTime peakTime;
+        private LocalDateTime returnTime;
+
+        // Previous point of the post-meal curve, starting from (meal time, baseline)
+        private LocalDateTime previousTime;
+        private double previousLevel;
+        private double auc;
+
+        private ResponseAccumulator(MealGlucoseResponseDto meal) {
+            this.meal = meal;
+            this.mealTime = meal.getTimeEaten();
+            this.baselineStart = mealTime.minus(BASELINE_WINDOW);
+            this.aucEnd = mealTime.plus(AUC_WINDOW);
+            this.responseEnd = mealTime.plus(RESPONSE_WINDOW);
+        }
+
+        private void add(LocalDateTime time, double level) {
+            if (!time.isAfter(mealTime)) {
+                baselineSum += level;
+                baselineCount++;
+                return;
+            }
+            if (baselineCount == 0) {
+                // Without a baseline none of the incremental metrics are meaningful
+                return;
+            }
+            double baseline = baselineSum / baselineCount;
+            if (previousTime == null) {
+                previousTime = mealTime;
+                previousLevel = baseline;
+            }
+
+            postCount++;
+            if (level > peak) {
+                peak = level;
+                peakTime = time;
+                returnTime = null;
+            } else if (returnTime == null && level <= baseline) {
+                returnTime = time;
+            }
+
+            if (!time.isAfter(aucEnd)) {
+                auc += positiveArea(previousLevel - baseline, level - baseline,
+                        Duration.between(previousTime, time).getSeconds() / 60.0);
+                previousTime = time;
+                previousLevel = level;
+            }
+        }
+
+        private void finish() {
+            if (baselineCount == 0) {
+                return;
+            }
+            meal.setBaseline(baselineSum / baselineCount);
+            meal.setReadingCount(postCount);
+            if (postCount == 0) {
+                return;
+            }
+            meal.setPeak(peak);
+            meal.setMinutesToPeak(Duration.between(mealTime, peakTime).toMinutes());
+            meal.setIncrementalAuc2h(auc);
+            meal.setMinutesToBaseline(returnTime != null ? Duration.between(mealTime, returnTime).toMinutes() : null);
+        }
+
+        /**
+         * Trapezoid area above zero between two deltas from baseline, in mg/dL·min.
+         * When the segment crosses the baseline, only the triangle above it counts.
+         */
+        private static double positiveArea(double d1, double d2, double minutes) {
+            if (d1 >= 0 && d2 >= 0) {
+                return (d1 + d2) / 2 * minutes;
+            }
+            if (d1 <= 0 && d2 <= 0) {
+                return 0;
+            }
+            double up = Math.max(d1, d2);
+            double crossing = minutes * up / (Math.abs(d1) + Math.abs(d2));
+            return up * crossing / 2;
+        }
+    }
+}
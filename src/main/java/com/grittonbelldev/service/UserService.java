@@ -2,11 +2,12 @@ package com.grittonbelldev.service;
 
 import com.grittonbelldev.entity.User;
 import com.grittonbelldev.persistence.GenericDAO;
+import jakarta.persistence.PersistenceException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.exception.ConstraintViolationException;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Service for application-level operations involving User entities.
@@ -26,9 +27,14 @@ public class UserService {
     /**
      * Finds a User by Cognito subject identifier or creates one if not found.
      *
-     * <p>If a matching User is not located using the "cognitoId" field,
+     * <p>The lookup is by natural ID, so a known Cognito ID is usually resolved from the
+     * second-level cache. If a matching User is not located using the "cognitoId" field,
      * a new User is instantiated with placeholder names and the provided email.</p>
      *
+     * <p>Two first requests for the same subject can both miss and both try to insert. The unique
+     * constraint on {@code cognito_id} lets only one insert win; the loser re-reads and returns
+     * the winner's row instead of failing.</p>
+     *
      * @param cognitoSub the Cognito subject (unique identifier)
      * @param email the user's email address
      * @return the existing or newly created User
@@ -36,10 +42,10 @@ public class UserService {
     public User findOrCreateByCognitoId(String cognitoSub, String email) {
         logger.info("Looking up user by Cognito ID: {}", cognitoSub);
 
-        List<User> found = userDao.getByPropertyEqual("cognitoId", cognitoSub);
-        if (!found.isEmpty()) {
+        User found = userDao.getBySimpleNaturalId(cognitoSub);
+        if (found != null) {
             logger.debug("User found with Cognito ID: {}", cognitoSub);
-            return found.get(0);
+            return found;
         }
 
         // This is a new user, so create one with required default values
@@ -49,8 +55,36 @@ public class UserService {
         u.setEmail(email);
         u.setFirstName("New");   // Default placeholder
         u.setLastName("User");   // Default placeholder
-        userDao.insert(u);
-        return u;
+        try {
+            userDao.insert(u);
+            return u;
+        } catch (PersistenceException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            User winner = userDao.getBySimpleNaturalId(cognitoSub);
+            if (winner == null) {
+                // The violation was on another column (e.g. email), not a concurrent insert
+                throw e;
+            }
+            logger.info("User with Cognito ID {} was created concurrently; using existing row", cognitoSub);
+            return winner;
+        }
+    }
+
+    /**
+     * Checks whether an exception was caused by a database constraint violation.
+     *
+     * @param e the exception thrown while writing
+     * @return true if a ConstraintViolationException is in the cause chain
+     */
+    private boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,63 @@
+package com.grittonbelldev.util;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps how many threads may be inside calls to one dependency at the same time.
+ *
+ * <p>Request threads are shared by every endpoint. Without a cap, a slow dependency
+ * can end up holding all of them and starve endpoints that never touch it. A caller
+ * that finds the bulkhead full is refused at once rather than queued.</p>
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final Semaphore permits;
+
+    /**
+     * Creates a bulkhead.
+     *
+     * @param name identifies the protected dependency
+     * @param maxConcurrentCalls the most calls allowed in flight at once
+     */
+    public Bulkhead(String name, int maxConcurrentCalls) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Takes a slot if one is free. A caller that gets {@code true} must call {@link #release()}.
+     *
+     * @return whether a slot was taken
+     */
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    /**
+     * Returns a slot taken by {@link #tryAcquire()}.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Gets the number of calls currently in flight.
+     *
+     * @return the number of slots in use
+     */
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    /**
+     * Gets the name of the protected dependency.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,128 @@
+package com.grittonbelldev.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Stops calling a failing dependency for a while so callers fail fast instead of waiting.
+ *
+ * <ul>
+ *   <li><b>Closed:</b> calls flow. A call that fails, or succeeds but takes longer than the
+ *       slow-call threshold, counts as a failure; any fast success resets the count. After
+ *       {@code failureThreshold} consecutive failures the breaker opens.</li>
+ *   <li><b>Open:</b> calls are refused until {@code openDuration} has passed.</li>
+ *   <li><b>Half-open:</b> one trial call is let through. Its success closes the breaker,
+ *       its failure opens it again for another {@code openDuration}.</li>
+ * </ul>
+ *
+ * Callers ask {@link #tryAcquire()} before the call and report the outcome with
+ * {@link #onSuccess(Duration)} or {@link #onFailure()}.
+ */
+public class CircuitBreaker {
+
+    /** Breaker states. */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration slowCallThreshold;
+    private final long openDurationMs;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param name identifies the protected dependency in log messages
+     * @param failureThreshold consecutive failures that open the breaker
+     * @param slowCallThreshold calls slower than this count as failures
+     * @param openDuration how long the breaker refuses calls once open
+     * @param clock the clock used to time the open period
+     */
+    public CircuitBreaker(String name, int failureThreshold, Duration slowCallThreshold,
+                          Duration openDuration, Clock clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.slowCallThreshold = slowCallThreshold;
+        this.openDurationMs = openDuration.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Asks whether a call may proceed. A caller that gets {@code true} must report the outcome.
+     *
+     * @return whether the call may be made
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openDurationMs) {
+            transitionTo(State.HALF_OPEN);
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records a completed call.
+     *
+     * @param elapsed how long the call took; slow calls are recorded as failures
+     */
+    public synchronized void onSuccess(Duration elapsed) {
+        if (elapsed.compareTo(slowCallThreshold) > 0) {
+            logger.warn("{} call took {} ms", name, elapsed.toMillis());
+            onFailure();
+            return;
+        }
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            trialInFlight = false;
+            openedAt = clock.millis();
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Gets the current state.
+     *
+     * @return the state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            logger.warn("Circuit breaker {}: {} -> {}", name, state, next);
+            state = next;
+        }
+    }
+}
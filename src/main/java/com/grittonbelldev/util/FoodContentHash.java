@@ -0,0 +1,108 @@
+package com.grittonbelldev.util;
+
+import com.grittonbelldev.entity.Food;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Computes the content hash that identifies a food in the shared catalog.
+ *
+ * <p>The hash covers the food name (trimmed, lower-cased, inner whitespace collapsed), every
+ * nutrient value and the notes. Nutrients are rounded to the two decimal places the
+ * {@code Food} columns store, so a value and its stored form hash the same. A missing
+ * nutrient hashes differently from zero. Strings are length-prefixed so no name or note can
+ * be mistaken for a field boundary.</p>
+ */
+public final class FoodContentHash {
+
+    /** Decimal places kept by the nutrient columns. */
+    private static final int NUTRIENT_SCALE = 2;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private FoodContentHash() {}
+
+    /**
+     * Computes the content hash of a food.
+     *
+     * @param food the food; its ID and stored hash are ignored
+     * @return 64 lower-case hex characters
+     */
+    public static String of(Food food) {
+        StringBuilder content = new StringBuilder(128);
+        appendText(content, normalizeName(food.getFoodName()));
+        appendNutrient(content, food.getFat());
+        appendNutrient(content, food.getProtein());
+        appendNutrient(content, food.getCarbs());
+        appendNutrient(content, food.getCalories());
+        appendNutrient(content, food.getCholesterol());
+        appendNutrient(content, food.getSodium());
+        appendNutrient(content, food.getFiber());
+        appendNutrient(content, food.getSugar());
+        appendNutrient(content, food.getAddedSugar());
+        appendNutrient(content, food.getVitaminD());
+        appendNutrient(content, food.getCalcium());
+        appendNutrient(content, food.getIron());
+        appendNutrient(content, food.getPotassium());
+        appendText(content, food.getNotes() == null ? "" : food.getNotes().trim());
+        return sha256(content.toString());
+    }
+
+    /**
+     * Checks whether two names differ only in case or spacing, and so name the same catalog food.
+     *
+     * @param first a name, possibly null
+     * @param second another name, possibly null
+     * @return true when both normalize to the same name
+     */
+    public static boolean sameName(String first, String second) {
+        return normalizeName(first).equals(normalizeName(second));
+    }
+
+    /**
+     * Normalizes a food name for hashing.
+     *
+     * @param name the name as entered, possibly null
+     * @return the trimmed, lower-cased name with runs of whitespace collapsed to one space
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static void appendText(StringBuilder content, String text) {
+        content.append(text.length()).append(':').append(text).append('|');
+    }
+
+    private static void appendNutrient(StringBuilder content, Double value) {
+        if (value == null) {
+            content.append('-');
+        } else {
+            content.append(BigDecimal.valueOf(value).setScale(NUTRIENT_SCALE, RoundingMode.HALF_UP).toPlainString());
+        }
+        content.append('|');
+    }
+
+    private static String sha256(String content) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime is required to provide SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
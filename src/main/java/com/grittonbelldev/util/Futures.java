@@ -0,0 +1,55 @@
+package com.grittonbelldev.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Helpers for working with {@link CompletableFuture} results.
+ *
+ * <p>A failure passed along a chain of stages arrives wrapped in a
+ * {@link CompletionException}. These helpers hand callers the original exception, so a
+ * synchronous caller sees the same exception types as before the call went async.</p>
+ */
+public final class Futures {
+
+    private Futures() {}
+
+    /**
+     * Strips the wrappers a future adds around a failure.
+     *
+     * @param error a failure reported by a future, possibly null
+     * @return the underlying exception, or {@code error} itself if it is not wrapped
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Waits for a future and returns its value, rethrowing an unchecked failure unwrapped.
+     *
+     * @param future the future to wait for
+     * @return the future's value
+     * @throws RuntimeException whatever the future failed with, or a
+     *         {@link CompletionException} wrapping a checked exception
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
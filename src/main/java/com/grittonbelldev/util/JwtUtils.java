@@ -1,26 +1,25 @@
 package com.grittonbelldev.util;
 
-import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.grittonbelldev.auth.CognitoJWTParser;
+import com.grittonbelldev.auth.JwksKeyStore;
+import com.grittonbelldev.auth.JwtVerifier;
 import com.grittonbelldev.auth.Keys;
-import com.grittonbelldev.auth.KeysItem;
+import com.grittonbelldev.dto.CacheStatsDto;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.glassfish.jersey.client.ClientProperties;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.core.MediaType;
-import java.math.BigInteger;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
-import java.security.KeyFactory;
 import java.security.PublicKey;
-import java.security.Signature;
-import java.security.spec.RSAPublicKeySpec;
-import java.util.Base64;
-import java.util.List;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Utility class for validating Cognito JWTs and extracting claims.
@@ -30,7 +29,10 @@ import java.util.Properties;
  * expiration and issuer.</p>
  *
  * <p>The class is used to support secure authentication flows where JWTs are issued
- * by AWS Cognito and verified within this application.</p>
+ * by AWS Cognito and verified within this application. Verification itself is delegated
+ * to a {@link JwtVerifier}, which decodes each token once and caches verified tokens until
+ * they expire. Signing keys come from a {@link JwksKeyStore}, which refreshes the JWKS in
+ * the background so request threads never wait on Cognito at a TTL boundary.</p>
  */
 public class JwtUtils implements PropertiesLoaderProd {
     private static final Logger logger = LogManager.getLogger(JwtUtils.class);
@@ -41,10 +43,25 @@ public class JwtUtils implements PropertiesLoaderProd {
     private static final String ISSUER;
     private static final String JWKS_URL;
 
-    // In-memory cache of keys fetched from Cognito
-    private static Keys cachedKeys;
-    private static long lastFetch;
-    private static final long CACHE_TTL_MS = 60 * 60 * 1000L; // 1 hour
+    // JWKS freshness, and the minimum gap between fetches (also throttles unknown-kid refreshes)
+    private static final Duration JWKS_TTL = Duration.ofHours(1);
+    private static final Duration JWKS_MIN_REFRESH_INTERVAL = Duration.ofSeconds(30);
+    private static final int JWKS_TIMEOUT_MS = 5_000;
+
+    // One HTTP client and one refresh thread for the life of the application
+    private static final Client JWKS_CLIENT = ClientBuilder.newClient()
+            .property(ClientProperties.CONNECT_TIMEOUT, JWKS_TIMEOUT_MS)
+            .property(ClientProperties.READ_TIMEOUT, JWKS_TIMEOUT_MS);
+    private static final ExecutorService JWKS_REFRESHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Upper bound on remembered verified tokens (roughly one per active session)
+    private static final long MAX_CACHED_TOKENS = 10_000;
+
+    private static final JwtVerifier VERIFIER;
 
     // Static initializer to load properties and construct Cognito URLs
     static {
@@ -69,28 +86,28 @@ public class JwtUtils implements PropertiesLoaderProd {
         // Construct issuer and JWKS URL for validation
         ISSUER  = "https://cognito-idp." + REGION + ".amazonaws.com/" + POOL_ID;
         JWKS_URL = ISSUER + "/.well-known/jwks.json";
+
+        JwksKeyStore keyStore = new JwksKeyStore(JwtUtils::fetchJwks, JWKS_TTL, JWKS_MIN_REFRESH_INTERVAL,
+                JWKS_REFRESHER, Clock.systemUTC());
+        VERIFIER = new JwtVerifier(ISSUER, keyStore::getKey, MAX_CACHED_TOKENS, Clock.systemUTC());
     }
 
     // Private constructor to prevent instantiation
     private JwtUtils() {}
 
     /**
-     * Fetches and caches the public keys (JWKs) used by Cognito to sign JWTs.
+     * Downloads the public keys (JWKs) used by Cognito to sign JWTs.
+     * Called by the key store, on its refresh thread, whenever the keys need refreshing.
      *
-     * @return a Keys object containing the current JWKs
+     * @return the current public keys indexed by key ID (kid)
+     * @throws ProcessingException if the JWKS cannot be fetched or parsed
      */
-    private static synchronized Keys fetchJwks() {
-        long now = System.currentTimeMillis();
-        if (cachedKeys == null || now - lastFetch > CACHE_TTL_MS) {
-            // Use JAX-RS client to retrieve the JWKS JSON from Cognito
-            Client client = ClientBuilder.newClient();
-            cachedKeys = client
-                    .target(URI.create(JWKS_URL))
-                    .request(MediaType.APPLICATION_JSON)
-                    .get(Keys.class);
-            lastFetch = now;
-        }
-        return cachedKeys;
+    private static Map<String, PublicKey> fetchJwks() {
+        Keys keys = JWKS_CLIENT
+                .target(URI.create(JWKS_URL))
+                .request(MediaType.APPLICATION_JSON)
+                .get(Keys.class);
+        return JwksKeyStore.toPublicKeys(keys);
     }
 
     /**
@@ -101,84 +118,37 @@ public class JwtUtils implements PropertiesLoaderProd {
      * @throws ProcessingException if the JWT is invalid for any reason
      */
     public static String validateAndGetSubject(String jwt) {
-        // Parse and validate basic format and extract headers
-        CognitoJWTParser.validateJWT(jwt);
-        var headerJson = CognitoJWTParser.getHeader(jwt);
-
-        String kid = headerJson.getString("kid");
-        String alg = headerJson.getString("alg");
-        if (!"RS256".equals(alg)) {
-            logger.info("Invalid algorithm: {}", alg);
-            throw new ProcessingException("Unexpected alg: " + alg);
-
-        }
-
-        // Locate the correct key from the JWK set using the key ID (kid)
-        List<KeysItem> keys = fetchJwks().getKeys();
-        KeysItem match = keys.stream()
-                .filter(k -> kid.equals(k.getKid()))
-                .findFirst()
-                .orElseThrow(() ->
-                        new ProcessingException("No JWK found for kid=" + kid)
-                );
-
-        try {
-            // Decode modulus (n) and exponent (e) to reconstruct RSA public key
-            BigInteger n = new BigInteger(1,
-                    Base64.getUrlDecoder().decode(match.getN()));
-            BigInteger e = new BigInteger(1,
-                    Base64.getUrlDecoder().decode(match.getE()));
-            KeyFactory kf = KeyFactory.getInstance("RSA");
-            PublicKey pub = kf.generatePublic(new RSAPublicKeySpec(n, e));
-
-            // Use RSA key to verify the JWT signature
-            Signature sig = Signature.getInstance("SHA256withRSA");
-            sig.initVerify(pub);
-            String[] parts = jwt.split("\\.");
-            sig.update((parts[0] + "." + parts[1])
-                    .getBytes(StandardCharsets.US_ASCII));
-            if (!sig.verify(Base64.getUrlDecoder().decode(parts[2]))) {
-                logger.info("Invalid signature: {}", parts[2]);
-                throw new ProcessingException("Invalid JWT signature");
-            }
-
-            // Decode payload and check expiration and issuer
-            var payload = CognitoJWTParser.getPayload(jwt);
-            long expMs = payload.getLong("exp") * 1000L;
-            if (System.currentTimeMillis() > expMs) {
-                logger.info("JWT expired: {}", expMs);
-                throw new ProcessingException("JWT expired");
-            }
-
-            String tokenIssuer = payload.getString("iss");
-            if (!ISSUER.equals(tokenIssuer)) {
-                logger.info("Invalid issuer: {}", tokenIssuer);
-                throw new ProcessingException("Invalid issuer: " + tokenIssuer);
-            }
-
-            // Return the subject claim ("sub") from the token
-            return payload.getString("sub");
-
-        } catch (ProcessingException pe) {
-            logger.info("JWT not valid: {}", pe.getMessage());
-            throw pe;
-        } catch (Exception ex) {
-            logger.info("JWT not valid: {}", ex.getMessage());
-            throw new ProcessingException("JWT validation error", ex);
-        }
+        return validate(jwt).getSubject();
     }
 
     /**
      * Validates a JWT and returns a decoded representation of its claims.
+     * A token that was already verified and has not expired is answered from cache.
      *
      * @param token the raw JWT string
      * @return a DecodedJWT object containing claims such as email and sub
      * @throws ProcessingException if validation fails
      */
     public static DecodedJWT validate(String token) {
-        // Perform full validation first
-        validateAndGetSubject(token);
-        // Return decoded token for claim access
-        return JWT.decode(token);
+        return VERIFIER.verify(token);
+    }
+
+    /**
+     * Returns the verified-token cache's size and hit/miss counters.
+     *
+     * @return a statistics snapshot
+     */
+    public static CacheStatsDto verifiedTokenStats() {
+        return VERIFIER.stats();
+    }
+
+    /**
+     * Stops the JWKS refresh thread and closes the shared HTTP client.
+     * Called once when the application shuts down.
+     */
+    public static void shutdown() {
+        JWKS_REFRESHER.shutdownNow();
+        JWKS_CLIENT.close();
+        logger.info("JWKS client closed.");
     }
 }
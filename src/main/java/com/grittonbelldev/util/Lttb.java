@@ -0,0 +1,82 @@
+package com.grittonbelldev.util;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for time series.
+ *
+ * <p>The first and last points are always kept. The points in between are split into
+ * {@code threshold - 2} equal-width buckets, and from each bucket the point that forms
+ * the largest triangle with the previously kept point and the average of the next bucket
+ * is kept. This preserves the visual shape of a series, including its peaks and troughs,
+ * far better than plain averaging or striding.</p>
+ *
+ * <p>Works on primitive arrays only, so a series of tens of thousands of points is
+ * reduced without allocating an object per point.</p>
+ */
+public final class Lttb {
+
+    private Lttb() {}
+
+    /**
+     * Picks the indices of the points to keep.
+     *
+     * @param x the x values (e.g. epoch seconds), ascending
+     * @param y the y values
+     * @param size the number of valid points in the arrays
+     * @param threshold the number of points wanted; values below 3 are treated as 3
+     * @return the kept indices in ascending order; all indices if size is at most threshold
+     */
+    public static int[] downsample(long[] x, double[] y, int size, int threshold) {
+        threshold = Math.max(threshold, 3);
+        if (size <= threshold) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        int keptCount = 0;
+        kept[keptCount++] = 0;
+
+        // Bucket width over the interior points (first and last are fixed)
+        double every = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket, used as the third triangle vertex
+            int nextStart = (int) Math.floor((bucket + 1) * every) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * every) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Pick the point in this bucket with the largest triangle area
+            int start = (int) Math.floor(bucket * every) + 1;
+            int end = (int) Math.floor((bucket + 1) * every) + 1;
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+
+            kept[keptCount++] = maxIndex;
+            a = maxIndex;
+        }
+
+        kept[keptCount] = size - 1;
+        return kept;
+    }
+}
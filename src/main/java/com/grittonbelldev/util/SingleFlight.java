@@ -0,0 +1,97 @@
+package com.grittonbelldev.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical calls into one.
+ *
+ * <p>The first caller for a key runs the call on its own thread. Every caller that arrives
+ * with the same key while that call is running waits for it and receives the same result,
+ * or the same exception. Once the call finishes the key is released, so the next caller
+ * starts a fresh call. Nothing is remembered after that; pair this with a cache when
+ * results should also be reused over time.</p>
+ *
+ * <p>{@link #executeAsync(Object, Supplier)} does the same for calls that return a future,
+ * so no caller's thread waits while the shared call is in flight.</p>
+ *
+ * @param <K> the key type; keys must have value-based equals and hashCode
+ * @param <V> the result type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the call for a key, or joins the one already running for it.
+     *
+     * @param key identifies calls that are interchangeable
+     * @param call produces the result; invoked at most once per flight
+     * @return the result of the call that was in flight, or of this one
+     * @throws RuntimeException whatever the shared call threw
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return Futures.join(running);
+        }
+
+        try {
+            V value = call.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Starts the asynchronous call for a key, or joins the one already in flight for it.
+     *
+     * <p>Each caller gets its own copy of the shared future, so one caller cancelling or
+     * completing its copy does not affect the others.</p>
+     *
+     * @param key identifies calls that are interchangeable
+     * @param call starts the call and returns its future; invoked at most once per flight
+     * @return a future completing with the shared call's result or failure
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return running.copy();
+        }
+
+        CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException | Error e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            // Release the key first so a caller arriving after completion starts a fresh call
+            inFlight.remove(key, mine);
+            if (error != null) {
+                mine.completeExceptionally(Futures.unwrap(error));
+            } else {
+                mine.complete(value);
+            }
+        });
+        return mine.copy();
+    }
+
+    /**
+     * Gets the number of calls currently running.
+     *
+     * @return the number of keys with a call in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
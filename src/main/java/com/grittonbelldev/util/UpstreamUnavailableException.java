@@ -0,0 +1,17 @@
+package com.grittonbelldev.util;
+
+/**
+ * Thrown instead of calling an external service when its circuit breaker is open or its
+ * bulkhead is full. Callers that have a cached or local answer should fall back to it.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message why the call was refused
+     */
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.grittonbelldev.api;
+
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.WebApplicationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryParamsTest {
+
+    @Test
+    void omittedAndBlankParametersParseToNull() {
+        assertNull(QueryParams.parseTime("to", null));
+        assertNull(QueryParams.parseTime("to", ""));
+        assertNull(QueryParams.parseDate("to", null));
+        assertNull(QueryParams.parseDate("to", " "));
+    }
+
+    @Test
+    void validParametersParse() {
+        assertEquals(LocalDateTime.of(2025, 3, 1, 8, 30), QueryParams.parseTime("from", "2025-03-01T08:30"));
+        assertEquals(LocalDate.of(2025, 3, 1), QueryParams.parseDate("from", "2025-03-01"));
+    }
+
+    @Test
+    void malformedParametersAreBadRequests() {
+        WebApplicationException time = assertThrows(WebApplicationException.class,
+                () -> QueryParams.parseTime("from", "yesterday"));
+        WebApplicationException date = assertThrows(WebApplicationException.class,
+                () -> QueryParams.parseDate("from", "2025-03-01T08:30"));
+
+        assertEquals(400, time.getResponse().getStatus());
+        assertEquals(400, date.getResponse().getStatus());
+    }
+}
@@ -0,0 +1,88 @@
+package com.grittonbelldev.auth;
+
+import com.grittonbelldev.dto.CacheStatsDto;
+import com.grittonbelldev.entity.User;
+import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.persistence.SessionFactoryProvider;
+import com.grittonbelldev.service.UserService;
+import com.grittonbelldev.util.Database;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CognitoUserCacheTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private CognitoUserCache cache;
+    private GenericDAO<User> userDAO;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        logger.info("Setting up CognitoUserCacheTest...");
+        cache = new CognitoUserCache(new UserService(), 100, Duration.ofMinutes(5));
+        userDAO = new GenericDAO<>(User.class);
+        Database.getInstance().runSQL("cleanDB.sql");
+
+        statistics = SessionFactoryProvider.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void resolveUserIdHitSkipsDatabase() {
+        assertEquals(1L, cache.resolveUserId("user-001", "john.doe@example.com"));
+        long statementsAfterMiss = statistics.getPrepareStatementCount();
+
+        assertEquals(1L, cache.resolveUserId("user-001", "john.doe@example.com"));
+
+        assertEquals(statementsAfterMiss, statistics.getPrepareStatementCount());
+        CacheStatsDto stats = cache.stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void resolveUserIdConcurrentFirstRequestsCreateOneUser() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        try {
+            List<Callable<Void>> calls = IntStream.range(0, threads)
+                    .mapToObj(i -> (Callable<Void>) () -> {
+                        start.await();
+                        ids.add(cache.resolveUserId("new-sub", "new.user@example.com"));
+                        return null;
+                    })
+                    .collect(Collectors.toList());
+            List<Future<Void>> futures = calls.stream().map(pool::submit).collect(Collectors.toList());
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, ids.size());
+        assertEquals(1, userDAO.getByPropertyEqual("cognitoId", "new-sub").size());
+    }
+}
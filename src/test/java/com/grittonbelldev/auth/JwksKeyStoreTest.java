@@ -0,0 +1,233 @@
+package com.grittonbelldev.auth;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.ProcessingException;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeyStoreTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private static final Instant NOW = Instant.parse("2024-02-17T12:00:00Z");
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final Duration MIN_INTERVAL = Duration.ofSeconds(30);
+
+    private PublicKey oldKey;
+    private PublicKey newKey;
+    private MutableClock clock;
+    private QueuedExecutor executor;
+    private AtomicInteger fetches;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        logger.info("Setting up JwksKeyStoreTest...");
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        oldKey = generator.generateKeyPair().getPublic();
+        newKey = generator.generateKeyPair().getPublic();
+        clock = new MutableClock(NOW);
+        executor = new QueuedExecutor();
+        fetches = new AtomicInteger();
+    }
+
+    @Test
+    void firstLookupLoadsKeys() {
+        JwksKeyStore store = store(() -> Map.of("kid-1", oldKey));
+        executor.runImmediately = true;
+
+        assertSame(oldKey, store.getKey("kid-1"));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void firstLookupFailsWhenKeysCannotBeLoaded() {
+        JwksKeyStore store = store(() -> {
+            throw new ProcessingException("connection refused");
+        });
+        executor.runImmediately = true;
+
+        assertThrows(ProcessingException.class, () -> store.getKey("kid-1"));
+    }
+
+    @Test
+    void failedFirstLoadIsRetriedOncePerInterval() {
+        JwksKeyStore store = store(() -> {
+            throw new ProcessingException("connection refused");
+        });
+        executor.runImmediately = true;
+
+        assertThrows(ProcessingException.class, () -> store.getKey("kid-1"));
+        assertThrows(ProcessingException.class, () -> store.getKey("kid-1"));
+        assertThrows(ProcessingException.class, () -> store.getKey("kid-1"));
+        assertEquals(1, fetches.get());
+
+        clock.advance(MIN_INTERVAL);
+        assertThrows(ProcessingException.class, () -> store.getKey("kid-1"));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void staleKeysAreServedWhileRefreshRuns() {
+        Map<String, PublicKey> rotated = Map.of("kid-1", newKey);
+        JwksKeyStore store = loadedStore(() -> rotated);
+
+        clock.advance(TTL.plusSeconds(1));
+
+        // The refresh is queued, not run, so the lookup must be answered from the old set
+        assertSame(oldKey, store.getKey("kid-1"));
+        assertEquals(1, executor.pending());
+
+        executor.runAll();
+        assertSame(newKey, store.getKey("kid-1"));
+    }
+
+    @Test
+    void concurrentStaleLookupsShareOneRefresh() {
+        JwksKeyStore store = loadedStore(() -> Map.of("kid-1", newKey));
+
+        clock.advance(TTL.plusSeconds(1));
+        for (int i = 0; i < 10; i++) {
+            store.getKey("kid-1");
+        }
+
+        assertEquals(1, executor.pending());
+        executor.runAll();
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void failedBackgroundRefreshKeepsOldKeys() {
+        JwksKeyStore store = loadedStore(() -> {
+            throw new ProcessingException("connection refused");
+        });
+
+        clock.advance(TTL.plusSeconds(1));
+        store.getKey("kid-1");
+        executor.runAll();
+
+        assertSame(oldKey, store.getKey("kid-1"));
+    }
+
+    @Test
+    void unknownKidTriggersRefresh() {
+        JwksKeyStore store = loadedStore(() -> Map.of("kid-1", oldKey, "kid-2", newKey));
+        executor.runImmediately = true;
+
+        clock.advance(MIN_INTERVAL);
+
+        assertSame(newKey, store.getKey("kid-2"));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void unknownKidRefreshesAreThrottled() {
+        JwksKeyStore store = loadedStore(() -> Map.of("kid-1", oldKey));
+        executor.runImmediately = true;
+
+        clock.advance(MIN_INTERVAL);
+        assertNull(store.getKey("bogus"));
+        assertNull(store.getKey("bogus"));
+        assertNull(store.getKey("bogus"));
+        assertEquals(2, fetches.get());
+
+        clock.advance(MIN_INTERVAL);
+        assertNull(store.getKey("bogus"));
+        assertEquals(3, fetches.get());
+    }
+
+    /**
+     * Builds a store whose first fetch returns {@code kid-1 -> oldKey} and whose later
+     * fetches use the given supplier, then performs that first fetch.
+     */
+    private JwksKeyStore loadedStore(Supplier<Map<String, PublicKey>> refreshed) {
+        Queue<Supplier<Map<String, PublicKey>>> responses = new ArrayDeque<>();
+        responses.add(() -> Map.of("kid-1", oldKey));
+        JwksKeyStore store = store(() -> (responses.isEmpty() ? refreshed : responses.poll()).get());
+
+        executor.runImmediately = true;
+        assertSame(oldKey, store.getKey("kid-1"));
+        executor.runImmediately = false;
+        return store;
+    }
+
+    private JwksKeyStore store(Supplier<Map<String, PublicKey>> fetcher) {
+        return new JwksKeyStore(() -> {
+            fetches.incrementAndGet();
+            return fetcher.get();
+        }, TTL, MIN_INTERVAL, executor, clock);
+    }
+
+    /**
+     * Executor that either runs tasks on the calling thread or holds them until the test runs them.
+     */
+    private static final class QueuedExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean runImmediately;
+
+        @Override
+        public void execute(Runnable task) {
+            if (runImmediately) {
+                task.run();
+            } else {
+                tasks.add(task);
+            }
+        }
+
+        private int pending() {
+            return tasks.size();
+        }
+
+        private void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * Clock whose instant the test can move forward.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            this.instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.grittonbelldev.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the per-request cost of authenticating a bearer token.
+ *
+ * <ul>
+ *   <li>{@code legacyValidate}: the previous pipeline, which parsed the token with org.json,
+ *       rebuilt the RSA key from its modulus and exponent, verified, then decoded again.</li>
+ *   <li>{@code verifyUncached}: the new single-decode pipeline with a prebuilt key (first request).</li>
+ *   <li>{@code verifyCached}: a repeat request with the same token, answered from the verified-token cache.</li>
+ * </ul>
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.grittonbelldev.auth.JwtVerifierBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifierBenchmark {
+
+    private static final String ISSUER = "https://cognito-idp.us-east-2.amazonaws.com/bench-pool";
+    private static final String KID = "bench-kid";
+
+    private String token;
+    private String modulus;
+    private String exponent;
+    private JwtVerifier verifier;
+
+    /**
+     * Generates a signing key, a realistic ID token, and a verifier with the token already cached.
+     *
+     * @throws Exception if key generation fails
+     */
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+
+        token = JWT.create()
+                .withKeyId(KID)
+                .withIssuer(ISSUER)
+                .withSubject("0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0")
+                .withClaim("email", "user@example.com")
+                .withClaim("token_use", "id")
+                .withExpiresAt(Date.from(Instant.now().plusSeconds(3600)))
+                .sign(Algorithm.RSA256(publicKey, (RSAPrivateKey) keyPair.getPrivate()));
+
+        // The JWK form of the key, as the legacy path received it
+        modulus = Base64.getUrlEncoder().withoutPadding().encodeToString(publicKey.getModulus().toByteArray());
+        exponent = Base64.getUrlEncoder().withoutPadding().encodeToString(publicKey.getPublicExponent().toByteArray());
+
+        verifier = new JwtVerifier(ISSUER, kid -> KID.equals(kid) ? publicKey : null, 1_000, Clock.systemUTC());
+        verifier.verify(token);
+    }
+
+    /**
+     * The pipeline this change replaced.
+     *
+     * @return the decoded token
+     * @throws Exception if verification fails
+     */
+    @Benchmark
+    public DecodedJWT legacyValidate() throws Exception {
+        CognitoJWTParser.validateJWT(token);
+        JSONObject header = CognitoJWTParser.getHeader(token);
+        if (!KID.equals(header.getString("kid")) || !"RS256".equals(header.getString("alg"))) {
+            throw new IllegalStateException("unexpected header");
+        }
+
+        BigInteger n = new BigInteger(1, Base64.getUrlDecoder().decode(modulus));
+        BigInteger e = new BigInteger(1, Base64.getUrlDecoder().decode(exponent));
+        PublicKey pub = KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(n, e));
+
+        Signature sig = Signature.getInstance("SHA256withRSA");
+        sig.initVerify(pub);
+        String[] parts = token.split("\\.");
+        sig.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+        if (!sig.verify(Base64.getUrlDecoder().decode(parts[2]))) {
+            throw new IllegalStateException("bad signature");
+        }
+
+        JSONObject payload = CognitoJWTParser.getPayload(token);
+        if (System.currentTimeMillis() > payload.getLong("exp") * 1000L
+                || !ISSUER.equals(payload.getString("iss"))) {
+            throw new IllegalStateException("bad claims");
+        }
+        return JWT.decode(token);
+    }
+
+    /**
+     * First request with a token: full single-decode verification.
+     *
+     * @return the decoded token
+     */
+    @Benchmark
+    public DecodedJWT verifyUncached() {
+        return verifier.verifyUncached(token);
+    }
+
+    /**
+     * Repeat request with the same token.
+     *
+     * @return the decoded token
+     */
+    @Benchmark
+    public DecodedJWT verifyCached() {
+        return verifier.verify(token);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerifierBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.grittonbelldev.auth;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.ProcessingException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private static final String ISSUER = "https://cognito-idp.us-east-2.amazonaws.com/test-pool";
+    private static final String KID = "test-kid";
+    private static final Instant NOW = Instant.parse("2024-02-17T12:00:00Z");
+
+    private KeyPair keyPair;
+    private MutableClock clock;
+    private AtomicInteger keyLookups;
+    private JwtVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        logger.info("Setting up JwtVerifierTest...");
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        clock = new MutableClock(NOW);
+        keyLookups = new AtomicInteger();
+        verifier = new JwtVerifier(ISSUER, kid -> {
+            keyLookups.incrementAndGet();
+            return KID.equals(kid) ? keyPair.getPublic() : null;
+        }, 100, clock);
+    }
+
+    @Test
+    void verifyAcceptsValidToken() {
+        DecodedJWT jwt = verifier.verify(sign(KID, ISSUER, NOW.plusSeconds(3600)));
+
+        assertEquals("sub-123", jwt.getSubject());
+        assertEquals("user@example.com", jwt.getClaim("email").asString());
+    }
+
+    @Test
+    void verifyAnswersRepeatTokenFromCache() {
+        String token = sign(KID, ISSUER, NOW.plusSeconds(3600));
+
+        verifier.verify(token);
+        DecodedJWT again = verifier.verify(token);
+
+        assertEquals("sub-123", again.getSubject());
+        assertEquals(1, keyLookups.get());
+        assertEquals(1, verifier.stats().getHitCount());
+        assertEquals(1, verifier.stats().getMissCount());
+    }
+
+    @Test
+    void verifyRejectsCachedTokenAfterExpiry() {
+        String token = sign(KID, ISSUER, NOW.plusSeconds(60));
+        verifier.verify(token);
+
+        clock.set(NOW.plusSeconds(61));
+
+        assertThrows(ProcessingException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verifyRejectsExpiredToken() {
+        assertThrows(ProcessingException.class, () -> verifier.verify(sign(KID, ISSUER, NOW.minusSeconds(1))));
+    }
+
+    @Test
+    void verifyRejectsWrongIssuer() {
+        assertThrows(ProcessingException.class,
+                () -> verifier.verify(sign(KID, "https://example.com/other-pool", NOW.plusSeconds(3600))));
+    }
+
+    @Test
+    void verifyRejectsUnknownKid() {
+        assertThrows(ProcessingException.class, () -> verifier.verify(sign("other-kid", ISSUER, NOW.plusSeconds(3600))));
+    }
+
+    @Test
+    void verifyRejectsTamperedPayload() {
+        String[] parts = sign(KID, ISSUER, NOW.plusSeconds(3600)).split("\\.");
+        String forged = sign(KID, ISSUER, NOW.plusSeconds(7200)).split("\\.")[1];
+
+        assertThrows(ProcessingException.class, () -> verifier.verify(parts[0] + "." + forged + "." + parts[2]));
+    }
+
+    @Test
+    void verifyRejectsNonRsaAlgorithm() {
+        String token = JWT.create()
+                .withKeyId(KID)
+                .withIssuer(ISSUER)
+                .withSubject("sub-123")
+                .withExpiresAt(Date.from(NOW.plusSeconds(3600)))
+                .sign(Algorithm.HMAC256("secret"));
+
+        assertThrows(ProcessingException.class, () -> verifier.verify(token));
+    }
+
+    @Test
+    void verifyRejectsMalformedToken() {
+        assertThrows(ProcessingException.class, () -> verifier.verify("not-a-jwt"));
+    }
+
+    private String sign(String kid, String issuer, Instant expiresAt) {
+        return JWT.create()
+                .withKeyId(kid)
+                .withIssuer(issuer)
+                .withSubject("sub-123")
+                .withClaim("email", "user@example.com")
+                .withExpiresAt(Date.from(expiresAt))
+                .sign(Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+    }
+
+    /**
+     * Clock whose instant the test can move forward.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
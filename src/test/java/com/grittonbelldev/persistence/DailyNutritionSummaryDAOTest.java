@@ -0,0 +1,62 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.dto.DailyNutritionDto;
+import com.grittonbelldev.entity.FoodMealJournal;
+import com.grittonbelldev.util.Database;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyNutritionSummaryDAOTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private static final LocalDate SEED_DAY = LocalDate.of(2024, 2, 17);
+    private DailyNutritionSummaryDao summaryDao;
+    private GenericDAO<FoodMealJournal> foodMealJournalDAO;
+
+    @BeforeEach
+    void setUp() {
+        logger.info("Setting up DailyNutritionSummaryDAOTest...");
+        summaryDao = new DailyNutritionSummaryDao();
+        foodMealJournalDAO = new GenericDAO<>(FoodMealJournal.class);
+        Database.getInstance().runSQL("cleanDB.sql");
+    }
+
+    @Test
+    void findForUserReturnsServingWeightedTotals() {
+        List<DailyNutritionDto> days = summaryDao.findForUser(1L, SEED_DAY, SEED_DAY);
+
+        // Oatmeal x1.5 + Avocado Toast x2
+        assertEquals(1, days.size());
+        DailyNutritionDto day = days.get(0);
+        assertEquals(SEED_DAY, day.getDate());
+        assertEquals(1, day.getMealCount());
+        assertEquals(631.0, day.getCalories(), 0.01);
+        assertEquals(19.0, day.getProtein(), 0.01);
+        assertEquals(32.5, day.getFat(), 0.01);
+        assertEquals(76.5, day.getCarbs(), 0.01);
+    }
+
+    @Test
+    void findForUserOutsideRangeReturnsNothing() {
+        assertTrue(summaryDao.findForUser(1L, SEED_DAY.plusDays(1), SEED_DAY.plusDays(7)).isEmpty());
+    }
+
+    @Test
+    void rebuildAllPicksUpJournalEditsMadeOutsideMealDao() {
+        FoodMealJournal entry = foodMealJournalDAO.getById(1L);
+        entry.setServingSize(3.0);
+        foodMealJournalDAO.update(entry);
+
+        int rows = summaryDao.rebuildAll();
+
+        assertEquals(3, rows);
+        // Oatmeal x3 + Avocado Toast x2
+        assertEquals(862.0, summaryDao.findForUser(1L, SEED_DAY, SEED_DAY).get(0).getCalories(), 0.01);
+    }
+}
@@ -1,5 +1,6 @@
 package com.grittonbelldev.persistence;
 
+import com.grittonbelldev.dto.FoodResponseDto;
 import com.grittonbelldev.entity.FavoriteItem;
 import com.grittonbelldev.entity.User;
 import com.grittonbelldev.entity.Meal;
@@ -114,4 +115,15 @@ class FavoriteItemDAOTest {
         assertFalse(items.isEmpty());
         assertEquals(4, items.size());
     }
+
+    @Test
+    void findFavoriteFoodDtos() {
+        List<FoodResponseDto> foods = new FavoriteDao().findFavoriteFoodDtos(1L);
+        Food expected = foodDAO.getById(3L);
+
+        assertEquals(1, foods.size());
+        assertEquals(expected.getId(), foods.get(0).getId());
+        assertEquals(expected.getFoodName(), foods.get(0).getFoodName());
+        assertEquals(expected.getCalories(), foods.get(0).getCalories());
+    }
 }
@@ -0,0 +1,93 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.dto.MealResponseDto;
+import com.grittonbelldev.entity.Food;
+import com.grittonbelldev.entity.FoodMealJournal;
+import com.grittonbelldev.entity.Meal;
+import com.grittonbelldev.util.Database;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of loading a user's meals before and after the food catalog merge.
+ *
+ * <p>Meal 1 of the test database gets the same banana logged {@link #copies} times through
+ * the old insert-per-entry path. With {@code catalog = duplicated} every entry keeps its own
+ * Food row; with {@code catalog = merged} {@link FoodDao#mergeDuplicates()} has collapsed
+ * them to one.</p>
+ *
+ * Needs the test database from {@code cleanDB.sql}. Run with {@code mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=com.grittonbelldev.persistence.FoodCatalogBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodCatalogBenchmark {
+
+    @Param({"duplicated", "merged"})
+    public String catalog;
+
+    @Param({"200"})
+    public int copies;
+
+    private MealDao mealDao;
+
+    /**
+     * Resets the test database and logs the duplicated foods.
+     */
+    @Setup
+    public void setUp() {
+        Database.getInstance().runSQL("cleanDB.sql");
+        Meal meal = new GenericDAO<>(Meal.class).getById(1L);
+        GenericDAO<Food> foodDao = new GenericDAO<>(Food.class);
+        GenericDAO<FoodMealJournal> journalDao = new GenericDAO<>(FoodMealJournal.class);
+        for (int i = 0; i < copies; i++) {
+            Food banana = new Food("Banana", 0.4, 1.3, 27.0, 105.0);
+            journalDao.insert(new FoodMealJournal(meal, foodDao.insert(banana), 1.0));
+        }
+        if ("merged".equals(catalog)) {
+            new FoodDao().mergeDuplicates();
+        }
+        mealDao = new MealDao();
+    }
+
+    /**
+     * Loads the first page of user 1's meals.
+     *
+     * @return the meals
+     */
+    @Benchmark
+    public List<MealResponseDto> loadMealPage() {
+        return mealDao.findMealPageForUser(1L, null, 50);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FoodCatalogBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,13 +1,28 @@
 package com.grittonbelldev.persistence;
 
+import com.grittonbelldev.entity.FavoriteItem;
 import com.grittonbelldev.entity.Food;
+import com.grittonbelldev.entity.FoodMealJournal;
+import com.grittonbelldev.entity.Meal;
+import com.grittonbelldev.entity.User;
 import com.grittonbelldev.util.Database;
+import com.grittonbelldev.util.FoodContentHash;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -48,6 +63,45 @@ class FoodDAOTest {
         assertEquals(expectedFood, retrievedFood);
     }
 
+    @Test
+    void getByIdRepeatReadIsServedFromSecondLevelCache() {
+        Statistics statistics = SessionFactoryProvider.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        foodDAO.getById(3L);
+        long statementsAfterMiss = statistics.getPrepareStatementCount();
+        Food cached = foodDAO.getById(3L);
+
+        assertEquals("Salmon with Steamed Broccoli", cached.getFoodName());
+        assertEquals(statementsAfterMiss, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("food").getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("food").getMissCount());
+    }
+
+    @Test
+    void getByIdsLoadsAllRowsInOneQuery() {
+        Statistics statistics = SessionFactoryProvider.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        Map<Long, Food> foods = foodDAO.getByIds(List.of(1L, 2L, 3L, 3L, 99L));
+
+        assertEquals(Set.of(1L, 2L, 3L), foods.keySet());
+        assertEquals("Salmon with Steamed Broccoli", foods.get(3L).getFoodName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getByIdsWithNoIdsSkipsDatabase() {
+        Statistics statistics = SessionFactoryProvider.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        assertTrue(foodDAO.getByIds(List.<Long>of()).isEmpty());
+        assertEquals(0, statistics.getSessionOpenCount());
+    }
+
     @Test
     void updateSuccess() {
         Food foodToUpdate = foodDAO.getById(3);
@@ -128,4 +182,156 @@ class FoodDAOTest {
             assertTrue(List.of(expectedFoodNames).contains(food.getFoodName()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Logs the same banana 200 times through the old insert-per-entry path, then merges the
+     * duplicates: the Food table and the rows one user's journal joins against shrink, while
+     * every journal entry and the user's meal listing stay the same.
+     */
+    @Test
+    void mergeDuplicatesCollapsesRepeatedFoods() {
+        int copies = 200;
+        Meal meal = new GenericDAO<>(Meal.class).getById(1L);
+        GenericDAO<FoodMealJournal> journalDAO = new GenericDAO<>(FoodMealJournal.class);
+        for (int i = 0; i < copies; i++) {
+            Food banana = foodDAO.insert(banana());
+            journalDAO.insert(new FoodMealJournal(meal, banana, 1.0));
+        }
+        int entriesBefore = journalDAO.getAll().size();
+
+        int foodsBefore = foodDAO.getAll().size();
+        long joinedBefore = countFoodsJoinedByUser(1L);
+
+        int removed = new FoodDao().mergeDuplicates();
+
+        int foodsAfter = foodDAO.getAll().size();
+        long joinedAfter = countFoodsJoinedByUser(1L);
+        logger.info("Food rows: {} -> {}, foods joined by user 1: {} -> {}",
+                foodsBefore, foodsAfter, joinedBefore, joinedAfter);
+
+        assertEquals(copies - 1, removed);
+        assertEquals(5 + copies, foodsBefore);
+        assertEquals(6, foodsAfter);
+        assertEquals(2 + copies, joinedBefore);
+        assertEquals(3, joinedAfter);
+        // Every journal entry survives, now pointing at the one kept row
+        assertEquals(entriesBefore, journalDAO.getAll().size());
+        assertEquals(2 + copies, new MealDao().findMealPageForUser(1L, null, 50).get(0).getFoods().size());
+        assertTrue(foodDAO.getAll().stream().allMatch(food -> food.getContentHash() != null));
+    }
+
+    @Test
+    void mergeDuplicatesKeepsRowAlreadyInCatalog() {
+        Food legacy = foodDAO.insert(banana());
+        Food cataloged = insertThroughCatalog(banana());
+
+        new FoodDao().mergeDuplicates();
+
+        assertNull(foodDAO.getById(legacy.getId()));
+        assertEquals(FoodContentHash.of(banana()), foodDAO.getById(cataloged.getId()).getContentHash());
+    }
+
+    @Test
+    void mergeDuplicatesEvictsDeletedRowsFromCache() {
+        Food kept = foodDAO.insert(banana());
+        Food duplicate = foodDAO.insert(banana());
+        assertNotNull(foodDAO.getById(duplicate.getId()));
+
+        new FoodDao().mergeDuplicates();
+
+        assertNull(foodDAO.getById(duplicate.getId()));
+        assertEquals(FoodContentHash.of(banana()), foodDAO.getById(kept.getId()).getContentHash());
+    }
+
+    @Test
+    void mergeDuplicatesCollapsesRepeatedFavorites() {
+        User user = new GenericDAO<>(User.class).getById(1L);
+        GenericDAO<FavoriteItem> favoriteDAO = new GenericDAO<>(FavoriteItem.class);
+        Food first = foodDAO.insert(banana());
+        Food second = foodDAO.insert(banana());
+        favoriteDAO.insert(new FavoriteItem(user, null, first, true));
+        favoriteDAO.insert(new FavoriteItem(user, null, second, true));
+
+        new FoodDao().mergeDuplicates();
+
+        List<FavoriteItem> favorites = favoriteDAO.getByPropertyEqual("food.id", first.getId());
+        assertEquals(1, favorites.size());
+        assertNull(foodDAO.getById(second.getId()));
+    }
+
+    @Test
+    void findOrInsertReusesStoredFood() {
+        Food stored = insertThroughCatalog(banana());
+
+        Food again = insertThroughCatalog(banana());
+
+        assertEquals(stored.getId(), again.getId());
+        assertEquals(1, foodDAO.getByPropertyEqual("foodName", "Banana").size());
+    }
+
+    @Test
+    void findOrInsertConcurrentInsertsShareOneRow() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        try (Session first = SessionFactoryProvider.getSessionFactory().openSession()) {
+            Transaction transaction = first.beginTransaction();
+            Food firstBanana = new FoodDao().findOrInsert(first, List.of(banana())).values().iterator().next();
+
+            // The second insert waits on the first transaction's index lock, then reuses its row
+            Future<Food> second = pool.submit(() -> {
+                started.countDown();
+                return insertThroughCatalog(banana());
+            });
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            awaitLockWait();
+            assertFalse(second.isDone());
+            transaction.commit();
+
+            assertEquals(firstBanana.getId(), second.get(30, TimeUnit.SECONDS).getId());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, foodDAO.getByPropertyEqual("foodName", "Banana").size());
+    }
+
+    private Food insertThroughCatalog(Food food) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            Transaction transaction = session.beginTransaction();
+            Map<String, Food> catalog = new FoodDao().findOrInsert(session, List.of(food));
+            transaction.commit();
+            return catalog.get(food.getContentHash());
+        }
+    }
+
+    /**
+     * Blocks until some InnoDB transaction is waiting for a row lock.
+     */
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            while (session.createNativeQuery(
+                            "select count(*) from information_schema.innodb_trx where trx_state = 'LOCK WAIT'",
+                            Long.class)
+                    .getSingleResult() == 0) {
+                assertTrue(System.currentTimeMillis() < deadline, "second insert never blocked");
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private long countFoodsJoinedByUser(long userId) {
+        try (Session session = SessionFactoryProvider.getSessionFactory().openSession()) {
+            return session.createQuery(
+                            "select count(distinct f.id) from FoodMealJournal e join e.food f "
+                                    + "where e.meal.user.id = :userId", Long.class)
+                    .setParameter("userId", userId)
+                    .getSingleResult();
+        }
+    }
+
+    private static Food banana() {
+        Food banana = new Food("Banana", 0.4, 1.3, 27.0, 105.0);
+        banana.setPotassium(422.0);
+        return banana;
+    }
+}
@@ -1,14 +1,17 @@
 package com.grittonbelldev.persistence;
 
+import com.grittonbelldev.dto.GlucoseResponseDto;
 import com.grittonbelldev.entity.GlucoseReading;
 import com.grittonbelldev.entity.User;
 import com.grittonbelldev.util.Database;
+import com.grittonbelldev.util.PageCursor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -92,4 +95,48 @@ class GlucoseReadingDAOTest {
         List<GlucoseReading> manual = glucoseReadingDAO.getByPropertyEqual("measurementSource", "Manual");
         assertEquals(2, manual.size());
     }
+
+    @Test
+    void findPageForUserWalksAllReadingsOnce() {
+        // Several readings share a timestamp so the id tie-breaker is exercised
+        User user = userDAO.getById(1L);
+        LocalDateTime shared = LocalDateTime.of(2024, 2, 18, 9, 0);
+        for (int i = 0; i < 5; i++) {
+            glucoseReadingDAO.insert(new GlucoseReading(user, 100.0 + i, shared, "Dexcom", null));
+        }
+
+        GlucoseReadingDao readingDao = new GlucoseReadingDao();
+        List<Long> seen = new ArrayList<>();
+        PageCursor cursor = null;
+        List<GlucoseResponseDto> page;
+        do {
+            page = readingDao.findPageForUser(1L, null, null, cursor, 2);
+            for (GlucoseResponseDto reading : page) {
+                seen.add(reading.getId());
+            }
+            if (!page.isEmpty()) {
+                GlucoseResponseDto last = page.get(page.size() - 1);
+                cursor = PageCursor.decode(new PageCursor(last.getMeasurementTime(), last.getId()).encode());
+            }
+        } while (page.size() == 2);
+
+        assertEquals(7, seen.size());
+        assertEquals(7, seen.stream().distinct().count());
+        assertEquals(1L, seen.get(6).longValue());
+    }
+
+    @Test
+    void findPageForUserWithinRange() {
+        GlucoseReadingDao readingDao = new GlucoseReadingDao();
+        LocalDateTime from = LocalDateTime.of(2024, 2, 17, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 17, 13, 0);
+
+        List<GlucoseResponseDto> readings = readingDao.findPageForUser(1L, from, to, null, 10);
+
+        assertEquals(1, readings.size());
+        assertEquals(145.2, readings.get(0).getGlucoseLevel(), 0.01);
+
+        // The upper bound is exclusive
+        assertTrue(readingDao.findPageForUser(1L, from, readings.get(0).getMeasurementTime(), null, 10).isEmpty());
+    }
 }
@@ -1,11 +1,14 @@
 package com.grittonbelldev.persistence;
 
+import com.grittonbelldev.dto.FoodEntryDto;
+import com.grittonbelldev.dto.MealResponseDto;
 import com.grittonbelldev.entity.Meal;
 import com.grittonbelldev.entity.User;
 import com.grittonbelldev.entity.FoodMealJournal;
 import com.grittonbelldev.util.Database;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -121,4 +124,62 @@ class MealDAOTest {
         assertEquals(1, meals.size());
         assertEquals(expectedMeal.getMealName(), meals.get(0).getMealName());
     }
+
+    @Test
+    void findMealPageForUserMatchesEntityGraph() {
+        MealDao mealDao = new MealDao();
+        Meal expected = mealDao.findByIdWithEntries(1L);
+        Statistics statistics = SessionFactoryProvider.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<MealResponseDto> meals = mealDao.findMealPageForUser(1L, null, 10);
+
+        // One keyset query for the page's meal IDs, one projection for their foods
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, meals.size());
+
+        MealResponseDto meal = meals.get(0);
+        assertEquals(expected.getId(), meal.getId());
+        assertEquals(expected.getMealName(), meal.getMealName());
+        assertEquals(expected.getTimeEaten(), meal.getTimeEaten());
+        assertEquals(expected.getFoodMealEntries().size(), meal.getFoods().size());
+        for (FoodEntryDto food : meal.getFoods()) {
+            assertTrue(expected.getFoodMealEntries().stream().anyMatch(e ->
+                    e.getFood().getId().equals(food.getFoodId())
+                            && e.getFood().getFoodName().equals(food.getFoodName())
+                            && e.getServingSize().equals(food.getServingSize())));
+        }
+    }
+
+    @Test
+    void findMealDtoForUserChecksOwnership() {
+        MealDao mealDao = new MealDao();
+
+        assertNotNull(mealDao.findMealDtoForUser(1L, 1L));
+        assertNull(mealDao.findMealDtoForUser(2L, 1L));
+    }
+
+    @Test
+    void findMealPageKeepsMealsWithoutEntries() {
+        Meal empty = new Meal(new GenericDAO<>(User.class).getById(1L), "Empty", LocalDateTime.now(), false);
+        mealDAO.insert(empty);
+
+        List<MealResponseDto> meals = new MealDao().findMealPageForUser(1L, null, 10);
+
+        assertEquals(2, meals.size());
+        assertEquals(empty.getId(), meals.get(0).getId());
+        assertTrue(meals.get(0).getFoods().isEmpty());
+        assertEquals(2, meals.get(1).getFoods().size());
+    }
+
+    @Test
+    void findFavoriteMealDtos() {
+        List<MealResponseDto> meals = new MealDao().findFavoriteMealDtos(1L);
+
+        assertEquals(1, meals.size());
+        assertEquals(1L, meals.get(0).getId().longValue());
+        assertEquals(2, meals.get(0).getFoods().size());
+    }
 }
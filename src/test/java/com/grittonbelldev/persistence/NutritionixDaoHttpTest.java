@@ -0,0 +1,228 @@
+package com.grittonbelldev.persistence;
+
+import com.grittonbelldev.dto.nutritionix.FoodResponse;
+import com.grittonbelldev.dto.nutritionix.NutritionixSearchResponseDto;
+import com.grittonbelldev.util.CircuitBreaker;
+import com.grittonbelldev.util.UpstreamUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests NutritionixDao against a local stub of the Nutritionix API.
+ */
+class NutritionixDaoHttpTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+
+    private static final String SEARCH_JSON =
+            "{\"common\":[{\"food_name\":\"apple\",\"tag_id\":\"384\"}],\"branded\":[]}";
+    private static final String FOODS_JSON =
+            "{\"foods\":[{\"food_name\":\"banana\",\"nf_calories\":105}]}";
+
+    private HttpServer server;
+    private NutritionixDao dao;
+    private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+    private final List<String> appIds = new CopyOnWriteArrayList<>();
+    private volatile String lastBody;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        logger.info("Starting stub Nutritionix server...");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/search/instant", exchange -> respond(exchange, 200, SEARCH_JSON));
+        server.createContext("/search/item", exchange -> respond(exchange, 404, "{\"message\":\"not found\"}"));
+        server.createContext("/natural/nutrients", exchange -> {
+            lastBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            respond(exchange, 200, FOODS_JSON);
+        });
+        server.createContext("/failing", exchange -> respond(exchange, 503, "{\"message\":\"down\"}"));
+        server.createContext("/broken", exchange -> respond(exchange, 200, "{\"common\":[{\"food_name\":"));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, SEARCH_JSON);
+        });
+        server.createContext("/stalled", exchange -> {
+            byte[] body = SEARCH_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(body, 0, body.length / 2);
+            out.flush();
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        dao = new NutritionixDao(baseUrl, "test-id", "test-key", Duration.ofSeconds(1), Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dao.close();
+        server.stop(0);
+    }
+
+    @Test
+    void searchInstantSendsCredentialsAndParsesResults() {
+        NutritionixSearchResponseDto result = dao.searchInstant("apple pie");
+
+        assertEquals(1, result.getCommon().size());
+        assertEquals("apple", result.getCommon().get(0).getFoodName());
+        assertTrue(result.getBranded().isEmpty());
+        assertEquals(List.of("test-id"), appIds);
+    }
+
+    @Test
+    void repeatedCallsReuseOneConnection() {
+        dao.searchInstant("apple");
+        dao.searchInstant("apple");
+        dao.searchInstant("apple");
+
+        assertEquals(3, clientPorts.size());
+        assertEquals(1, clientPorts.stream().distinct().count());
+    }
+
+    @Test
+    void naturalNutrientsPostsQuery() {
+        FoodResponse result = dao.naturalNutrients("1 banana");
+
+        assertEquals("banana", result.getFoods().get(0).getFoodName());
+        assertEquals("{\"query\":\"1 banana\"}", lastBody);
+    }
+
+    @Test
+    void nonOkStatusThrows() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> dao.fetchById("missing"));
+        assertTrue(e.getMessage().contains("HTTP 404"));
+    }
+
+    @Test
+    void repeatedServerErrorsOpenTheCircuit() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/failing";
+        try (NutritionixDao failingDao = new NutritionixDao(baseUrl, "test-id", "test-key",
+                Duration.ofSeconds(1), Duration.ofMillis(500))) {
+            for (int i = 0; i < 5; i++) {
+                assertThrows(RuntimeException.class, () -> failingDao.searchInstant("apple"));
+            }
+
+            assertThrows(UpstreamUnavailableException.class, () -> failingDao.searchInstant("apple"));
+            assertEquals(5, clientPorts.size());
+            assertEquals(CircuitBreaker.State.OPEN, failingDao.circuitStates().get("instant search"));
+            assertEquals(CircuitBreaker.State.CLOSED, failingDao.circuitStates().get("fetch"));
+        }
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        for (int i = 0; i < 6; i++) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> dao.fetchById("missing"));
+            assertFalse(e instanceof UpstreamUnavailableException);
+        }
+
+        assertEquals(6, clientPorts.size());
+        assertEquals(CircuitBreaker.State.CLOSED, dao.circuitStates().get("fetch"));
+    }
+
+    @Test
+    void malformedBodyThrowsParseError() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/broken";
+        try (NutritionixDao brokenDao = new NutritionixDao(baseUrl, "test-id", "test-key",
+                Duration.ofSeconds(1), Duration.ofMillis(500))) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> brokenDao.searchInstant("apple"));
+            assertTrue(e.getMessage().startsWith("Failed to parse"));
+        }
+    }
+
+    @Test
+    void slowResponseTimesOut() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow";
+        try (NutritionixDao slowDao = new NutritionixDao(baseUrl, "test-id", "test-key",
+                Duration.ofSeconds(1), Duration.ofMillis(200))) {
+            assertThrows(RuntimeException.class, () -> slowDao.searchInstant("apple"));
+        }
+    }
+
+    @Test
+    void bodyThatStallsAfterTheHeadersTimesOutAndCountsAsAFailure() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/stalled";
+        try (NutritionixDao stalledDao = new NutritionixDao(baseUrl, "test-id", "test-key",
+                Duration.ofSeconds(1), Duration.ofMillis(200))) {
+            for (int i = 0; i < 5; i++) {
+                RuntimeException e = assertThrows(RuntimeException.class, () -> stalledDao.searchInstant("apple"));
+                assertTrue(e.getCause() instanceof TimeoutException, "cause was " + e.getCause());
+            }
+
+            assertThrows(UpstreamUnavailableException.class, () -> stalledDao.searchInstant("apple"));
+            assertEquals(CircuitBreaker.State.OPEN, stalledDao.circuitStates().get("instant search"));
+        }
+    }
+
+    @Test
+    void asyncSearchReturnsBeforeTheResponseArrives() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow";
+        try (NutritionixDao slowDao = new NutritionixDao(baseUrl, "test-id", "test-key",
+                Duration.ofSeconds(1), Duration.ofSeconds(3))) {
+            CompletableFuture<NutritionixSearchResponseDto> pending = slowDao.searchInstantAsync("apple");
+
+            // The stub answers after two seconds, so a caller that had waited would get a finished future
+            assertFalse(pending.isDone());
+            assertEquals("apple", pending.join().getCommon().get(0).getFoodName());
+        }
+    }
+
+    @Test
+    void openCircuitFailsTheFutureWithoutCallingUpstream() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/failing";
+        try (NutritionixDao failingDao = new NutritionixDao(baseUrl, "test-id", "test-key",
+                Duration.ofSeconds(1), Duration.ofMillis(500))) {
+            for (int i = 0; i < 5; i++) {
+                assertThrows(RuntimeException.class, () -> failingDao.fetchById("item"));
+            }
+
+            CompletableFuture<FoodResponse> refused = failingDao.fetchByIdAsync("item");
+
+            assertTrue(refused.isCompletedExceptionally());
+            CompletionException e = assertThrows(CompletionException.class, refused::join);
+            assertTrue(e.getCause() instanceof UpstreamUnavailableException);
+            assertEquals(5, clientPorts.size());
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String json) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        appIds.add(exchange.getRequestHeaders().getFirst("x-app-id"));
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
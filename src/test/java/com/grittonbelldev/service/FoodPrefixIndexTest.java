@@ -0,0 +1,141 @@
+package com.grittonbelldev.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.grittonbelldev.dto.nutritionix.CommonItem;
+import com.grittonbelldev.dto.nutritionix.NutritionixSearchResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodPrefixIndexTest {
+
+    private static final List<String> BANANA_FOODS = List.of(
+            "banana", "banana bread", "banana chips", "banana pudding", "banana smoothie",
+            "banana split", "banana muffin", "banana pepper", "bananas foster", "baked beans");
+
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    private FakeTicker ticker;
+    private FoodPrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ticker = new FakeTicker();
+        index = new FoodPrefixIndex(TTL, ticker);
+        index.addAll(searchResult(BANANA_FOODS));
+    }
+
+    @Test
+    void shortPrefixIsAnsweredLocally() {
+        Optional<NutritionixSearchResponseDto> result = index.lookup("ban");
+
+        assertTrue(result.isPresent());
+        List<String> names = names(result.get());
+        assertEquals(9, names.size());
+        assertEquals("banana", names.get(0));
+        assertFalse(names.contains("baked beans"));
+    }
+
+    @Test
+    void thinPrefixFallsThroughToUpstream() {
+        assertFalse(index.lookup("banana s").isPresent());
+        assertFalse(index.lookup("kiwi").isPresent());
+        assertEquals(2, index.stats().getMissCount());
+    }
+
+    @Test
+    void innerWordsAreSearchable() {
+        List<String> more = new ArrayList<>();
+        for (int i = 0; i < FoodPrefixIndex.MIN_LOCAL_RESULTS; i++) {
+            more.add("food " + i + " bread");
+        }
+        index.addAll(searchResult(more));
+
+        List<String> names = names(index.lookup("brea").orElseThrow());
+
+        assertTrue(names.contains("banana bread"));
+        assertTrue(names.contains("food 0 bread"));
+    }
+
+    @Test
+    void resultsAreCappedAndDistinct() {
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            many.add("banana variety " + i);
+        }
+        index.addAll(searchResult(many));
+        index.addAll(searchResult(many));
+
+        List<String> names = names(index.lookup("banana").orElseThrow());
+
+        assertEquals(FoodPrefixIndex.RESULT_LIMIT, names.size());
+        assertEquals(names.size(), names.stream().distinct().count());
+    }
+
+    @Test
+    void itemsExpireWithTheSearchCache() {
+        ticker.advance(TTL.minusMinutes(1));
+        index.addAll(searchResult(List.of("banana")));
+        ticker.advance(Duration.ofMinutes(2));
+
+        // Only "banana" was seen again within the TTL; too few candidates are left to answer
+        assertFalse(index.lookup("ban").isPresent());
+        assertEquals(List.of("banana"), names(index.fallback("ban")));
+    }
+
+    @Test
+    void repeatedItemsReplaceEarlierCopies() {
+        CommonItem latest = new CommonItem();
+        latest.setFoodName("Banana");
+        NutritionixSearchResponseDto result = new NutritionixSearchResponseDto();
+        result.setCommon(List.of(latest));
+        result.setBranded(List.of());
+        index.addAll(result);
+
+        List<CommonItem> items = index.lookup("banana").orElseThrow().getCommon();
+
+        assertEquals(1, items.stream().filter(item -> "banana".equalsIgnoreCase(item.getFoodName())).count());
+        assertTrue(items.stream().anyMatch(item -> item == latest));
+        assertEquals(BANANA_FOODS.size(), index.stats().getSize());
+    }
+
+    private static NutritionixSearchResponseDto searchResult(List<String> foodNames) {
+        List<CommonItem> common = new ArrayList<>();
+        for (String name : foodNames) {
+            CommonItem item = new CommonItem();
+            item.setFoodName(name);
+            common.add(item);
+        }
+        NutritionixSearchResponseDto result = new NutritionixSearchResponseDto();
+        result.setCommon(common);
+        result.setBranded(List.of());
+        return result;
+    }
+
+    private static List<String> names(NutritionixSearchResponseDto result) {
+        return result.getCommon().stream().map(CommonItem::getFoodName).collect(Collectors.toList());
+    }
+
+    /**
+     * Ticker the test moves forward by hand.
+     */
+    private static final class FakeTicker implements Ticker {
+        private long nanos;
+
+        private void advance(Duration duration) {
+            nanos += duration.toNanos();
+        }
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+}
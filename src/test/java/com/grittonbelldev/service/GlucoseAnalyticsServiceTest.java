@@ -0,0 +1,111 @@
+package com.grittonbelldev.service;
+
+import com.grittonbelldev.dto.GlucoseProfileBucketDto;
+import com.grittonbelldev.dto.GlucoseProfileDto;
+import com.grittonbelldev.dto.GlucoseStatsDto;
+import com.grittonbelldev.entity.GlucoseReading;
+import com.grittonbelldev.entity.User;
+import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.util.Database;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.WebApplicationException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlucoseAnalyticsServiceTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private final LocalDateTime from = LocalDateTime.of(2024, 2, 17, 0, 0);
+    private final LocalDateTime to = LocalDateTime.of(2024, 2, 18, 0, 0);
+    private GlucoseAnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        logger.info("Setting up GlucoseAnalyticsServiceTest...");
+        analyticsService = new GlucoseAnalyticsService();
+        Database.getInstance().runSQL("cleanDB.sql");
+    }
+
+    @Test
+    void statsForUserComputesMeanVariabilityAndGmi() {
+        GlucoseStatsDto stats = analyticsService.statsForUser(1L, from, to);
+
+        assertEquals(2, stats.getReadingCount());
+        assertEquals(127.85, stats.getMean(), 0.001);
+        assertEquals(24.537, stats.getStandardDeviation(), 0.001);
+        assertEquals(19.192, stats.getCoefficientOfVariation(), 0.001);
+        assertEquals(6.368, stats.getGmi(), 0.001);
+        assertEquals(110.5, stats.getMin(), 0.001);
+        assertEquals(145.2, stats.getMax(), 0.001);
+        assertEquals(100.0, stats.getPercentInRange(), 0.001);
+    }
+
+    @Test
+    void statsForUserSplitsReadingsIntoRanges() {
+        GenericDAO<GlucoseReading> readingDao = new GenericDAO<>(GlucoseReading.class);
+        User user = new GenericDAO<>(User.class).getById(1L);
+        for (double level : new double[] {50.0, 65.0, 200.0, 260.0, 180.0, 70.0}) {
+            readingDao.insert(new GlucoseReading(user, level, LocalDateTime.of(2024, 2, 17, 20, 0), "Dexcom", null));
+        }
+
+        GlucoseStatsDto stats = analyticsService.statsForUser(1L, from, to);
+
+        // 8 readings: 110.5, 145.2, 50, 65, 200, 260, 180, 70
+        assertEquals(8, stats.getReadingCount());
+        assertEquals(12.5, stats.getPercentVeryLow(), 0.001);
+        assertEquals(25.0, stats.getPercentBelowRange(), 0.001);
+        assertEquals(50.0, stats.getPercentInRange(), 0.001);
+        assertEquals(25.0, stats.getPercentAboveRange(), 0.001);
+        assertEquals(12.5, stats.getPercentVeryHigh(), 0.001);
+    }
+
+    @Test
+    void statsForUserWithoutReadingsReturnsEmptyStats() {
+        GlucoseStatsDto stats = analyticsService.statsForUser(1L, from.minusYears(1), to.minusYears(1));
+
+        assertEquals(0, stats.getReadingCount());
+        assertNull(stats.getMean());
+        assertNull(stats.getPercentInRange());
+    }
+
+    @Test
+    void statsForUserRejectsInvertedRange() {
+        assertThrows(WebApplicationException.class, () -> analyticsService.statsForUser(1L, to, from));
+    }
+
+    @Test
+    void profileForUserComputesPercentilesPerTimeOfDay() {
+        // 100 mornings at 08:00 with levels 101..200, spread over 100 days
+        GenericDAO<GlucoseReading> readingDao = new GenericDAO<>(GlucoseReading.class);
+        User user = new GenericDAO<>(User.class).getById(2L);
+        LocalDateTime firstDay = LocalDateTime.of(2023, 1, 1, 8, 0);
+        for (int i = 0; i < 100; i++) {
+            readingDao.insert(new GlucoseReading(user, 101.0 + i, firstDay.plusDays(i), "Dexcom", null));
+        }
+
+        GlucoseProfileDto profile = analyticsService.profileForUser(2L, firstDay.minusDays(1), firstDay.plusDays(100), 60);
+
+        assertEquals(100, profile.getReadingCount());
+        assertEquals(24, profile.getBuckets().size());
+        GlucoseProfileBucketDto morning = profile.getBuckets().get(8);
+        assertEquals(480, morning.getMinuteOfDay());
+        assertEquals(100, morning.getCount());
+        assertEquals(105, morning.getP5().intValue());
+        assertEquals(125, morning.getP25().intValue());
+        assertEquals(150, morning.getP50().intValue());
+        assertEquals(175, morning.getP75().intValue());
+        assertEquals(195, morning.getP95().intValue());
+        assertNull(profile.getBuckets().get(0).getP50());
+    }
+
+    @Test
+    void profileForUserRejectsUnevenBuckets() {
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> analyticsService.profileForUser(1L, from, to, 7));
+        assertEquals(400, e.getResponse().getStatus());
+    }
+}
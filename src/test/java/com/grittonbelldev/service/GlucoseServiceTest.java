@@ -0,0 +1,95 @@
+package com.grittonbelldev.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.grittonbelldev.api.JacksonConfig;
+import com.grittonbelldev.dto.GlucoseResponseDto;
+import com.grittonbelldev.dto.GlucoseSeriesDto;
+import com.grittonbelldev.util.Database;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.WebApplicationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlucoseServiceTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private GlucoseService glucoseService;
+    private ObjectMapper mapper;
+    private ObjectWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        logger.info("Setting up GlucoseServiceTest...");
+        glucoseService = new GlucoseService();
+        mapper = new JacksonConfig().getContext(GlucoseResponseDto.class);
+        writer = mapper.writerFor(GlucoseResponseDto.class);
+        Database.getInstance().runSQL("cleanDB.sql");
+    }
+
+    @Test
+    void exportForUserWritesJsonArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        glucoseService.exportForUser(1L, false, writer, out);
+
+        JsonNode readings = mapper.readTree(out.toByteArray());
+        assertTrue(readings.isArray());
+        assertEquals(2, readings.size());
+        assertEquals(110.5, readings.get(0).get("glucoseLevel").asDouble(), 0.01);
+        assertEquals("2024-02-17T07:45:00", readings.get(0).get("measurementTime").asText());
+        assertEquals(145.2, readings.get(1).get("glucoseLevel").asDouble(), 0.01);
+    }
+
+    @Test
+    void exportForUserWritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        glucoseService.exportForUser(1L, true, writer, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Manual", mapper.readTree(lines[0]).get("measurementSource").asText());
+        assertEquals("Dexcom", mapper.readTree(lines[1]).get("measurementSource").asText());
+    }
+
+    @Test
+    void exportForUserWithoutReadingsWritesEmptyArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        glucoseService.exportForUser(999L, false, writer, out);
+
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void listPageForUserRejectsInvertedRange() {
+        LocalDateTime from = LocalDateTime.of(2024, 2, 18, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 17, 0, 0);
+
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> glucoseService.listPageForUser(1L, from, to, null, null));
+        assertEquals(400, e.getResponse().getStatus());
+    }
+
+    @Test
+    void getSeriesForUserReturnsReadingsInWindow() {
+        LocalDateTime from = LocalDateTime.of(2024, 2, 17, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 18, 0, 0);
+
+        GlucoseSeriesDto series = glucoseService.getSeriesForUser(1L, from, to, 1000);
+
+        assertEquals(2, series.getRawCount());
+        assertArrayEquals(new double[] {110.5, 145.2}, series.getValues(), 0.01);
+        assertEquals(LocalDateTime.of(2024, 2, 17, 7, 45), series.getTimes()[0]);
+        assertEquals(LocalDateTime.of(2024, 2, 17, 12, 15), series.getTimes()[1]);
+    }
+}
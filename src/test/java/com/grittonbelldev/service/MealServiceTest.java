@@ -0,0 +1,409 @@
+package com.grittonbelldev.service;
+
+import com.grittonbelldev.dto.DailyNutritionDto;
+import com.grittonbelldev.dto.FoodEntryDto;
+import com.grittonbelldev.dto.MealRequestDto;
+import com.grittonbelldev.dto.MealResponseDto;
+import com.grittonbelldev.dto.PageDto;
+import com.grittonbelldev.entity.Food;
+import com.grittonbelldev.entity.FoodMealJournal;
+import com.grittonbelldev.entity.Meal;
+import com.grittonbelldev.entity.User;
+import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.persistence.MealDao;
+import com.grittonbelldev.persistence.SessionFactoryProvider;
+import com.grittonbelldev.util.Database;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.WebApplicationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MealServiceTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private MealService mealService;
+    private GenericDAO<Meal> mealDAO;
+    private GenericDAO<Food> foodDAO;
+    private GenericDAO<FoodMealJournal> foodMealJournalDAO;
+    private GenericDAO<User> userDAO;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        logger.info("Setting up MealServiceTest...");
+        mealService = new MealService();
+        mealDAO = new GenericDAO<>(Meal.class);
+        foodDAO = new GenericDAO<>(Food.class);
+        foodMealJournalDAO = new GenericDAO<>(FoodMealJournal.class);
+        userDAO = new GenericDAO<>(User.class);
+        Database.getInstance().runSQL("cleanDB.sql");
+
+        statistics = SessionFactoryProvider.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void createForUserSuccess() {
+        MealResponseDto created = mealService.createForUser(1L, buildRequest(3));
+
+        assertNotNull(created.getId());
+        assertEquals(3, created.getFoods().size());
+        assertEquals(3, foodMealJournalDAO.getByPropertyEqual("meal.id", created.getId()).size());
+    }
+
+    @Test
+    void createForUserRejectsBadEntryBeforeWriting() {
+        MealRequestDto request = buildRequest(3);
+        request.getFoods().get(2).setCalories(null);
+        int mealsBefore = mealDAO.getAll().size();
+        int foodsBefore = foodDAO.getAll().size();
+
+        assertThrows(WebApplicationException.class, () -> mealService.createForUser(1L, request));
+
+        assertEquals(mealsBefore, mealDAO.getAll().size());
+        assertEquals(foodsBefore, foodDAO.getAll().size());
+    }
+
+    /**
+     * Storing a meal takes one transaction, and fewer sessions and statements than the old
+     * per-row GenericDAO calls. {@link MealWriteBenchmark} measures the difference in time.
+     */
+    @Test
+    void createForUserWritesTheMealInOneTransaction() {
+        statistics.clear();
+        insertPerRow(1L, buildRequest(10));
+        long perRowSessions = statistics.getSessionOpenCount();
+        long perRowStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        mealService.createForUser(1L, buildRequest(10));
+
+        assertEquals(1, statistics.getTransactionCount());
+        assertTrue(statistics.getSessionOpenCount() < perRowSessions);
+        assertTrue(statistics.getPrepareStatementCount() < perRowStatements);
+    }
+
+    /**
+     * Referenced foods are looked up together, so a meal pointing at five different foods
+     * costs no more statements than one pointing at the same food five times over.
+     */
+    @Test
+    void createForUserLooksUpReferencedFoodsInOneQuery() {
+        SessionFactoryProvider.getSessionFactory().getCache().evictAllRegions();
+        statistics.clear();
+        mealService.createForUser(1L, referencingRequest(20, 1));
+        long oneFoodStatements = statistics.getPrepareStatementCount();
+
+        SessionFactoryProvider.getSessionFactory().getCache().evictAllRegions();
+        statistics.clear();
+        MealResponseDto created = mealService.createForUser(1L, referencingRequest(20, 5));
+
+        assertEquals(20, created.getFoods().size());
+        assertEquals(5, created.getFoods().stream().map(FoodEntryDto::getFoodId).distinct().count());
+        assertEquals(oneFoodStatements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateForUserRejectsUnknownFoodId() {
+        MealRequestDto request = toRequest(mealService.findForUser(1L, 1L));
+        FoodEntryDto unknown = referencingRequest(1, 1).getFoods().get(0);
+        unknown.setFoodId(999L);
+        request.getFoods().add(unknown);
+
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> mealService.updateForUser(1L, 1L, request));
+        assertEquals(400, e.getResponse().getStatus());
+    }
+
+    @Test
+    void updateForUserServingSizeOnlyIssuesOneUpdate() {
+        MealResponseDto current = mealService.findForUser(1L, 1L);
+        MealRequestDto request = toRequest(current);
+        request.getFoods().get(1).setServingSize(3.0);
+
+        // Statements needed just to load and verify the meal
+        statistics.clear();
+        new MealDao().findByIdWithEntries(1L);
+        long loadStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        mealService.updateForUser(1L, 1L, request);
+        long writeStatements = statistics.getPrepareStatementCount() - loadStatements;
+        logger.info("Serving size edit: {} load statements, {} write statements", loadStatements, writeStatements);
+
+        // One journal UPDATE plus one upsert of that day's nutrition rollup
+        assertEquals(2, writeStatements);
+        assertEquals(1, statistics.getTransactionCount());
+
+        List<FoodMealJournal> entries = foodMealJournalDAO.getByPropertyEqual("meal.id", 1L);
+        assertEquals(2, entries.size());
+        assertTrue(entries.stream().anyMatch(e -> e.getServingSize() == 3.0));
+    }
+
+    @Test
+    void updateForUserInsertsAndDeletesOnlyChangedEntries() {
+        MealResponseDto current = mealService.findForUser(1L, 1L);
+        MealRequestDto request = toRequest(current);
+        FoodEntryDto kept = request.getFoods().get(0);
+        FoodEntryDto added = buildRequest(1).getFoods().get(0);
+        request.setFoods(List.of(kept, added));
+
+        MealResponseDto updated = mealService.updateForUser(1L, 1L, request);
+
+        assertEquals(2, updated.getFoods().size());
+        List<FoodMealJournal> entries = foodMealJournalDAO.getByPropertyEqual("meal.id", 1L);
+        assertEquals(2, entries.size());
+        assertTrue(entries.stream().anyMatch(e -> e.getFood().getId().equals(kept.getFoodId())));
+        assertTrue(entries.stream().anyMatch(e -> e.getFood().getFoodName().equals(added.getFoodName())));
+    }
+
+    @Test
+    void updateForUserWithoutChangesWritesNothing() {
+        MealRequestDto request = toRequest(mealService.findForUser(1L, 1L));
+
+        statistics.clear();
+        mealService.updateForUser(1L, 1L, request);
+
+        assertEquals(0, statistics.getTransactionCount());
+    }
+
+    @Test
+    void updateForUserIgnoresEditsBelowCatalogPrecision() {
+        MealRequestDto request = toRequest(mealService.findForUser(1L, 1L));
+        FoodEntryDto entry = request.getFoods().get(0);
+        entry.setCalories(entry.getCalories() + 0.001);
+
+        statistics.clear();
+        mealService.updateForUser(1L, 1L, request);
+
+        assertEquals(0, statistics.getTransactionCount());
+    }
+
+    @Test
+    void updateForUserCaseOnlyRenameKeepsTheCatalogFood() {
+        MealRequestDto request = toRequest(mealService.findForUser(1L, 1L));
+        FoodEntryDto entry = request.getFoods().get(0);
+        Long foodId = entry.getFoodId();
+        String catalogName = entry.getFoodName();
+        String renamed = " " + catalogName.toUpperCase() + "  ";
+        entry.setFoodName(renamed);
+        int foodsBefore = foodDAO.getAll().size();
+
+        MealResponseDto updated = mealService.updateForUser(1L, 1L, request);
+
+        assertEquals(renamed, updated.getFoods().get(0).getFoodName());
+        assertEquals(foodId, updated.getFoods().get(0).getFoodId());
+        assertEquals(renamed, mealService.findForUser(1L, 1L).getFoods().stream()
+                .filter(f -> foodId.equals(f.getFoodId()))
+                .findFirst().orElseThrow().getFoodName());
+        assertEquals(catalogName, foodDAO.getById(foodId).getFoodName());
+        assertEquals(foodsBefore, foodDAO.getAll().size());
+    }
+
+    @Test
+    void createForUserKeepsEachUsersSpellingOfASharedFood() {
+        MealRequestDto first = buildRequest(1);
+        first.getFoods().get(0).setFoodName("banana bread");
+        MealRequestDto second = buildRequest(1);
+        second.getFoods().get(0).setFoodName("Banana  Bread");
+
+        MealResponseDto janes = mealService.createForUser(2L, first);
+        MealResponseDto johns = mealService.createForUser(1L, second);
+
+        assertEquals(janes.getFoods().get(0).getFoodId(), johns.getFoods().get(0).getFoodId());
+        assertEquals("Banana  Bread", johns.getFoods().get(0).getFoodName());
+        assertEquals("Banana  Bread", mealService.findForUser(1L, johns.getId()).getFoods().get(0).getFoodName());
+        assertEquals("banana bread", mealService.findForUser(2L, janes.getId()).getFoods().get(0).getFoodName());
+    }
+
+    @Test
+    void createForUserReusesCatalogFoods() {
+        MealRequestDto request = buildRequest(3);
+        // The same food twice in one meal is stored once too
+        request.getFoods().add(buildRequest(1).getFoods().get(0));
+        int foodsBefore = foodDAO.getAll().size();
+
+        MealResponseDto first = mealService.createForUser(1L, request);
+        MealResponseDto second = mealService.createForUser(1L, buildRequest(3));
+
+        assertEquals(foodsBefore + 3, foodDAO.getAll().size());
+        assertEquals(4, first.getFoods().size());
+        assertEquals(first.getFoods().get(0).getFoodId(), first.getFoods().get(3).getFoodId());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(first.getFoods().get(i).getFoodId(), second.getFoods().get(i).getFoodId());
+        }
+    }
+
+    @Test
+    void updateForUserEditingNutritionLeavesSharedFoodUntouched() {
+        MealRequestDto request = toRequest(mealService.findForUser(1L, 1L));
+        FoodEntryDto edited = request.getFoods().get(0);
+        long originalFoodId = edited.getFoodId();
+        Double originalCalories = foodDAO.getById(originalFoodId).getCalories();
+        edited.setCalories(originalCalories + 50);
+
+        MealResponseDto updated = mealService.updateForUser(1L, 1L, request);
+
+        assertEquals(originalCalories, foodDAO.getById(originalFoodId).getCalories());
+        List<FoodMealJournal> entries = foodMealJournalDAO.getByPropertyEqual("meal.id", 1L);
+        assertEquals(2, entries.size());
+        assertTrue(entries.stream().noneMatch(e -> e.getFood().getId() == originalFoodId));
+        assertTrue(updated.getFoods().stream().anyMatch(f -> f.getCalories() == originalCalories + 50));
+    }
+
+    @Test
+    void updateForUserEditingNutritionKeepsCachedFoodsCorrect() {
+        MealRequestDto request = toRequest(mealService.findForUser(1L, 1L));
+        FoodEntryDto edited = request.getFoods().get(0);
+        long originalFoodId = edited.getFoodId();
+        Double originalCalories = foodDAO.getById(originalFoodId).getCalories();
+        edited.setCalories(originalCalories + 50);
+
+        MealResponseDto updated = mealService.updateForUser(1L, 1L, request);
+        long editedFoodId = updated.getFoods().stream()
+                .filter(f -> f.getCalories() == originalCalories + 50)
+                .findFirst().orElseThrow().getFoodId();
+
+        // The meal write must not flush the food region: the shared row is still cached, unchanged
+        statistics.clear();
+        assertEquals(originalCalories, foodDAO.getById(originalFoodId).getCalories());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(originalCalories + 50, foodDAO.getById(editedFoodId).getCalories(), 0.001);
+        assertEquals(originalCalories + 50, mealService.findForUser(1L, 1L).getFoods().stream()
+                .filter(f -> f.getFoodId() == editedFoodId)
+                .findFirst().orElseThrow().getCalories(), 0.001);
+    }
+
+    @Test
+    void createForUserAddsToDailyTotals() {
+        LocalDate day = LocalDate.of(2024, 2, 18);
+
+        mealService.createForUser(1L, buildRequest(2));
+
+        List<DailyNutritionDto> totals = mealService.listDailyTotalsForUser(1L, day, day);
+        assertEquals(1, totals.size());
+        assertEquals(1, totals.get(0).getMealCount());
+        assertEquals(201.0, totals.get(0).getCalories(), 0.01);
+        assertEquals(4.0, totals.get(0).getProtein(), 0.01);
+    }
+
+    @Test
+    void updateForUserMovingMealRefreshesBothDays() {
+        LocalDate original = LocalDate.of(2024, 2, 17);
+        LocalDate moved = LocalDate.of(2024, 2, 18);
+        MealRequestDto request = toRequest(mealService.findForUser(1L, 1L));
+        request.setTimeEaten(moved.atTime(8, 0));
+        request.getFoods().get(0).setServingSize(3.0);
+
+        mealService.updateForUser(1L, 1L, request);
+
+        List<DailyNutritionDto> totals = mealService.listDailyTotalsForUser(1L, original, moved);
+        assertEquals(1, totals.size());
+        assertEquals(moved, totals.get(0).getDate());
+        // Oatmeal x3 + Avocado Toast x2
+        assertEquals(862.0, totals.get(0).getCalories(), 0.01);
+    }
+
+    @Test
+    void deleteForUserRemovesDayFromTotals() {
+        LocalDate day = LocalDate.of(2024, 2, 17);
+
+        mealService.deleteForUser(1L, 1L);
+
+        assertNull(mealDAO.getById(1L));
+        assertTrue(mealService.listDailyTotalsForUser(1L, day, day).isEmpty());
+    }
+
+    @Test
+    void listDailyTotalsForUserRejectsInvertedRange() {
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> mealService.listDailyTotalsForUser(1L, LocalDate.of(2024, 2, 18), LocalDate.of(2024, 2, 17)));
+        assertEquals(400, e.getResponse().getStatus());
+    }
+
+    @Test
+    void listPageForUserFollowsCursorToTheEnd() {
+        for (int i = 0; i < 3; i++) {
+            mealService.createForUser(1L, buildRequest(2));
+        }
+
+        PageDto<MealResponseDto> first = mealService.listPageForUser(1L, null, 3);
+        assertEquals(3, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+        first.getItems().forEach(meal -> assertEquals(2, meal.getFoods().size()));
+
+        PageDto<MealResponseDto> second = mealService.listPageForUser(1L, first.getNextCursor(), 3);
+        assertEquals(1, second.getItems().size());
+        assertEquals(1L, second.getItems().get(0).getId().longValue());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void listPageForUserRejectsMalformedCursor() {
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> mealService.listPageForUser(1L, "not-a-cursor", 10));
+        assertEquals(400, e.getResponse().getStatus());
+    }
+
+    /**
+     * Replays the previous write path: one session and transaction per inserted row.
+     */
+    private void insertPerRow(long userId, MealRequestDto dto) {
+        Meal meal = new Meal(userDAO.getById(userId), dto.getMealName(), dto.getTimeEaten(), false);
+        mealDAO.insert(meal);
+        for (FoodEntryDto foodDto : dto.getFoods()) {
+            Food food = new Food(foodDto.getFoodName(), foodDto.getFat(), foodDto.getProtein(),
+                    foodDto.getCarbs(), foodDto.getCalories());
+            foodDAO.insert(food);
+            foodMealJournalDAO.insert(new FoodMealJournal(meal, food, foodDto.getServingSize()));
+        }
+    }
+
+    private MealRequestDto buildRequest(int foodCount) {
+        List<FoodEntryDto> foods = new ArrayList<>();
+        for (int i = 0; i < foodCount; i++) {
+            FoodEntryDto food = new FoodEntryDto();
+            food.setFoodName("Test Food " + i);
+            food.setServingSize(1.0);
+            food.setCalories(100.0 + i);
+            food.setFat(1.0);
+            food.setProtein(2.0);
+            food.setCarbs(3.0);
+            foods.add(food);
+        }
+
+        MealRequestDto request = new MealRequestDto();
+        request.setMealName("Benchmark Meal");
+        request.setTimeEaten(LocalDateTime.of(2024, 2, 18, 12, 0));
+        request.setFoods(foods);
+        return request;
+    }
+
+    /**
+     * Builds a request whose entries point at the first {@code distinctFoods} seeded foods by ID, in rotation.
+     */
+    private MealRequestDto referencingRequest(int foodCount, int distinctFoods) {
+        MealRequestDto request = buildRequest(foodCount);
+        for (int i = 0; i < foodCount; i++) {
+            request.getFoods().get(i).setFoodId((long) (i % distinctFoods) + 1);
+        }
+        return request;
+    }
+
+    private MealRequestDto toRequest(MealResponseDto meal) {
+        MealRequestDto request = new MealRequestDto();
+        request.setMealName(meal.getMealName());
+        request.setTimeEaten(meal.getTimeEaten());
+        request.setFoods(new ArrayList<>(meal.getFoods()));
+        return request;
+    }
+}
@@ -0,0 +1,154 @@
+package com.grittonbelldev.service;
+
+import com.grittonbelldev.dto.FoodEntryDto;
+import com.grittonbelldev.dto.MealRequestDto;
+import com.grittonbelldev.dto.MealResponseDto;
+import com.grittonbelldev.entity.Food;
+import com.grittonbelldev.entity.FoodMealJournal;
+import com.grittonbelldev.entity.Meal;
+import com.grittonbelldev.entity.User;
+import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.util.Database;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of storing one meal of {@link #foods} entries for user 1.
+ *
+ * <ul>
+ *   <li>{@code perRowInserts}: the previous write path, one GenericDAO session and
+ *       transaction per meal, food and journal row.</li>
+ *   <li>{@code unitOfWork}: {@link MealService#createForUser} writing everything in one transaction.</li>
+ *   <li>{@code unitOfWorkReferencingFoods}: the same, with every entry pointing at one of the five
+ *       seeded foods by ID, so the cost is the single lookup of those foods plus the journal rows.</li>
+ * </ul>
+ *
+ * Needs the test database from {@code cleanDB.sql}, which is reloaded before every iteration.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.grittonbelldev.service.MealWriteBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MealWriteBenchmark {
+
+    @Param({"10"})
+    public int foods;
+
+    private MealService mealService;
+    private GenericDAO<Meal> mealDao;
+    private GenericDAO<Food> foodDao;
+    private GenericDAO<FoodMealJournal> journalDao;
+    private User user;
+    private MealRequestDto request;
+    private MealRequestDto referencingRequest;
+
+    /**
+     * Resets the test database so each iteration starts from the same tables.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Database.getInstance().runSQL("cleanDB.sql");
+        mealService = new MealService();
+        mealDao = new GenericDAO<>(Meal.class);
+        foodDao = new GenericDAO<>(Food.class);
+        journalDao = new GenericDAO<>(FoodMealJournal.class);
+        user = new GenericDAO<>(User.class).getById(1L);
+        request = buildRequest();
+        referencingRequest = buildRequest();
+        for (int i = 0; i < foods; i++) {
+            referencingRequest.getFoods().get(i).setFoodId((long) (i % 5) + 1);
+        }
+    }
+
+    /**
+     * Stores the meal one row at a time.
+     *
+     * @return the stored meal
+     */
+    @Benchmark
+    public Meal perRowInserts() {
+        Meal meal = new Meal(user, request.getMealName(), request.getTimeEaten(), false);
+        mealDao.insert(meal);
+        for (FoodEntryDto foodDto : request.getFoods()) {
+            Food food = new Food(foodDto.getFoodName(), foodDto.getFat(), foodDto.getProtein(),
+                    foodDto.getCarbs(), foodDto.getCalories());
+            foodDao.insert(food);
+            journalDao.insert(new FoodMealJournal(meal, food, foodDto.getServingSize()));
+        }
+        return meal;
+    }
+
+    /**
+     * Stores the meal through the service.
+     *
+     * @return the stored meal
+     */
+    @Benchmark
+    public MealResponseDto unitOfWork() {
+        return mealService.createForUser(1L, request);
+    }
+
+    /**
+     * Stores a meal whose entries reference existing foods by ID.
+     *
+     * @return the stored meal
+     */
+    @Benchmark
+    public MealResponseDto unitOfWorkReferencingFoods() {
+        return mealService.createForUser(1L, referencingRequest);
+    }
+
+    private MealRequestDto buildRequest() {
+        List<FoodEntryDto> entries = new ArrayList<>();
+        for (int i = 0; i < foods; i++) {
+            FoodEntryDto food = new FoodEntryDto();
+            food.setFoodName("Benchmark Food " + i);
+            food.setServingSize(1.0);
+            food.setCalories(100.0 + i);
+            food.setFat(1.0);
+            food.setProtein(2.0);
+            food.setCarbs(3.0);
+            entries.add(food);
+        }
+
+        MealRequestDto meal = new MealRequestDto();
+        meal.setMealName("Benchmark Meal");
+        meal.setTimeEaten(LocalDateTime.of(2024, 2, 18, 12, 0));
+        meal.setFoods(entries);
+        return meal;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args unused
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MealWriteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
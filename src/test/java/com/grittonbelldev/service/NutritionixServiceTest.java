@@ -0,0 +1,284 @@
+package com.grittonbelldev.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.grittonbelldev.dto.CacheStatsDto;
+import com.grittonbelldev.dto.nutritionix.CommonItem;
+import com.grittonbelldev.dto.nutritionix.FoodResponse;
+import com.grittonbelldev.dto.nutritionix.FoodsItem;
+import com.grittonbelldev.dto.nutritionix.NutritionixSearchResponseDto;
+import com.grittonbelldev.persistence.NutritionixDao;
+import com.grittonbelldev.util.UpstreamUnavailableException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.WebApplicationException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NutritionixServiceTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private static final Duration SEARCH_TTL = Duration.ofMinutes(15);
+    private static final Duration ITEM_TTL = Duration.ofHours(24);
+
+    private CountingDao dao;
+    private FakeTicker ticker;
+    private NutritionixService service;
+
+    @BeforeEach
+    void setUp() {
+        logger.info("Setting up NutritionixServiceTest...");
+        dao = new CountingDao();
+        ticker = new FakeTicker();
+        service = new NutritionixService(dao, SEARCH_TTL, ITEM_TTL, ticker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void repeatedSearchIsServedFromCache() {
+        service.searchAll("banana");
+        service.searchAll("banana");
+
+        assertEquals(List.of("banana"), dao.searches);
+        CacheStatsDto stats = service.cacheStats().get(0);
+        assertEquals("nutritionixSearch", stats.getName());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    void searchKeysAreNormalized() {
+        service.searchAll("Banana  Bread");
+        service.searchCommon("banana bread");
+        service.searchBranded("BANANA BREAD");
+
+        // One upstream call, sent as the first caller typed it
+        assertEquals(List.of("Banana  Bread"), dao.searches);
+    }
+
+    @Test
+    void searchEntriesExpireAfterTtl() {
+        service.searchAll("banana");
+        ticker.advance(SEARCH_TTL.plusSeconds(1));
+        service.searchAll("banana");
+
+        assertEquals(2, dao.searches.size());
+    }
+
+    @Test
+    void failedSearchIsNotCached() {
+        dao.failNext = true;
+        assertThrows(RuntimeException.class, () -> service.searchAll("banana"));
+
+        service.searchAll("banana");
+        assertEquals(2, dao.searches.size());
+    }
+
+    @Test
+    void prefixesOfEarlierResultsAreAnsweredLocally() {
+        dao.resultNames = List.of("banana", "banana bread", "banana chips", "banana pudding",
+                "banana smoothie", "banana split", "banana muffin", "banana pepper");
+        service.searchAll("banana");
+
+        NutritionixSearchResponseDto result = service.searchAll("Ban");
+
+        assertEquals(List.of("banana"), dao.searches);
+        assertEquals(8, result.getCommon().size());
+        CacheStatsDto indexStats = service.cacheStats().get(2);
+        assertEquals("foodPrefixIndex", indexStats.getName());
+        assertEquals(1, indexStats.getHitCount());
+    }
+
+    @Test
+    void unavailableUpstreamFallsBackToLocalResults() {
+        dao.resultNames = List.of("banana", "banana bread");
+        service.searchAll("banana");
+
+        dao.unavailable = true;
+        NutritionixSearchResponseDto result = service.searchAll("banana b");
+
+        assertEquals(1, result.getCommon().size());
+        assertEquals("banana bread", result.getCommon().get(0).getFoodName());
+    }
+
+    @Test
+    void unavailableUpstreamFailsItemLookupWith503() {
+        dao.unavailable = true;
+
+        WebApplicationException e = assertThrows(WebApplicationException.class, () -> service.fetchById("item-1"));
+        assertEquals(503, e.getResponse().getStatus());
+    }
+
+    @Test
+    void itemLookupsAreCachedLongerThanSearches() {
+        service.fetchById("item-1");
+        ticker.advance(SEARCH_TTL.plusSeconds(1));
+        FoodsItem item = service.fetchById("item-1");
+
+        assertEquals("item-1", item.getNixItemId());
+        assertEquals(List.of("item-1"), dao.items);
+    }
+
+    @Test
+    void missingItemIsNotCached() {
+        assertThrows(NotFoundException.class, () -> service.fetchById("missing"));
+        assertThrows(NotFoundException.class, () -> service.fetchById("missing"));
+
+        assertEquals(List.of("missing", "missing"), dao.items);
+    }
+
+    @Test
+    void naturalNutrientsSendsQueryAsTypedAndIsNotCached() {
+        service.naturalNutrients("1  Banana");
+        service.naturalNutrients("1 banana");
+
+        assertEquals(List.of("1  Banana", "1 banana"), dao.naturalQueries);
+    }
+
+    @Test
+    void asyncSearchCompletesWhenUpstreamAnswers() {
+        dao.pendingSearch = new CompletableFuture<>();
+
+        CompletableFuture<NutritionixSearchResponseDto> first = service.searchAllAsync("kiwi");
+        CompletableFuture<NutritionixSearchResponseDto> second = service.searchAllAsync("Kiwi");
+        assertFalse(first.isDone());
+
+        NutritionixSearchResponseDto answer = new NutritionixSearchResponseDto();
+        answer.setCommon(List.of());
+        answer.setBranded(List.of());
+        dao.pendingSearch.complete(answer);
+
+        assertSame(answer, first.join());
+        assertSame(answer, second.join());
+        assertEquals(List.of("kiwi"), dao.searches);
+    }
+
+    @Test
+    void asyncItemLookupFailsWith404WhenMissing() {
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> service.fetchByIdAsync("missing").join());
+
+        assertTrue(e.getCause() instanceof NotFoundException);
+    }
+
+    @Test
+    void concurrentAsyncNutrientAnalysesShareOneCall() {
+        dao.pendingNatural = new CompletableFuture<>();
+
+        CompletableFuture<List<FoodsItem>> first = service.naturalNutrientsAsync("1 banana");
+        CompletableFuture<List<FoodsItem>> second = service.naturalNutrientsAsync("1  Banana");
+        FoodResponse response = new FoodResponse();
+        response.setFoods(List.of(new FoodsItem()));
+        dao.pendingNatural.complete(response);
+
+        assertEquals(1, first.join().size());
+        assertEquals(1, second.join().size());
+        assertEquals(List.of("1 banana"), dao.naturalQueries);
+    }
+
+    @Test
+    void normalizeCollapsesWhitespaceAndCase() {
+        assertEquals("greek yogurt", NutritionixService.normalize("\tGreek   YOGURT \n"));
+        assertEquals("", NutritionixService.normalize(null));
+    }
+
+    /**
+     * DAO stand-in that records each call that would have reached Nutritionix.
+     */
+    private static final class CountingDao extends NutritionixDao {
+        private final List<String> searches = new ArrayList<>();
+        private final List<String> items = new ArrayList<>();
+        private final List<String> naturalQueries = new ArrayList<>();
+        private List<String> resultNames = List.of();
+        private boolean failNext;
+        private boolean unavailable;
+        private CompletableFuture<NutritionixSearchResponseDto> pendingSearch;
+        private CompletableFuture<FoodResponse> pendingNatural;
+
+        private CountingDao() {
+            super("test-id", "test-key");
+        }
+
+        @Override
+        public CompletableFuture<NutritionixSearchResponseDto> searchInstantAsync(String query) {
+            if (unavailable) {
+                return CompletableFuture.failedFuture(new UpstreamUnavailableException("circuit is open"));
+            }
+            searches.add(query);
+            if (failNext) {
+                failNext = false;
+                return CompletableFuture.failedFuture(
+                        new RuntimeException("Nutritionix instant search failed: HTTP 503"));
+            }
+            if (pendingSearch != null) {
+                return pendingSearch;
+            }
+            List<CommonItem> common = new ArrayList<>();
+            for (String name : resultNames) {
+                CommonItem item = new CommonItem();
+                item.setFoodName(name);
+                common.add(item);
+            }
+            NutritionixSearchResponseDto result = new NutritionixSearchResponseDto();
+            result.setCommon(common);
+            result.setBranded(List.of());
+            return CompletableFuture.completedFuture(result);
+        }
+
+        @Override
+        public CompletableFuture<FoodResponse> fetchByIdAsync(String nixItemId) {
+            if (unavailable) {
+                return CompletableFuture.failedFuture(new UpstreamUnavailableException("circuit is open"));
+            }
+            items.add(nixItemId);
+            FoodResponse response = new FoodResponse();
+            if ("missing".equals(nixItemId)) {
+                response.setFoods(List.of());
+            } else {
+                FoodsItem item = new FoodsItem();
+                item.setNixItemId(nixItemId);
+                response.setFoods(List.of(item));
+            }
+            return CompletableFuture.completedFuture(response);
+        }
+
+        @Override
+        public CompletableFuture<FoodResponse> naturalNutrientsAsync(String query) {
+            naturalQueries.add(query);
+            if (pendingNatural != null) {
+                return pendingNatural;
+            }
+            FoodResponse response = new FoodResponse();
+            response.setFoods(List.of(new FoodsItem()));
+            return CompletableFuture.completedFuture(response);
+        }
+    }
+
+    /**
+     * Ticker the test moves forward by hand.
+     */
+    private static final class FakeTicker implements Ticker {
+        private long nanos;
+
+        private void advance(Duration duration) {
+            nanos += duration.toNanos();
+        }
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+    }
+}
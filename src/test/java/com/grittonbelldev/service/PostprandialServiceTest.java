@@ -0,0 +1,94 @@
+package com.grittonbelldev.service;
+
+import com.grittonbelldev.dto.MealGlucoseResponseDto;
+import com.grittonbelldev.entity.GlucoseReading;
+import com.grittonbelldev.entity.Meal;
+import com.grittonbelldev.entity.User;
+import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.util.Database;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.WebApplicationException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostprandialServiceTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private PostprandialService postprandialService;
+    private GenericDAO<GlucoseReading> readingDAO;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        logger.info("Setting up PostprandialServiceTest...");
+        postprandialService = new PostprandialService();
+        readingDAO = new GenericDAO<>(GlucoseReading.class);
+        Database.getInstance().runSQL("cleanDB.sql");
+        user = new GenericDAO<>(User.class).getById(2L);
+    }
+
+    @Test
+    void responseForMealComputesAllMetrics() {
+        // User 2's lunch is at 12:30; baseline 100, peak 180 at 13:00, back to baseline by 14:30
+        addReading(12, 0, 100);
+        addReading(12, 20, 100);
+        addReading(12, 45, 140);
+        addReading(13, 0, 180);
+        addReading(13, 30, 140);
+        addReading(14, 0, 110);
+        addReading(14, 30, 95);
+
+        MealGlucoseResponseDto response = postprandialService.responseForMeal(2L, 2L);
+
+        assertEquals(100.0, response.getBaseline(), 0.001);
+        assertEquals(180.0, response.getPeak(), 0.001);
+        assertEquals(30L, response.getMinutesToPeak().longValue());
+        assertEquals(3850.0, response.getIncrementalAuc2h(), 0.001);
+        assertEquals(120L, response.getMinutesToBaseline().longValue());
+        assertEquals(5, response.getReadingCount());
+    }
+
+    @Test
+    void responseForMealWithoutBaselineLeavesMetricsEmpty() {
+        addReading(13, 0, 180);
+
+        MealGlucoseResponseDto response = postprandialService.responseForMeal(2L, 2L);
+
+        assertNull(response.getBaseline());
+        assertNull(response.getPeak());
+    }
+
+    @Test
+    void responseForMealOfAnotherUserIsNotFound() {
+        WebApplicationException e = assertThrows(WebApplicationException.class,
+                () -> postprandialService.responseForMeal(1L, 2L));
+        assertEquals(404, e.getResponse().getStatus());
+    }
+
+    @Test
+    void responsesForUserSharesReadingsBetweenOverlappingMeals() {
+        // A snack 45 minutes after lunch: the 13:00 reading is lunch's rise and the snack's baseline
+        new GenericDAO<>(Meal.class).insert(new Meal(user, "Snack", LocalDateTime.of(2024, 2, 17, 13, 15), false));
+        addReading(12, 20, 100);
+        addReading(13, 0, 150);
+        addReading(13, 30, 170);
+
+        List<MealGlucoseResponseDto> responses = postprandialService.responsesForUser(2L,
+                LocalDateTime.of(2024, 2, 17, 0, 0), LocalDateTime.of(2024, 2, 18, 0, 0));
+
+        assertEquals(2, responses.size());
+        assertEquals(170.0, responses.get(0).getPeak(), 0.001);
+        assertEquals(60L, responses.get(0).getMinutesToPeak().longValue());
+        assertEquals(150.0, responses.get(1).getBaseline(), 0.001);
+        assertEquals(170.0, responses.get(1).getPeak(), 0.001);
+    }
+
+    private void addReading(int hour, int minute, double level) {
+        readingDAO.insert(new GlucoseReading(user, level, LocalDateTime.of(2024, 2, 17, hour, minute), "Dexcom", null));
+    }
+}
@@ -0,0 +1,89 @@
+package com.grittonbelldev.service;
+
+import com.grittonbelldev.entity.User;
+import com.grittonbelldev.persistence.GenericDAO;
+import com.grittonbelldev.persistence.SessionFactoryProvider;
+import com.grittonbelldev.util.Database;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserServiceTest {
+    private final Logger logger = LogManager.getLogger(this.getClass());
+    private GenericDAO<User> userDAO;
+
+    @BeforeEach
+    void setUp() {
+        logger.info("Setting up UserServiceTest...");
+        userDAO = new GenericDAO<>(User.class);
+        Database.getInstance().runSQL("cleanDB.sql");
+    }
+
+    @Test
+    void findOrCreateByCognitoIdReturnsExistingUser() {
+        User user = new UserService().findOrCreateByCognitoId("user-002", "jane.smith@example.com");
+
+        assertEquals(2L, user.getId().longValue());
+        assertEquals(3, userDAO.getAll().size());
+    }
+
+    @Test
+    void findOrCreateByCognitoIdRepeatLookupSkipsDatabase() {
+        UserService userService = new UserService();
+        Statistics statistics = SessionFactoryProvider.getSessionFactory().getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        userService.findOrCreateByCognitoId("user-002", "jane.smith@example.com");
+        long statementsAfterMiss = statistics.getPrepareStatementCount();
+        User user = userService.findOrCreateByCognitoId("user-002", "jane.smith@example.com");
+
+        assertEquals(2L, user.getId().longValue());
+        assertEquals(statementsAfterMiss, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdStatistics(User.class.getName()).getCacheHitCount());
+    }
+
+    @Test
+    void findOrCreateByCognitoIdConcurrentInsertsDoNotFail() throws Exception {
+        // Separate service instances, as in separate application nodes, so nothing serializes the calls
+        int threads = 6;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                UserService service = new UserService();
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return service.findOrCreateByCognitoId("race-sub", "race@example.com");
+                }));
+            }
+            start.countDown();
+
+            Long id = null;
+            for (Future<User> future : futures) {
+                User user = future.get(30, TimeUnit.SECONDS);
+                if (id == null) {
+                    id = user.getId();
+                }
+                assertEquals(id, user.getId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, userDAO.getByPropertyEqual("cognitoId", "race-sub").size());
+    }
+}
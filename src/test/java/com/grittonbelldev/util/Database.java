@@ -1,5 +1,6 @@
 package com.grittonbelldev.util;
 
+import com.grittonbelldev.persistence.SessionFactoryProvider;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -119,5 +120,7 @@ public class Database implements PropertiesLoader {
             disconnect();
         }
 
+        // The script changed rows behind Hibernate's back, so nothing in the second-level cache can be trusted
+        SessionFactoryProvider.getSessionFactory().getCache().evictAllRegions();
     }
 }
@@ -0,0 +1,75 @@
+package com.grittonbelldev.util;
+
+import com.grittonbelldev.entity.Food;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FoodContentHashTest {
+
+    @Test
+    void nameIsNormalized() {
+        Food food = banana();
+        Food renamed = banana();
+        renamed.setFoodName("  BANANA \t");
+
+        assertEquals(FoodContentHash.of(food), FoodContentHash.of(renamed));
+    }
+
+    @Test
+    void sameNameIgnoresCaseAndSpacingOnly() {
+        assertTrue(FoodContentHash.sameName("Banana  Bread", " banana bread"));
+        assertFalse(FoodContentHash.sameName("Banana Bread", "BananaBread"));
+        assertFalse(FoodContentHash.sameName("Banana", null));
+    }
+
+    @Test
+    void nutrientsAreComparedAtStoredPrecision() {
+        Food food = banana();
+        Food unrounded = banana();
+        unrounded.setFat(0.4000001);
+        Food stored = banana();
+        stored.setFat(0.40);
+
+        assertEquals(FoodContentHash.of(food), FoodContentHash.of(unrounded));
+        assertEquals(FoodContentHash.of(food), FoodContentHash.of(stored));
+    }
+
+    @Test
+    void differentContentHashesDifferently() {
+        Food other = banana();
+        other.setCalories(106.0);
+        Food withNotes = banana();
+        withNotes.setNotes("organic");
+
+        assertNotEquals(FoodContentHash.of(banana()), FoodContentHash.of(other));
+        assertNotEquals(FoodContentHash.of(banana()), FoodContentHash.of(withNotes));
+    }
+
+    @Test
+    void missingNutrientDiffersFromZero() {
+        Food missing = banana();
+        Food zero = banana();
+        zero.setSodium(0.0);
+
+        assertNotEquals(FoodContentHash.of(missing), FoodContentHash.of(zero));
+    }
+
+    @Test
+    void idAndStoredHashAreIgnored() {
+        Food stored = banana();
+        stored.setId(42L);
+        stored.setContentHash("stale");
+
+        String hash = FoodContentHash.of(stored);
+
+        assertEquals(FoodContentHash.of(banana()), hash);
+        assertEquals(64, hash.length());
+    }
+
+    private static Food banana() {
+        Food banana = new Food("Banana", 0.4, 1.3, 27.0, 105.0);
+        banana.setPotassium(422.0);
+        return banana;
+    }
+}
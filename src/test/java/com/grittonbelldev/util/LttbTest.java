@@ -0,0 +1,45 @@
+package com.grittonbelldev.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LttbTest {
+
+    @Test
+    void downsampleKeepsEndpointsAndExtremes() {
+        // 90 days of 5-minute readings with one sharp high and one sharp low
+        int size = 90 * 24 * 12;
+        long[] x = new long[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i * 300L;
+            y[i] = 120 + 30 * Math.sin(i / 50.0);
+        }
+        int high = 10_000;
+        int low = 20_000;
+        y[high] = 350;
+        y[low] = 45;
+
+        int[] kept = Lttb.downsample(x, y, size, 1000);
+
+        assertEquals(1000, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(size - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+        assertTrue(Arrays.stream(kept).anyMatch(i -> i == high));
+        assertTrue(Arrays.stream(kept).anyMatch(i -> i == low));
+    }
+
+    @Test
+    void downsampleReturnsEverythingWhenBelowThreshold() {
+        long[] x = {0, 300, 600};
+        double[] y = {100, 110, 105};
+
+        assertArrayEquals(new int[] {0, 1, 2}, Lttb.downsample(x, y, 3, 1000));
+    }
+}
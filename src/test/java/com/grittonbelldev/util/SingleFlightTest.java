@@ -0,0 +1,152 @@
+package com.grittonbelldev.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> flight.execute("banana", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+
+            // Hold the leader until everyone has had time to join its flight
+            waitUntil(() -> calls.get() == 1);
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(0, flight.inFlightCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void followersReceiveLeadersException() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute("banana", () -> {
+                leaderStarted.countDown();
+                await(release);
+                throw new IllegalStateException("upstream down");
+            }));
+            leaderStarted.await(5, TimeUnit.SECONDS);
+            Future<String> follower = pool.submit(() -> flight.execute("banana", () -> "never called"));
+            Thread.sleep(200);
+            release.countDown();
+
+            Exception fromLeader = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception fromFollower = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertEquals("upstream down", fromLeader.getCause().getMessage());
+            assertEquals("upstream down", fromFollower.getCause().getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void keyIsReleasedAfterCallFinishes() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(1, flight.execute("banana", calls::incrementAndGet).intValue());
+        assertEquals(2, flight.execute("banana", calls::incrementAndGet).intValue());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+
+        String outer = flight.execute("banana", () -> "banana:" + flight.execute("apple", () -> "apple"));
+
+        assertEquals("banana:apple", outer);
+    }
+
+    @Test
+    void asyncCallersShareOneFuture() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flight.executeAsync("banana", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = flight.executeAsync("banana", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("never used");
+        });
+        assertEquals(1, flight.inFlightCount());
+
+        upstream.complete("result");
+
+        assertEquals("result", first.join());
+        assertEquals("result", second.join());
+        assertEquals(1, calls.get());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void asyncFailureReachesEveryCallerAndReleasesKey() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.executeAsync("banana", () -> upstream);
+        CompletableFuture<String> second = flight.executeAsync("banana", () -> upstream);
+
+        upstream.completeExceptionally(new IllegalStateException("upstream down"));
+
+        CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertEquals("upstream down", e.getCause().getMessage());
+        assertThrows(CompletionException.class, second::join);
+        assertEquals("again", flight.executeAsync("banana", () -> CompletableFuture.completedFuture("again")).join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 -- Drop tables if they exist (in reverse dependency order to prevent foreign key issues)
 SET FOREIGN_KEY_CHECKS = 0;
+DROP TABLE IF EXISTS DailyNutritionSummary;
 DROP TABLE IF EXISTS GlucoseReading;
 DROP TABLE IF EXISTS FavoriteItems;
 DROP TABLE IF EXISTS FoodMealJournal;
@@ -35,7 +36,10 @@ vitamin_d DECIMAL(5,2),
 calcium DECIMAL(5,2),
 iron DECIMAL(5,2),
 potassium DECIMAL(5,2),
-notes TEXT
+notes TEXT,
+-- SHA-256 of the normalized name, nutrients and notes, so identical foods are stored once
+content_hash CHAR(64) NULL,
+CONSTRAINT unique_food_content_hash UNIQUE (content_hash)
 );
 
 -- Create the Meal table
@@ -45,7 +49,9 @@ user_id BIGINT NOT NULL,
 meal_name VARCHAR(255) NOT NULL,
 time_eaten DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
 is_favorite BOOLEAN DEFAULT FALSE,
-FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE
+FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE,
+-- Serves per-user listings ordered by time (keyset pagination seeks on time_eaten, id)
+INDEX idx_meal_user_time (user_id, time_eaten)
 );
 
 -- Create the FoodMealJournal table
@@ -54,6 +60,7 @@ id BIGINT AUTO_INCREMENT PRIMARY KEY,
 meal_id BIGINT NOT NULL,
 food_id BIGINT NOT NULL,
 serving_size DECIMAL(5,2) NOT NULL,
+food_name VARCHAR(255) NULL,
 FOREIGN KEY (meal_id) REFERENCES Meal(id) ON DELETE CASCADE,
 FOREIGN KEY (food_id) REFERENCES Food(id) ON DELETE CASCADE
 );
@@ -79,7 +86,24 @@ glucose_level DECIMAL(5,2) NOT NULL,
 measurement_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
 measurement_source VARCHAR(50) NOT NULL,
 notes TEXT NULL,
-FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE
+FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE,
+-- Serves per-user listings and time-range scans ordered by measurement_time
+INDEX idx_glucose_user_time (user_id, measurement_time)
+);
+
+-- Create the DailyNutritionSummary table (per-user, per-day rollup of the meal journal)
+CREATE TABLE DailyNutritionSummary (
+id BIGINT AUTO_INCREMENT PRIMARY KEY,
+user_id BIGINT NOT NULL,
+summary_date DATE NOT NULL,
+meal_count INT NOT NULL DEFAULT 0,
+calories DECIMAL(10,2) NOT NULL DEFAULT 0,
+protein DECIMAL(10,2) NOT NULL DEFAULT 0,
+fat DECIMAL(10,2) NOT NULL DEFAULT 0,
+carbs DECIMAL(10,2) NOT NULL DEFAULT 0,
+FOREIGN KEY (user_id) REFERENCES Users(id) ON DELETE CASCADE,
+-- One row per user and day, also serves date-range reads for a user
+CONSTRAINT unique_daily_summary UNIQUE (user_id, summary_date)
 );
 
 -- INSERT TEST DATA
@@ -124,4 +148,14 @@ INSERT INTO GlucoseReading (user_id, glucose_level, measurement_time, measuremen
 (1, 110.5, '2024-02-17 07:45:00', 'Manual', 'Before breakfast'),
 (1, 145.2, '2024-02-17 12:15:00', 'Dexcom', 'Post-lunch spike'),
 (2, 98.0, '2024-02-17 18:50:00', 'Nightscout', 'Before dinner'),
-(3, 120.3, '2024-02-17 22:30:00', 'Manual', 'Bedtime reading');
\ No newline at end of file
+(3, 120.3, '2024-02-17 22:30:00', 'Manual', 'Bedtime reading');
+
+-- Build the DailyNutritionSummary rollup from the journal rows above
+INSERT INTO DailyNutritionSummary (user_id, summary_date, meal_count, calories, protein, fat, carbs)
+SELECT m.user_id, DATE(m.time_eaten), COUNT(DISTINCT m.id),
+COALESCE(SUM(f.calories * e.serving_size), 0), COALESCE(SUM(f.protein * e.serving_size), 0),
+COALESCE(SUM(f.fat * e.serving_size), 0), COALESCE(SUM(f.carbs * e.serving_size), 0)
+FROM Meal m
+LEFT JOIN FoodMealJournal e ON e.meal_id = m.id
+LEFT JOIN Food f ON f.id = e.food_id
+GROUP BY m.user_id, DATE(m.time_eaten);